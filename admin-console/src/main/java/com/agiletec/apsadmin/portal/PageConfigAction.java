@@ -297,6 +297,7 @@ public class PageConfigAction extends AbstractPortalAction implements ServletRes
 			}
 			IPage publicPage = this.getOnlinePage(this.getPageCode());
 			if (null != publicPage) {
+				publicPage = publicPage.clone();
 				((Page) page).setMetadata(publicPage.getMetadata());
 				((Page) page).setWidgets(publicPage.getWidgets());
 				this.getPageManager().updatePage(page);
@@ -26,6 +26,7 @@ import com.agiletec.aps.system.services.category.CategoryUtilizer;
 import com.agiletec.aps.system.services.group.GroupUtilizer;
 import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorManager;
 import com.agiletec.aps.system.services.page.PageUtilizer;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import com.agiletec.plugins.jacms.aps.system.JacmsSystemConstants;
 import com.agiletec.plugins.jacms.aps.system.services.cache.CmsCacheWrapperManager;
 import com.agiletec.plugins.jacms.aps.system.services.content.event.PublicContentChangedEvent;
@@ -42,6 +43,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.ent.exception.EntRuntimeException;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
@@ -62,6 +64,8 @@ public class ContentManager extends ApsEntityManager
 
     public static final String CONTENT_TYPE_CACHE_PREFIX = "jacms_ContentType_";
 
+    public static final String CONTENT_OBJECT_CACHE_PREFIX = "jacms_ContentObject_";
+
     private IContentDAO contentDAO;
 
     private IContentSearcherDAO workContentSearcherDAO;
@@ -175,7 +179,10 @@ public class ContentManager extends ApsEntityManager
     /**
      * Return a complete content given its ID; it is possible to choose to
      * return the published -unmodifiable!- content or the working copy. It also
-     * returns the data in the form of XML.
+     * returns the data in the form of XML. The parsed contents are kept in
+     * cache; every call returns a copy that can be freely modified. The
+     * contents with attributes that don't support the copy of their value are
+     * not cached.
      *
      * @param id The ID of the content
      * @param onLine Specifies the type of the content to return: 'true'
@@ -186,14 +193,53 @@ public class ContentManager extends ApsEntityManager
     @Override
     public Content loadContent(String id, boolean onLine) throws EntException {
         try {
-            ContentRecordVO contentVo = this.loadContentVO(id);
-            return this.createContent(contentVo, onLine);
+            if (null == id) {
+                return this.createContent(this.loadContentVO(id), onLine);
+            }
+            String cacheKey = this.getContentObjectCacheKey(id, onLine);
+            Content cached = this.getCacheInfoManager().getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey, Content.class);
+            if (null != cached) {
+                Content copy = (Content) cached.getEntityCopy();
+                if (null != copy) {
+                    return copy;
+                }
+            }
+            Content content = this.createContent(this.loadContentVO(id), onLine);
+            if (null == content) {
+                return null;
+            }
+            Content copy = (Content) content.getEntityCopy();
+            if (null == copy) {
+                logger.debug("Content {} not cached: its attributes don't support the copy", id);
+                return content;
+            }
+            String[] groups = new String[]{JacmsSystemConstants.CONTENT_CACHE_GROUP_PREFIX + id,
+                JacmsSystemConstants.CONTENT_TYPE_CACHE_GROUP_PREFIX + content.getTypeCode()};
+            this.getCacheInfoManager().putInCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey, content, groups);
+            return copy;
         } catch (EntException e) {
             logger.error("Error while loading content : id {}", id, e);
             throw new EntException("Error while loading content : id " + id, e);
         }
     }
 
+    private String getContentObjectCacheKey(String id, boolean onLine) {
+        String tenantCode = ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+        return CONTENT_OBJECT_CACHE_PREFIX + tenantCode + "_" + (onLine ? "onLine_" : "work_") + id;
+    }
+
+    /**
+     * Remove from cache the parsed objects of the given content.
+     * The published content is released too, because it carries the status of
+     * the working copy.
+     *
+     * @param id The id of the content.
+     */
+    private void releaseContentObjects(String id) {
+        this.getCacheInfoManager().flushEntry(ICacheInfoManager.DEFAULT_CACHE_NAME, this.getContentObjectCacheKey(id, true));
+        this.getCacheInfoManager().flushEntry(ICacheInfoManager.DEFAULT_CACHE_NAME, this.getContentObjectCacheKey(id, false));
+    }
+
     protected Content createContent(ContentRecordVO contentVo, boolean onLine) throws EntException {
         Content content = null;
         try {
@@ -317,6 +363,7 @@ public class ContentManager extends ApsEntityManager
             } else {
                 this.getContentDAO().addEntity(content);
             }
+            this.releaseContentObjects(id);
         } catch (Throwable t) {
             logger.error("Error while saving content", t);
             throw new EntException("Error while saving content", t);
@@ -186,6 +186,33 @@ public class Content extends ApsEntity {
         return content;
     }
 
+    @Override
+    public IApsEntity getEntityCopy() {
+        Content content = (Content) super.getEntityCopy();
+        if (null == content) {
+            return null;
+        }
+        content.status = this.status;
+        content.onLine = this.onLine;
+        content.sync = this.sync;
+        content.viewPage = this.viewPage;
+        content.listModel = this.listModel;
+        content.defaultModel = this.defaultModel;
+        content.created = copyDate(this.created);
+        content.lastModified = copyDate(this.lastModified);
+        content.published = copyDate(this.published);
+        content.version = this.version;
+        content.firstEditor = this.firstEditor;
+        content.lastEditor = this.lastEditor;
+        content.restriction = this.restriction;
+        content.categories.addAll(this.categories);
+        return content;
+    }
+
+    private static Date copyDate(Date date) {
+        return (null != date) ? new Date(date.getTime()) : null;
+    }
+
     @Override
     protected IApsEntityDOM getBuildJDOM() {
         ContentDOM contentDOM = (ContentDOM) super.getBuildJDOM();
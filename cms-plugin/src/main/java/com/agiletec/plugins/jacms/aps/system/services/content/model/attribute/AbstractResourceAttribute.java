@@ -13,6 +13,7 @@
  */
 package com.agiletec.plugins.jacms.aps.system.services.content.model.attribute;
 
+import com.agiletec.aps.system.common.entity.model.attribute.AbstractAttribute;
 import com.agiletec.aps.system.common.entity.model.attribute.AbstractJAXBAttribute;
 import com.agiletec.aps.system.common.entity.model.attribute.TextAttribute;
 import com.agiletec.aps.system.services.group.Group;
@@ -176,6 +177,21 @@ public abstract class AbstractResourceAttribute extends TextAttribute
         return prototype;
     }
 
+    /**
+     * Copia il valore dell'attributo; le risorse, caricate dal gestore delle
+     * risorse, sono condivise con l'attributo originale.
+     */
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        AbstractResourceAttribute resourceCopy = (AbstractResourceAttribute) copy;
+        resourceCopy.getResources().putAll(this.getResources());
+        for (Map.Entry<String, Map<String, String>> entry : this.getMetadatas().entrySet()) {
+            Map<String, String> metadata = (null != entry.getValue()) ? new HashMap<>(entry.getValue()) : null;
+            resourceCopy.setMetadataMap(entry.getKey(), metadata);
+        }
+        return super.copyValueTo(copy);
+    }
+
     /**
      * Setta una risorsa sull'attributo.
      *
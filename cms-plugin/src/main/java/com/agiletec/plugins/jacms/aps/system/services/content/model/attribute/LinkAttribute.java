@@ -16,6 +16,7 @@ package com.agiletec.plugins.jacms.aps.system.services.content.model.attribute;
 import com.agiletec.aps.system.common.entity.model.AttributeFieldError;
 import com.agiletec.aps.system.common.entity.model.AttributeTracer;
 import com.agiletec.aps.system.common.entity.model.FieldError;
+import com.agiletec.aps.system.common.entity.model.attribute.AbstractAttribute;
 import com.agiletec.aps.system.common.entity.model.attribute.AbstractJAXBAttribute;
 import com.agiletec.aps.system.common.entity.model.attribute.TextAttribute;
 import com.agiletec.aps.system.services.lang.ILangManager;
@@ -67,6 +68,29 @@ public class LinkAttribute extends TextAttribute implements IReferenceableAttrib
         return prototype;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        LinkAttribute linkCopy = (LinkAttribute) copy;
+        for (Map.Entry<String, SymbolicLink> entry : this.getSymbolicLinks().entrySet()) {
+            SymbolicLink link = entry.getValue();
+            SymbolicLink symbolicLink = null;
+            if (null != link) {
+                symbolicLink = new SymbolicLink();
+                symbolicLink.setDestType(link.getDestType());
+                symbolicLink.setContentDestination(link.getContentDestination());
+                symbolicLink.setPageDestination(link.getPageDestination());
+                symbolicLink.setUrlDest(link.getUrlDest());
+                symbolicLink.setResourceDestination(link.getResourceDestination());
+            }
+            linkCopy.getSymbolicLinks().put(entry.getKey(), symbolicLink);
+        }
+        for (Map.Entry<String, Map<String, String>> entry : this.getLinksProperties().entrySet()) {
+            Map<String, String> properties = (null != entry.getValue()) ? new HashMap<>(entry.getValue()) : null;
+            linkCopy.getLinksProperties().put(entry.getKey(), properties);
+        }
+        return super.copyValueTo(copy);
+    }
+
     @Override
     public Element getJDOMElement() {
         Element attributeElement = this.createRootElement("attribute");
@@ -16,8 +16,12 @@ package com.agiletec.plugins.jacms.aps.system.services.dispenser;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
@@ -28,6 +32,7 @@ import com.agiletec.aps.system.common.entity.model.attribute.AttributeRole;
 import com.agiletec.aps.system.services.authorization.IAuthorizationManager;
 import com.agiletec.aps.system.services.group.Group;
 import com.agiletec.aps.system.services.user.UserDetails;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import com.agiletec.plugins.jacms.aps.system.JacmsSystemConstants;
 import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
 import com.agiletec.plugins.jacms.aps.system.services.content.helper.IContentAuthorizationHelper;
@@ -103,12 +108,40 @@ public class BaseContentDispenser extends AbstractService implements IContentDis
 
     protected ContentRenderizationInfo getRenderizationInfo(PublicContentAuthorizationInfo authInfo,
             String contentId, long modelId, String langCode, UserDetails user, RequestContext reqCtx, boolean cacheable) {
+        if (!cacheable) {
+            return this.buildRenderizationInfo(authInfo, contentId, modelId, langCode, user, reqCtx);
+        }
         String cacheKey = BaseContentDispenser.getRenderizationInfoCacheKey(contentId, modelId, langCode, user);
-        ContentRenderizationInfo renderInfo = (cacheable)
-                ? (ContentRenderizationInfo) this.getCacheInfoManager().getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey) : null;
+        ContentRenderizationInfo renderInfo = (ContentRenderizationInfo) this.getCacheInfoManager().getFromCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey);
         if (null != renderInfo) {
             return renderInfo;
         }
+        String renderingKey = this.getTenantCode() + "_" + cacheKey;
+        CompletableFuture<ContentRenderizationInfo> rendering = new CompletableFuture<>();
+        CompletableFuture<ContentRenderizationInfo> currentRendering = this.renderingsInProgress.putIfAbsent(renderingKey, rendering);
+        if (null != currentRendering) {
+            return currentRendering.join();
+        }
+        try {
+            renderInfo = this.buildRenderizationInfo(authInfo, contentId, modelId, langCode, user, reqCtx);
+            if (null != renderInfo) {
+                String[] groups = BaseContentDispenser.getRenderizationInfoCacheGroupsCsv(contentId, modelId).split(",");
+                this.getCacheInfoManager().putInCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey, renderInfo, groups);
+            }
+            return renderInfo;
+        } finally {
+            rendering.complete(renderInfo);
+            this.renderingsInProgress.remove(renderingKey, rendering);
+        }
+    }
+
+    /**
+     * Build the renderization info of the content without using the cache.
+     * @return the renderization info, or null in case of error
+     */
+    protected ContentRenderizationInfo buildRenderizationInfo(PublicContentAuthorizationInfo authInfo,
+            String contentId, long modelId, String langCode, UserDetails user, RequestContext reqCtx) {
+        ContentRenderizationInfo renderInfo = null;
         try {
             List<Group> userGroups = (null != user) ? this.getAuthorizationManager().getUserGroups(user) : new ArrayList<>();
             if (authInfo.isUserAllowed(userGroups)) {
@@ -123,10 +156,6 @@ public class BaseContentDispenser extends AbstractService implements IContentDis
             _logger.error("Error while rendering content {}", contentId, t);
             return null;
         }
-        if (cacheable) {
-            String[] groups = BaseContentDispenser.getRenderizationInfoCacheGroupsCsv(contentId, modelId).split(",");
-            this.getCacheInfoManager().putInCache(ICacheInfoManager.DEFAULT_CACHE_NAME, cacheKey, renderInfo, groups);
-        }
         return renderInfo;
     }
 
@@ -163,7 +192,7 @@ public class BaseContentDispenser extends AbstractService implements IContentDis
         return renderInfo;
     }
 
-    protected synchronized String buildRenderedContent(Content content, long modelId, String langCode, RequestContext reqCtx) {
+    protected String buildRenderedContent(Content content, long modelId, String langCode, RequestContext reqCtx) {
         if (null == content) {
             _logger.warn("Null The content can't be rendered");
             return null;
@@ -271,6 +300,10 @@ public class BaseContentDispenser extends AbstractService implements IContentDis
         this.cacheInfoManager = cacheInfoManager;
     }
 
+    protected String getTenantCode() {
+        return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+    }
+
     private IContentAuthorizationHelper _contentAuthorizationHelper;
 
     private IContentRenderer _contentRenderer;
@@ -280,4 +313,6 @@ public class BaseContentDispenser extends AbstractService implements IContentDis
     
     private transient ICacheInfoManager cacheInfoManager;
 
+    private final transient Map<String, CompletableFuture<ContentRenderizationInfo>> renderingsInProgress = new ConcurrentHashMap<>();
+
 }
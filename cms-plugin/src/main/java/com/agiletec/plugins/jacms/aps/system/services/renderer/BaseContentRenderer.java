@@ -15,10 +15,15 @@ package com.agiletec.plugins.jacms.aps.system.services.renderer;
 
 import java.io.StringWriter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.Velocity;
 import org.apache.velocity.context.Context;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
@@ -27,27 +32,31 @@ import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.renderer.BaseEntityRenderer;
 import com.agiletec.aps.system.common.renderer.EntityWrapper;
 import com.agiletec.aps.system.common.renderer.TextAttributeCharReplaceInfo;
-import org.entando.entando.ent.exception.EntException;
 import com.agiletec.aps.system.services.i18n.I18nManagerWrapper;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
 import com.agiletec.plugins.jacms.aps.system.services.contentmodel.ContentModel;
 import com.agiletec.plugins.jacms.aps.system.services.contentmodel.IContentModelManager;
+import com.agiletec.plugins.jacms.aps.system.services.contentmodel.event.ContentModelChangedEvent;
+import com.agiletec.plugins.jacms.aps.system.services.contentmodel.event.ContentModelChangedObserver;
 
 /**
  * Servizio di renderizzazione contenuti.
  * @author M.Diana - W.Ambu - E.Santoboni
  */
-public class BaseContentRenderer extends BaseEntityRenderer implements IContentRenderer {
+public class BaseContentRenderer extends BaseEntityRenderer implements IContentRenderer, ContentModelChangedObserver {
 
 	private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(BaseContentRenderer.class);
 	
+	private final Map<String, Map<Long, ParsedContentModel>> contentModelTemplates = new ConcurrentHashMap<>();
+	
 	@Override
 	public String render(Content content, long modelId, String langCode, RequestContext reqCtx) {
 		String renderedEntity = null;
 		List<TextAttributeCharReplaceInfo> conversions = null;
 		try {
 			conversions = this.convertSpecialCharacters(content, langCode);
-			String contentModel = this.getModelShape(modelId);
+			Template template = this.getModelTemplate(modelId);
 			Context velocityContext = new VelocityContext();
 			ContentWrapper contentWrapper = (ContentWrapper) this.getEntityWrapper(content);
 			contentWrapper.setRenderingLang(langCode);
@@ -58,10 +67,7 @@ public class BaseContentRenderer extends BaseEntityRenderer implements IContentR
 			SystemInfoWrapper systemInfoWrapper = new SystemInfoWrapper(reqCtx);
 			velocityContext.put("info", systemInfoWrapper);
 			StringWriter stringWriter = new StringWriter();
-			boolean isEvaluated = Velocity.evaluate(velocityContext, stringWriter, "render", contentModel);
-			if (!isEvaluated) {
-				throw new EntException("Error rendering content");
-			}
+			template.merge(velocityContext, stringWriter);
 			stringWriter.flush();
 			renderedEntity = stringWriter.toString();
 		} catch (Throwable t) {
@@ -76,6 +82,38 @@ public class BaseContentRenderer extends BaseEntityRenderer implements IContentR
 		return renderedEntity;
 	}
 	
+	/**
+	 * Return the parsed template of the given content model.
+	 * The template is parsed once and reused until the shape of the model changes.
+	 * @param modelId the id of the content model
+	 * @return the parsed template
+	 * @throws ParseException in case of invalid content model
+	 */
+	protected Template getModelTemplate(long modelId) throws ParseException {
+		String shape = this.getModelShape(modelId);
+		Map<Long, ParsedContentModel> templates = this.contentModelTemplates.computeIfAbsent(this.getTenantCode(), code -> new ConcurrentHashMap<>());
+		ParsedContentModel parsed = templates.get(modelId);
+		if (null == parsed || !parsed.isParsedFrom(shape)) {
+			parsed = new ParsedContentModel(shape, this.parseTemplate("contentModel_" + modelId, shape));
+			templates.put(modelId, parsed);
+		}
+		return parsed.getTemplate();
+	}
+	
+	@Override
+	public void updateFromContentModelChanged(ContentModelChangedEvent event) {
+		Map<Long, ParsedContentModel> templates = this.contentModelTemplates.get(this.getTenantCode());
+		if (null == templates) {
+			return;
+		}
+		ContentModel model = event.getContentModel();
+		if (null != model) {
+			templates.remove(model.getId());
+		} else {
+			templates.clear();
+		}
+	}
+	
 	@Override
 	protected EntityWrapper getEntityWrapper(IApsEntity entity) {
 		return new ContentWrapper((Content)entity, this.getBeanFactory());
@@ -106,6 +144,33 @@ public class BaseContentRenderer extends BaseEntityRenderer implements IContentR
 		this._contentModelManager = contentModelManager;
 	}
 	
+	protected String getTenantCode() {
+		return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+	}
+	
 	private IContentModelManager _contentModelManager;
 	
+	/**
+	 * A parsed content model with the shape it was parsed from.
+	 */
+	private static final class ParsedContentModel {
+		
+		private final String shape;
+		private final Template template;
+		
+		private ParsedContentModel(String shape, Template template) {
+			this.shape = shape;
+			this.template = template;
+		}
+		
+		private boolean isParsedFrom(String otherShape) {
+			return Objects.equals(this.shape, otherShape);
+		}
+		
+		private Template getTemplate() {
+			return template;
+		}
+		
+	}
+	
 }
@@ -45,7 +45,6 @@ import org.xml.sax.InputSource;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
-import javax.xml.parsers.SAXParser;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.StringReader;
@@ -502,10 +501,9 @@ public class ResourceManager extends AbstractService implements IResourceManager
      */
     protected void fillEmptyResourceFromXml(ResourceInterface resource, String xml) throws EntException {
         try {
-            SAXParser parser = EntSafeXmlUtils.newSafeSAXParser();
             InputSource is = new InputSource(new StringReader(xml));
             ResourceHandler handler = new ResourceHandler(resource, this.getCategoryManager());
-            parser.parse(is, handler);
+            EntSafeXmlUtils.parseWithPooledSAXParser(is, handler);
         } catch (Throwable t) {
             logger.error("Error loading resource", t);
             throw new EntException("Error loading resource", t);
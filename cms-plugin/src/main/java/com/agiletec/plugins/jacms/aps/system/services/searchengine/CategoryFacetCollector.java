@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+/**
+ * Collector that counts the matching documents of every category code, reading
+ * the codes indexed as doc values by the indexer (the categories of the content
+ * and their parents). Counts are collected by ordinal for each segment and
+ * resolved to codes once, at the end of the search.
+ * Only the legacy documents, indexed by a previous version of the indexer and
+ * recognizable because they have no content id doc values, are counted from
+ * the stored category paths; a document with the content id doc values and
+ * without category doc values has no categories. The legacy documents are
+ * removed by the next reload of the indexes.
+ */
+class CategoryFacetCollector extends SimpleCollector {
+
+    private final String field;
+    private final String pathField;
+    private final Set<String> pathFields;
+
+    private final List<SortedSetDocValues> segmentValues = new ArrayList<>();
+    private final List<int[]> segmentCounts = new ArrayList<>();
+    private final Map<String, Integer> pathOccurrences = new HashMap<>();
+
+    private LeafReader reader;
+    private SortedSetDocValues values;
+    private SortedDocValues idValues;
+    private int[] counts;
+
+    CategoryFacetCollector() {
+        this(IIndexerDAO.CONTENT_CATEGORY_CODE_FIELD_NAME, IIndexerDAO.CONTENT_CATEGORY_FIELD_NAME);
+    }
+
+    CategoryFacetCollector(String field, String pathField) {
+        this.field = field;
+        this.pathField = pathField;
+        this.pathFields = Collections.singleton(pathField);
+    }
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+        this.reader = context.reader();
+        this.values = DocValues.getSortedSet(context.reader(), this.field);
+        this.idValues = DocValues.getSorted(context.reader(), IIndexerDAO.CONTENT_ID_FIELD_NAME);
+        this.counts = new int[(int) this.values.getValueCount()];
+        this.segmentValues.add(this.values);
+        this.segmentCounts.add(this.counts);
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        if (this.values.advanceExact(doc)) {
+            for (long ord = this.values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = this.values.nextOrd()) {
+                this.counts[(int) ord]++;
+            }
+        } else if (!this.idValues.advanceExact(doc)) {
+            this.collectPaths(doc);
+        }
+    }
+
+    private void collectPaths(int doc) throws IOException {
+        String[] paths = this.reader.document(doc, this.pathFields).getValues(this.pathField);
+        if (paths.length == 0) {
+            return;
+        }
+        Set<String> codes = new HashSet<>();
+        for (String path : paths) {
+            codes.addAll(Arrays.asList(path.split(IIndexerDAO.CONTENT_CATEGORY_SEPARATOR)));
+        }
+        for (String code : codes) {
+            this.pathOccurrences.merge(code, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * Return the occurrences of every category code in the matching documents.
+     * @return the occurrences by category code
+     * @throws IOException In case of error
+     */
+    Map<String, Integer> getOccurrences() throws IOException {
+        Map<String, Integer> occurrences = new HashMap<>(this.pathOccurrences);
+        for (int i = 0; i < this.segmentValues.size(); i++) {
+            SortedSetDocValues docValues = this.segmentValues.get(i);
+            int[] ordCounts = this.segmentCounts.get(i);
+            for (int ord = 0; ord < ordCounts.length; ord++) {
+                if (ordCounts[ord] > 0) {
+                    occurrences.merge(docValues.lookupOrd(ord).utf8ToString(), ordCounts[ord], Integer::sum);
+                }
+            }
+        }
+        return occurrences;
+    }
+
+}
@@ -14,6 +14,8 @@
 package com.agiletec.plugins.jacms.aps.system.services.searchengine;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.Set;
 
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.aps.system.common.tree.ITreeNodeManager;
@@ -53,6 +55,17 @@ public interface IIndexerDAO {
      */
     public void delete(String name, String value) throws EntException;
 
+    /**
+     * Restituisce gli identificativi dei contenuti presenti nell'indice.
+     * Se l'indicizzatore non è in grado di elencarli restituisce un insieme vuoto.
+     *
+     * @return Gli identificativi dei contenuti indicizzati.
+     * @throws EntException In caso di errori.
+     */
+    public default Set<String> getIndexedIds() throws EntException {
+        return Collections.emptySet();
+    }
+
     public void close();
 
     public void setLangManager(ILangManager langManager);
@@ -65,6 +78,7 @@ public interface IIndexerDAO {
     public static final String CONTENT_GROUP_FIELD_NAME = FIELD_PREFIX + "group";
     public static final String CONTENT_CATEGORY_FIELD_NAME = FIELD_PREFIX + "category";
     public static final String CONTENT_CATEGORY_SEPARATOR = "/";
+    public static final String CONTENT_CATEGORY_CODE_FIELD_NAME = FIELD_PREFIX + "categoryCode";
     public static final String SORTERED_FIELD_SUFFIX = "_sort";
 
     public static final String CONTENT_DESCRIPTION_FIELD_NAME = FIELD_PREFIX + IContentManager.CONTENT_DESCR_FILTER_KEY;
@@ -86,4 +86,26 @@ public interface ISearchEngineDAOFactory {
      */
     public void deleteSubDirectory(String subDirectory);
 
+    /**
+     * Salva l'avanzamento del ricaricamento indici in corso, dopo aver reso
+     * persistente il nuovo indice.
+     *
+     * @param progress L'avanzamento del ricaricamento.
+     * @throws EntException In caso di errore.
+     */
+    public void storeReloadCheckpoint(ReloadProgress progress) throws EntException;
+
+    /**
+     * Restituisce l'avanzamento salvato del ricaricamento indici interrotto.
+     *
+     * @return L'avanzamento salvato, null se non esiste.
+     * @throws EntException In caso di errore.
+     */
+    public ReloadProgress loadReloadCheckpoint() throws EntException;
+
+    /**
+     * Cancella l'avanzamento salvato del ricaricamento indici.
+     */
+    public void deleteReloadCheckpoint();
+
 }
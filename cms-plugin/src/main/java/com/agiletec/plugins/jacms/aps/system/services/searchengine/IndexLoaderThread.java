@@ -13,9 +13,19 @@
  */
 package com.agiletec.plugins.jacms.aps.system.services.searchengine;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
@@ -24,47 +34,134 @@ import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
 
 /**
  * Thread Class delegate to load content index, in use on SearchEngine.
+ * The contents are indexed in id order by a pool of workers, one batch at a time;
+ * after every batch the new index is committed and the progress is stored as
+ * checkpoint, so that an interrupted reload can be resumed.
+ * A resumed reload indexes the contents not yet present in the new index and
+ * removes the ones deleted in the meantime.
+ * An interrupted reload (see {@link #stopLoading(long)}) is not successful and
+ * keeps its checkpoint.
  * @author E.Santoboni
  */
 public class IndexLoaderThread extends Thread {
 
 	private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(IndexLoaderThread.class);
 	
+	private static final int BATCH_SIZE = 500;
+	
 	public IndexLoaderThread(SearchEngineManager searchEngineManager, 
 			IContentManager contentManager, IIndexerDAO indexerDao) {
+		this(searchEngineManager, contentManager, indexerDao, 1, null);
+	}
+	
+	public IndexLoaderThread(SearchEngineManager searchEngineManager, 
+			IContentManager contentManager, IIndexerDAO indexerDao, int workers, ReloadProgress checkpoint) {
 		this._contentManager = contentManager;
 		this._searchEngineManager = searchEngineManager;
 		this._indexerDao = indexerDao;
+		this._workers = Math.max(1, workers);
+		this._checkpoint = checkpoint;
 	}
 	
 	@Override
 	public void run() {
 		LastReloadInfo reloadInfo = new LastReloadInfo();
+		boolean interrupted = false;
 		try {
 			this.loadNewIndex();
-			reloadInfo.setResult(LastReloadInfo.ID_SUCCESS_RESULT);
+			interrupted = this.isInterrupted();
+			reloadInfo.setResult(interrupted ? LastReloadInfo.ID_FAILURE_RESULT : LastReloadInfo.ID_SUCCESS_RESULT);
+		} catch (InterruptedException e) {
+			interrupted = true;
+			reloadInfo.setResult(LastReloadInfo.ID_FAILURE_RESULT);
 		} catch (Throwable t) {
 			reloadInfo.setResult(LastReloadInfo.ID_FAILURE_RESULT);
 			_logger.error("error in run", t);
 		} finally {
 			reloadInfo.setDate(new Date());
-			this._searchEngineManager.notifyEndingIndexLoading(reloadInfo, this._indexerDao);
-			this._searchEngineManager.sellOfQueueEvents();
+			if (interrupted) {
+				_logger.warn("Reload of indexes interrupted - indexed {} of {} contents", this._indexed.get(), this._total);
+				this._searchEngineManager.notifyInterruptedIndexLoading();
+			} else {
+				this._searchEngineManager.notifyEndingIndexLoading(reloadInfo, this._indexerDao);
+				this._searchEngineManager.sellOfQueueEvents();
+			}
+		}
+	}
+	
+	/**
+	 * Stop the reload: the thread is interrupted and awaited together with its workers.
+	 * The checkpoint of the reload is kept, so that the reload can be resumed.
+	 * @param timeout The max time to wait for the thread and for the workers, in milliseconds.
+	 * @throws InterruptedException If the calling thread is interrupted while waiting.
+	 */
+	public void stopLoading(long timeout) throws InterruptedException {
+		this.interrupt();
+		this.join(timeout);
+		ExecutorService executor = this._executor;
+		if (null != executor) {
+			executor.shutdownNow();
+			if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+				_logger.warn("Workers of {} still running after {} ms", this.getName(), timeout);
+			}
+		}
+		if (this.isAlive()) {
+			_logger.warn("{} still running after {} ms", this.getName(), timeout);
 		}
 	}
 	
 	private void loadNewIndex() throws Throwable {
+		ExecutorService executor = null;
 		try {
-			List<String> contentsId = this._contentManager.searchId(null);
-			for (int i=0; i<contentsId.size(); i++) {
-				String id = contentsId.get(i);
-				this.reloadContentIndex(id);
+			List<String> contentsId = new ArrayList<>(this._contentManager.searchId(null));
+			Collections.sort(contentsId);
+			if (null != this._checkpoint) {
+				this.skipIndexedContents(contentsId);
+			}
+			this._total = this._indexed.get() + contentsId.size();
+			AtomicInteger workerCount = new AtomicInteger();
+			executor = Executors.newFixedThreadPool(this._workers, 
+					r -> new Thread(r, this.getName() + "_" + workerCount.incrementAndGet()));
+			this._executor = executor;
+			for (int start = 0; start < contentsId.size(); start += BATCH_SIZE) {
+				List<String> batch = contentsId.subList(start, Math.min(start + BATCH_SIZE, contentsId.size()));
+				List<Future<?>> futures = new ArrayList<>();
+				for (String id : batch) {
+					futures.add(executor.submit(() -> this.reloadContentIndex(id)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				if (this.isInterrupted()) {
+					throw new InterruptedException("Reload of indexes interrupted");
+				}
+				this._searchEngineManager.storeReloadCheckpoint(this.getProgress(batch.get(batch.size() - 1)));
+				_logger.info("Indexed {} of {} contents", this._indexed.get(), this._total);
 			}
 			_logger.info("Indicizzazione effettuata");
+		} catch (InterruptedException e) {
+			throw e;
 		} catch (Throwable t) {
 			_logger.error("error in reloadIndex", t);
 			throw t;
+		} finally {
+			if (null != executor) {
+				executor.shutdownNow();
+			}
+		}
+	}
+	
+	private void skipIndexedContents(List<String> contentsId) throws EntException {
+		Set<String> indexedIds = this._indexerDao.getIndexedIds();
+		Set<String> currentIds = new HashSet<>(contentsId);
+		for (String indexedId : indexedIds) {
+			if (!currentIds.contains(indexedId)) {
+				this._indexerDao.delete(IIndexerDAO.CONTENT_ID_FIELD_NAME, indexedId);
+			}
 		}
+		contentsId.removeIf(indexedIds::contains);
+		this._indexed.set(currentIds.size() - contentsId.size());
+		_logger.info("Resuming reload - {} contents already indexed", this._indexed.get());
 	}
 	
 	private void reloadContentIndex(String id) {
@@ -76,11 +173,32 @@ public class IndexLoaderThread extends Thread {
 			}
 		} catch (Throwable t) {
 			_logger.error("Error reloading index: content id {}", id, t);
+		} finally {
+			this._indexed.incrementAndGet();
 		}
 	}
 	
+	/**
+	 * Return the progress of the reload.
+	 * @param lastContentId The last content id of the contents already indexed.
+	 * @return The progress of the reload.
+	 */
+	protected ReloadProgress getProgress(String lastContentId) {
+		return new ReloadProgress(null, lastContentId, this._indexed.get(), this._total);
+	}
+	
+	public ReloadProgress getProgress() {
+		return this.getProgress(null);
+	}
+	
 	private SearchEngineManager _searchEngineManager;
 	private IContentManager _contentManager;
 	private IIndexerDAO _indexerDao;
+	private int _workers;
+	private ReloadProgress _checkpoint;
+	private volatile ExecutorService _executor;
+	
+	private final AtomicInteger _indexed = new AtomicInteger();
+	private volatile int _total;
 	
 }
\ No newline at end of file
@@ -25,16 +25,15 @@ import org.entando.entando.ent.exception.EntException;
 import com.agiletec.aps.system.services.category.Category;
 import com.agiletec.aps.system.services.lang.*;
 import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
-import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.*;
-import org.apache.lucene.store.*;
 
 import java.io.*;
 import java.math.BigDecimal;
 import java.util.*;
 import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
@@ -46,7 +45,8 @@ public class IndexerDAO implements IIndexerDAO {
 
     private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(IndexerDAO.class);
 
-    private Directory dir;
+    private LuceneIndex index;
+    private boolean ownIndex;
 
     private ILangManager langManager;
 
@@ -54,39 +54,35 @@ public class IndexerDAO implements IIndexerDAO {
 
     /**
      * Inizializzazione dell'indicizzatore.
+     * Se l'indice non è stato assegnato dalla factory, viene aperto un indice
+     * dedicato, chiuso insieme all'indicizzatore.
      *
      * @param dir La cartella locale contenitore dei dati persistenti.
      * @throws EntException In caso di errore
      */
     @Override
     public void init(File dir) throws EntException {
-        try {
-            this.dir = FSDirectory.open(dir.toPath(), SimpleFSLockFactory.INSTANCE);
-        } catch (Throwable t) {
-            _logger.error("Error creating directory", t);
-            throw new EntException("Error creating directory", t);
+        if (null == this.index) {
+            try {
+                this.index = new LuceneIndex(dir, 0);
+                this.ownIndex = true;
+            } catch (Throwable t) {
+                _logger.error("Error creating directory", t);
+                throw new EntException("Error creating directory", t);
+            }
         }
         _logger.debug("Indexer: search engine index ok.");
     }
 
     @Override
-    public synchronized void add(IApsEntity entity) throws EntException {
-        IndexWriter writer = null;
+    public void add(IApsEntity entity) throws EntException {
         try {
-            writer = new IndexWriter(this.dir, this.getIndexWriterConfig());
             Document document = this.createDocument(entity);
-            writer.addDocument(document);
+            this.index.getWriter().updateDocument(new Term(CONTENT_ID_FIELD_NAME, entity.getId()), document);
+            this.index.changed();
         } catch (Throwable t) {
             _logger.error("Errore saving entity {}", entity.getId(), t);
             throw new EntException("Error saving entity", t);
-        } finally {
-            if (null != writer) {
-                try {
-                    writer.close();
-                } catch (IOException ex) {
-                    _logger.error("Error closing IndexWriter", ex);
-                }
-            }
         }
     }
 
@@ -94,6 +90,7 @@ public class IndexerDAO implements IIndexerDAO {
         Document document = new Document();
         document.add(new StringField(CONTENT_ID_FIELD_NAME,
                 entity.getId(), Field.Store.YES));
+        document.add(new SortedDocValuesField(CONTENT_ID_FIELD_NAME, new BytesRef(entity.getId())));
         document.add(new TextField(CONTENT_TYPE_FIELD_NAME,
                 entity.getTypeCode(), Field.Store.YES));
         document.add(new StringField(CONTENT_GROUP_FIELD_NAME,
@@ -249,6 +246,7 @@ public class IndexerDAO implements IIndexerDAO {
         }
         document.add(new StringField(CONTENT_CATEGORY_FIELD_NAME,
                 categoryToIndex.getPath(CONTENT_CATEGORY_SEPARATOR, false, this.getTreeNodeManager()), Field.Store.YES));
+        document.add(new SortedSetDocValuesField(CONTENT_CATEGORY_CODE_FIELD_NAME, new BytesRef(categoryToIndex.getCode())));
         ITreeNode parentCategory = this.getTreeNodeManager().getNode(categoryToIndex.getParentCode());
         this.indexCategory(document, parentCategory);
     }
@@ -261,11 +259,10 @@ public class IndexerDAO implements IIndexerDAO {
      * @throws EntException In caso di errore
      */
     @Override
-    public synchronized void delete(String name, String value) throws EntException {
+    public void delete(String name, String value) throws EntException {
         try {
-            IndexWriter writer = new IndexWriter(this.dir, this.getIndexWriterConfig());
-            writer.deleteDocuments(new Term(name, value));
-            writer.close();
+            this.index.getWriter().deleteDocuments(new Term(name, value));
+            this.index.changed();
         } catch (IOException e) {
             _logger.error("Error deleting document", e);
             throw new EntException("Error deleting document", e);
@@ -273,16 +270,50 @@ public class IndexerDAO implements IIndexerDAO {
     }
 
     @Override
-    public void close() {
-        // nothing to do
+    public Set<String> getIndexedIds() throws EntException {
+        Set<String> ids = new HashSet<>();
+        try {
+            this.index.refresh();
+            IndexSearcher searcher = this.index.acquireSearcher();
+            try {
+                for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                    LeafReader reader = leaf.reader();
+                    Bits liveDocs = reader.getLiveDocs();
+                    SortedDocValues idValues = DocValues.getSorted(reader, CONTENT_ID_FIELD_NAME);
+                    for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                        if (null != liveDocs && !liveDocs.get(doc)) {
+                            continue;
+                        }
+                        if (idValues.advanceExact(doc)) {
+                            ids.add(idValues.binaryValue().utf8ToString());
+                        } else {
+                            ids.add(reader.document(doc).get(CONTENT_ID_FIELD_NAME));
+                        }
+                    }
+                }
+            } finally {
+                this.index.releaseSearcher(searcher);
+            }
+        } catch (IOException e) {
+            _logger.error("Error reading indexed ids", e);
+            throw new EntException("Error reading indexed ids", e);
+        }
+        return ids;
     }
 
-    private Analyzer getAnalyzer() {
-        return new StandardAnalyzer();
+    @Override
+    public void close() {
+        if (this.ownIndex) {
+            try {
+                this.index.close();
+            } catch (IOException e) {
+                _logger.error("Error closing index", e);
+            }
+        }
     }
 
-    private IndexWriterConfig getIndexWriterConfig() {
-        return new IndexWriterConfig(this.getAnalyzer());
+    void setIndex(LuceneIndex index) {
+        this.index = index;
     }
 
     protected ILangManager getLangManager() {
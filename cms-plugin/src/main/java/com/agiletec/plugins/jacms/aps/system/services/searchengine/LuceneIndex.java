@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * A Lucene index directory with its long-lived writer and a near-real-time
+ * searcher manager built on the writer.
+ * Changes are visible to the searchers after a refresh of the reader snapshot
+ * and are durable after a commit; both are driven by the owner of the index
+ * (see {@link SearchEngineDAOFactory}). A searcher acquired when there are
+ * changes not yet visible and the last refresh is older than the max staleness
+ * refreshes the snapshot first.
+ */
+class LuceneIndex {
+
+    private final File dir;
+    private final long maxStaleness;
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long refreshedChanges;
+    private volatile long committedChanges;
+    private volatile long lastRefresh = System.currentTimeMillis();
+
+    LuceneIndex(File dir, long maxStaleness) throws IOException {
+        this.dir = dir;
+        this.maxStaleness = maxStaleness;
+        // native locks are released by the OS if the process dies holding the writer
+        this.directory = FSDirectory.open(dir.toPath());
+        IndexWriter indexWriter = null;
+        try {
+            indexWriter = new IndexWriter(this.directory, new IndexWriterConfig(new StandardAnalyzer()));
+            this.writer = indexWriter;
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException | RuntimeException e) {
+            if (null != indexWriter) {
+                indexWriter.close();
+            }
+            this.directory.close();
+            throw e;
+        }
+    }
+
+    File getDir() {
+        return dir;
+    }
+
+    IndexWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Record a change made through the writer.
+     */
+    void changed() {
+        this.changes.incrementAndGet();
+    }
+
+    IndexSearcher acquireSearcher() throws IOException {
+        if (this.isStale() && System.currentTimeMillis() - this.lastRefresh >= this.maxStaleness) {
+            this.refresh();
+        }
+        return this.searcherManager.acquire();
+    }
+
+    void releaseSearcher(IndexSearcher searcher) throws IOException {
+        this.searcherManager.release(searcher);
+    }
+
+    boolean isStale() {
+        return this.changes.get() > this.refreshedChanges;
+    }
+
+    /**
+     * Open a new reader snapshot if there are changes not yet visible.
+     * @throws IOException In case of error
+     */
+    void refresh() throws IOException {
+        long current = this.changes.get();
+        if (current <= this.refreshedChanges) {
+            return;
+        }
+        this.searcherManager.maybeRefreshBlocking();
+        synchronized (this) {
+            this.refreshedChanges = Math.max(this.refreshedChanges, current);
+            this.lastRefresh = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Commit the changes not yet committed.
+     * @throws IOException In case of error
+     */
+    synchronized void commit() throws IOException {
+        long current = this.changes.get();
+        if (current > this.committedChanges) {
+            this.writer.commit();
+            this.committedChanges = current;
+        }
+    }
+
+    synchronized void close() throws IOException {
+        try {
+            this.commit();
+        } finally {
+            try {
+                this.searcherManager.close();
+                this.writer.close();
+            } finally {
+                this.directory.close();
+            }
+        }
+    }
+
+}
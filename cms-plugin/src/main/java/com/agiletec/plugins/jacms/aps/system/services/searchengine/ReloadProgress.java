@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import java.io.Serializable;
+
+/**
+ * Progress of a reload of the indexes: the sub directory of the new index, the
+ * last content id of the contents already indexed (in id order) and the number
+ * of indexed contents on the total.
+ * The progress is stored as checkpoint of the reload, to resume it after a restart.
+ */
+public class ReloadProgress implements Serializable {
+
+    private String subDirectory;
+    private String lastContentId;
+    private int indexed;
+    private int total;
+
+    public ReloadProgress() {
+    }
+
+    public ReloadProgress(String subDirectory, String lastContentId, int indexed, int total) {
+        this.subDirectory = subDirectory;
+        this.lastContentId = lastContentId;
+        this.indexed = indexed;
+        this.total = total;
+    }
+
+    public String getSubDirectory() {
+        return subDirectory;
+    }
+
+    public void setSubDirectory(String subDirectory) {
+        this.subDirectory = subDirectory;
+    }
+
+    public String getLastContentId() {
+        return lastContentId;
+    }
+
+    public void setLastContentId(String lastContentId) {
+        this.lastContentId = lastContentId;
+    }
+
+    public int getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(int indexed) {
+        this.indexed = indexed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPercentage() {
+        return (this.total > 0) ? (this.indexed * 100 / this.total) : 0;
+    }
+
+}
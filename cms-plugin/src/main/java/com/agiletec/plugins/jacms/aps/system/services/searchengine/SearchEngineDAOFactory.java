@@ -22,9 +22,26 @@ import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe factory degli elementi ad uso del SearchEngine.
+ * La factory mantiene aperto un indice (writer e searcher near-real-time) per
+ * ogni cartella; un thread di servizio rende visibili le modifiche ai searcher
+ * ogni refreshInterval millisecondi e le rende persistenti ogni commitInterval
+ * millisecondi. Dopo la chiusura la factory non apre altri indici, fino a una
+ * nuova inizializzazione.
  *
  * @author E.Santoboni
  */
@@ -39,17 +56,74 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
     private ILangManager langManager;
     private ICategoryManager categoryManager;
 
+    private long commitInterval = 5000;
+    private long refreshInterval = 1000;
+    private long maxStaleness = 0;
+
+    private final Map<String, LuceneIndex> indexes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService maintenanceExecutor;
+    private volatile boolean closed;
+
+    public static final String INDEX_MAINTENANCE_THREAD_NAME = "SEARCH_ENGINE_INDEX_MAINTENANCE";
+
+    private static final String RELOAD_CHECKPOINT_FILE_NAME = "reload.checkpoint";
+
     @Override
     public void init() throws Exception {
         this.subDirectory = this.getConfigManager().getConfigItem(JacmsSystemConstants.CONFIG_ITEM_CONTENT_INDEX_SUB_DIR);
         if (this.subDirectory == null) {
             throw new EntException("Item configurazione assente: " + JacmsSystemConstants.CONFIG_ITEM_CONTENT_INDEX_SUB_DIR);
         }
+        this.closed = false;
+        this.startMaintenance();
+    }
+
+    private synchronized void startMaintenance() {
+        if (null != this.maintenanceExecutor) {
+            return;
+        }
+        this.maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, INDEX_MAINTENANCE_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maintenanceExecutor.scheduleWithFixedDelay(this::refreshIndexes,
+                this.getRefreshInterval(), this.getRefreshInterval(), TimeUnit.MILLISECONDS);
+        this.maintenanceExecutor.scheduleWithFixedDelay(this::commitIndexes,
+                this.getCommitInterval(), this.getCommitInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshIndexes() {
+        for (LuceneIndex index : this.indexes.values()) {
+            try {
+                index.refresh();
+            } catch (Exception e) {
+                logger.error("Error refreshing index {}", index.getDir(), e);
+            }
+        }
+    }
+
+    private void commitIndexes() {
+        for (LuceneIndex index : this.indexes.values()) {
+            try {
+                index.commit();
+            } catch (Exception e) {
+                logger.error("Error committing index {}", index.getDir(), e);
+            }
+        }
     }
 
     @Override
-    public void close() throws Exception {
-        // nothing to do
+    public synchronized void close() throws Exception {
+        this.closed = true;
+        if (null != this.maintenanceExecutor) {
+            this.maintenanceExecutor.shutdown();
+            this.maintenanceExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            this.maintenanceExecutor = null;
+        }
+        for (String key : this.indexes.keySet()) {
+            this.closeIndex(key);
+        }
     }
 
     @Override
@@ -74,7 +148,8 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
 
     @Override
     public IIndexerDAO getIndexer(String subDir) throws EntException {
-        IIndexerDAO indexerDao = new IndexerDAO();
+        IndexerDAO indexerDao = new IndexerDAO();
+        indexerDao.setIndex(this.getIndex(subDir));
         indexerDao.setLangManager(this.getLangManager());
         indexerDao.setTreeNodeManager(this.getCategoryManager());
         indexerDao.init(this.getDirectory(subDir));
@@ -83,27 +158,67 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
 
     @Override
     public ISearcherDAO getSearcher(String subDir) throws EntException {
-        ISearcherDAO searcherDao = new SearcherDAO();
+        SearcherDAO searcherDao = new SearcherDAO();
+        searcherDao.setIndex(this.getIndex(subDir));
         searcherDao.init(this.getDirectory(subDir));
         searcherDao.setTreeNodeManager(this.getCategoryManager());
         searcherDao.setLangManager(this.getLangManager());
         return searcherDao;
     }
 
+    private synchronized LuceneIndex getIndex(String subDir) throws EntException {
+        if (this.closed) {
+            throw new EntException("Search engine indexes closed - subdirectory " + subDir);
+        }
+        // the factory can be used without init, when it is built by code
+        this.startMaintenance();
+        File dir = this.getDirectory(subDir);
+        LuceneIndex index = this.indexes.get(dir.getAbsolutePath());
+        if (null == index) {
+            try {
+                index = new LuceneIndex(dir, this.getMaxStaleness());
+            } catch (IOException e) {
+                throw new EntException("Error opening index " + dir.getAbsolutePath(), e);
+            }
+            this.indexes.put(dir.getAbsolutePath(), index);
+        }
+        return index;
+    }
+
+    private void closeIndex(String key) {
+        LuceneIndex index = this.indexes.remove(key);
+        if (null != index) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                logger.error("Error closing index {}", key, e);
+            }
+        }
+    }
+
     @Override
     public void updateSubDir(String newSubDirectory) throws EntException {
+        try {
+            this.getIndex(newSubDirectory).commit();
+        } catch (IOException e) {
+            throw new EntException("Error committing index " + newSubDirectory, e);
+        }
         this.getConfigManager().updateConfigItem(JacmsSystemConstants.CONFIG_ITEM_CONTENT_INDEX_SUB_DIR, newSubDirectory);
         String oldDir = subDirectory;
         this.subDirectory = newSubDirectory;
         this.deleteSubDirectory(oldDir);
     }
 
-    private File getDirectory(String subDirectory) throws EntException {
+    private String getDirectoryName(String subDirectory) {
         String dirName = this.getIndexDiskRootFolder();
         if (!dirName.endsWith("/")) {
             dirName += "/";
         }
-        dirName += "cmscontents/" + subDirectory;
+        return dirName + "cmscontents/" + subDirectory;
+    }
+
+    private File getDirectory(String subDirectory) throws EntException {
+        String dirName = this.getDirectoryName(subDirectory);
         logger.debug("Index Directory: {}", dirName);
         File dir = new File(dirName);
         if (!dir.exists() || !dir.isDirectory()) {
@@ -118,6 +233,7 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
 
     @Override
     public void deleteSubDirectory(String subDirectory) {
+        this.closeIndex(new File(this.getDirectoryName(subDirectory)).getAbsolutePath());
         String dirName = this.getIndexDiskRootFolder();
         if (!dirName.endsWith("/") || !dirName.endsWith(File.separator)) {
             dirName += File.separator;
@@ -142,6 +258,62 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
         }
     }
 
+    @Override
+    public void storeReloadCheckpoint(ReloadProgress progress) throws EntException {
+        Path checkpointFile = this.getReloadCheckpointFile();
+        Path tempFile = checkpointFile.resolveSibling(RELOAD_CHECKPOINT_FILE_NAME + ".tmp");
+        try {
+            this.getIndex(progress.getSubDirectory()).commit();
+            Properties properties = new Properties();
+            properties.setProperty("subDirectory", progress.getSubDirectory());
+            properties.setProperty("lastContentId", progress.getLastContentId());
+            properties.setProperty("indexed", String.valueOf(progress.getIndexed()));
+            properties.setProperty("total", String.valueOf(progress.getTotal()));
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new EntException("Error storing reload checkpoint", e);
+        }
+    }
+
+    @Override
+    public ReloadProgress loadReloadCheckpoint() throws EntException {
+        Path checkpointFile = this.getReloadCheckpointFile();
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new EntException("Error loading reload checkpoint", e);
+        }
+        String subDir = properties.getProperty("subDirectory");
+        if (null == subDir || !new File(this.getDirectoryName(subDir)).isDirectory()) {
+            logger.warn("Discarding reload checkpoint of missing index {}", subDir);
+            this.deleteReloadCheckpoint();
+            return null;
+        }
+        return new ReloadProgress(subDir, properties.getProperty("lastContentId"),
+                Integer.parseInt(properties.getProperty("indexed", "0")),
+                Integer.parseInt(properties.getProperty("total", "0")));
+    }
+
+    @Override
+    public void deleteReloadCheckpoint() {
+        try {
+            Files.deleteIfExists(this.getReloadCheckpointFile());
+        } catch (IOException e) {
+            logger.error("Error deleting reload checkpoint", e);
+        }
+    }
+
+    private Path getReloadCheckpointFile() {
+        return new File(this.getDirectoryName(RELOAD_CHECKPOINT_FILE_NAME)).toPath();
+    }
+
     protected String getIndexDiskRootFolder() {
         return indexDiskRootFolder;
     }
@@ -150,6 +322,30 @@ public class SearchEngineDAOFactory implements ISearchEngineDAOFactory {
         this.indexDiskRootFolder = indexDiskRootFolder;
     }
 
+    protected long getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    protected long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    protected long getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(long maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
     protected ConfigInterface getConfigManager() {
         return configManager;
     }
@@ -66,7 +66,11 @@ public class SearchEngineManager extends AbstractService
 
     public static final String RELOAD_THREAD_NAME_PREFIX = "RELOAD_INDEX_";
 
+    private static final long RELOAD_STOP_TIMEOUT = 30000;
+
     private String newTempSubDirectory;
+    private IndexLoaderThread loaderThread;
+    private int reloadWorkers = 1;
 
     private IContentManager contentManager;
 
@@ -75,6 +79,25 @@ public class SearchEngineManager extends AbstractService
         this.setIndexerDao(this.getFactory().getIndexer());
         this.setSearcherDao(this.getFactory().getSearcher());
         logger.info("** Default Search Engine active **");
+        this.resumeReload();
+    }
+
+    /**
+     * Resume the reload of the indexes interrupted by a restart, if any.
+     */
+    private void resumeReload() {
+        if (null != this.loaderThread && this.loaderThread.isAlive()) {
+            return;
+        }
+        try {
+            ReloadProgress checkpoint = this.getFactory().loadReloadCheckpoint();
+            if (null != checkpoint) {
+                logger.info("Resuming reload of indexes into {}", checkpoint.getSubDirectory());
+                this.startReload(checkpoint.getSubDirectory(), checkpoint);
+            }
+        } catch (Exception e) {
+            logger.error("Error resuming reload of indexes", e);
+        }
     }
 
     @Override
@@ -86,6 +109,35 @@ public class SearchEngineManager extends AbstractService
         this.init();
     }
 
+    @Override
+    public void destroy() {
+        this.stopReload();
+        try {
+            this.getFactory().close();
+        } catch (Exception e) {
+            logger.error("Error closing search engine indexes", e);
+        }
+        super.destroy();
+    }
+
+    /**
+     * Stop the running reload of the indexes, if any: the reload keeps its checkpoint
+     * and it is resumed by the next start.
+     */
+    private void stopReload() {
+        IndexLoaderThread thread = this.loaderThread;
+        if (null == thread || !thread.isAlive()) {
+            return;
+        }
+        logger.info("Stopping reload of indexes into {}", this.newTempSubDirectory);
+        try {
+            thread.stopLoading(RELOAD_STOP_TIMEOUT);
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while stopping reload of indexes");
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void updateFromPublicContentChanged(PublicContentChangedEvent event) {
         if (this.getStatus() == STATUS_RELOADING_INDEXES_IN_PROGRESS) {
@@ -136,15 +188,21 @@ public class SearchEngineManager extends AbstractService
     @Override
     @Deprecated(since = "7.2.0")
     public Thread startReloadContentsReferences(String subDirectory) throws EntException {
+        return this.startReload(subDirectory, null);
+    }
+
+    private Thread startReload(String subDirectory, ReloadProgress checkpoint) throws EntException {
         IndexLoaderThread loaderThread = null;
         if (this.getStatus() == STATUS_READY || this.getStatus() == STATUS_NEED_TO_RELOAD_INDEXES) {
             try {
                 this.newTempSubDirectory = subDirectory;
                 IIndexerDAO newIndexer = this.getFactory().getIndexer(newTempSubDirectory);
-                loaderThread = new IndexLoaderThread(this, this.getContentManager(), newIndexer);
+                loaderThread = new IndexLoaderThread(this, this.getContentManager(), newIndexer,
+                        this.getReloadWorkers(), checkpoint);
                 String threadName = RELOAD_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
                 loaderThread.setName(threadName);
                 this.setStatus(STATUS_RELOADING_INDEXES_IN_PROGRESS);
+                this.loaderThread = loaderThread;
                 loaderThread.start();
                 logger.info("Reload Contents References job started");
             } catch (Throwable t) {
@@ -232,13 +290,41 @@ public class SearchEngineManager extends AbstractService
         }
     }
 
+    /**
+     * Store the progress of the running reload as checkpoint.
+     * @param progress The progress of the reload.
+     */
+    public void storeReloadCheckpoint(ReloadProgress progress) {
+        try {
+            progress.setSubDirectory(this.newTempSubDirectory);
+            this.getFactory().storeReloadCheckpoint(progress);
+        } catch (Exception e) {
+            logger.error("Error storing reload checkpoint", e);
+        }
+    }
+
+    /**
+     * Return the progress of the running reload of the indexes.
+     * @return The progress of the reload, null if there is no running reload.
+     */
+    public ReloadProgress getReloadProgress() {
+        IndexLoaderThread thread = this.loaderThread;
+        if (null == thread || !thread.isAlive()) {
+            return null;
+        }
+        ReloadProgress progress = thread.getProgress();
+        progress.setSubDirectory(this.newTempSubDirectory);
+        return progress;
+    }
+
     public void notifyEndingIndexLoading(LastReloadInfo info, IIndexerDAO newIndexerDAO) {
         try {
+            this.getFactory().deleteReloadCheckpoint();
             if (info.getResult() == LastReloadInfo.ID_SUCCESS_RESULT) {
                 ISearcherDAO newSearcherDAO = this.getFactory().getSearcher(this.newTempSubDirectory);
-                this.getFactory().updateSubDir(newTempSubDirectory);
                 this.setIndexerDao(newIndexerDAO);
                 this.setSearcherDao(newSearcherDAO);
+                this.getFactory().updateSubDir(newTempSubDirectory);
                 this.lastReloadInfo = info;
             } else if (null != this.newTempSubDirectory) {
                 this.getFactory().deleteSubDirectory(this.newTempSubDirectory);
@@ -253,6 +339,18 @@ public class SearchEngineManager extends AbstractService
         }
     }
 
+    /**
+     * Notify the interruption of the reload: the checkpoint and the new index are kept,
+     * the current index is still in use.
+     */
+    public void notifyInterruptedIndexLoading() {
+        logger.info("Reload of indexes into {} interrupted, it will be resumed from its checkpoint", this.newTempSubDirectory);
+        if (this.getStatus() != STATUS_NEED_TO_RELOAD_INDEXES) {
+            this.setStatus(STATUS_READY);
+        }
+        this.newTempSubDirectory = null;
+    }
+
     @Override
     public LastReloadInfo getLastReloadInfo() {
         return this.lastReloadInfo;
@@ -394,6 +492,14 @@ public class SearchEngineManager extends AbstractService
         this.factory = factory;
     }
 
+    protected int getReloadWorkers() {
+        return reloadWorkers;
+    }
+
+    public void setReloadWorkers(int reloadWorkers) {
+        this.reloadWorkers = reloadWorkers;
+    }
+
     protected IContentManager getContentManager() {
         return contentManager;
     }
@@ -21,7 +21,6 @@ import com.agiletec.aps.system.services.lang.ILangManager;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.*;
 import org.apache.lucene.search.*;
-import org.apache.lucene.store.*;
 import org.entando.entando.aps.system.services.searchengine.*;
 
 import java.io.*;
@@ -43,33 +42,46 @@ public class SearcherDAO implements ISearcherDAO {
     private ITreeNodeManager treeNodeManager;
     private ILangManager langManager;
 
-    private File indexDir;
+    private static final int PAGE_SIZE = 1000;
+
+    private LuceneIndex index;
+    private boolean ownIndex;
 
     /**
      * Inizializzazione del searcher.
+     * Se l'indice non è stato assegnato dalla factory, viene aperto un indice
+     * dedicato, chiuso insieme al searcher.
      *
      * @param dir La cartella locale contenitore dei dati persistenti.
      * @throws EntException In caso di errore
      */
     @Override
     public void init(File dir) throws EntException {
-        this.indexDir = dir;
+        if (null == this.index) {
+            try {
+                this.index = new LuceneIndex(dir, 0);
+                this.ownIndex = true;
+            } catch (IOException e) {
+                throw new EntException("Error opening index", e);
+            }
+        }
+    }
+
+    void setIndex(LuceneIndex index) {
+        this.index = index;
     }
 
     private IndexSearcher getSearcher() throws IOException {
-        FSDirectory directory = new SimpleFSDirectory(indexDir.toPath());
-        IndexReader reader = DirectoryReader.open(directory);
-        IndexSearcher searcher = new IndexSearcher(reader);
-        return searcher;
+        return this.index.acquireSearcher();
     }
 
     private void releaseResources(IndexSearcher searcher) throws EntException {
         try {
             if (searcher != null) {
-                searcher.getIndexReader().close();
+                this.index.releaseSearcher(searcher);
             }
         } catch (IOException e) {
-            throw new EntException("Error closing searcher", e);
+            throw new EntException("Error releasing searcher", e);
         }
     }
 
@@ -117,37 +129,13 @@ public class SearcherDAO implements ISearcherDAO {
                     }
                 }
             }
-            TopDocs topDocs = (sortFields.length > 0) ? 
-                    searcher.search(query, 1000, new Sort(sortFields)) : 
-                    searcher.search(query, 1000);
-            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            Sort sort = (sortFields.length > 0) ? new Sort(sortFields) : null;
+            contentsId.addAll(this.searchIds(searcher, query, sort));
             Map<String, Integer> occurrences = new HashMap<>();
-            if (scoreDocs.length > 0) {
-                for (int index = 0; index < scoreDocs.length; index++) {
-                    Document doc = searcher.doc(scoreDocs[index].doc);
-                    String contentId = doc.get(IIndexerDAO.CONTENT_ID_FIELD_NAME);
-                    if (!contentsId.contains(contentId)) {
-                        contentsId.add(contentId);
-                    }
-                    if (faceted) {
-                        Set<String> codes = new HashSet<>();
-                        String[] categoryPaths = doc.getValues(IIndexerDAO.CONTENT_CATEGORY_FIELD_NAME);
-                        for (int i = 0; i < categoryPaths.length; i++) {
-                            String categoryPath = categoryPaths[i];
-                            String[] paths = categoryPath.split(IIndexerDAO.CONTENT_CATEGORY_SEPARATOR);
-                            codes.addAll(Arrays.asList(paths));
-                        }
-                        Iterator<String> iter = codes.iterator();
-                        while (iter.hasNext()) {
-                            String code = iter.next();
-                            Integer value = occurrences.get(code);
-                            if (null == value) {
-                                value = 0;
-                            }
-                            occurrences.put(code, (value + 1));
-                        }
-                    }
-                }
+            if (faceted) {
+                CategoryFacetCollector facetCollector = new CategoryFacetCollector();
+                searcher.search(query, facetCollector);
+                occurrences = facetCollector.getOccurrences();
             }
             result.setOccurrences(occurrences);
             result.setContentsId(contentsId);
@@ -162,6 +150,57 @@ public class SearcherDAO implements ISearcherDAO {
         return result;
     }
 
+    /**
+     * Extract the ids of all the documents matching the query, paging the hits
+     * with a cursor (the last hit of the previous page).
+     */
+    private Collection<String> searchIds(IndexSearcher searcher, Query query, Sort sort) throws IOException {
+        Set<String> contentsId = new LinkedHashSet<>();
+        ScoreDoc after = null;
+        while (true) {
+            TopDocs topDocs = (null != sort)
+                    ? searcher.searchAfter(after, query, PAGE_SIZE, sort)
+                    : searcher.searchAfter(after, query, PAGE_SIZE);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            contentsId.addAll(Arrays.asList(this.extractIds(searcher, scoreDocs)));
+            if (scoreDocs.length < PAGE_SIZE) {
+                break;
+            }
+            after = scoreDocs[scoreDocs.length - 1];
+        }
+        return contentsId;
+    }
+
+    /**
+     * Read the ids of the given hits from the doc values, visiting the hits of
+     * each segment in doc id order; the stored fields are read only for the
+     * documents indexed without doc values.
+     */
+    private String[] extractIds(IndexSearcher searcher, ScoreDoc[] scoreDocs) throws IOException {
+        String[] ids = new String[scoreDocs.length];
+        Integer[] positions = new Integer[scoreDocs.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparingInt(i -> scoreDocs[i].doc));
+        List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        LeafReaderContext leaf = null;
+        SortedDocValues idValues = null;
+        for (Integer position : positions) {
+            int doc = scoreDocs[position].doc;
+            if (null == leaf || doc >= leaf.docBase + leaf.reader().maxDoc()) {
+                leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+                idValues = DocValues.getSorted(leaf.reader(), IIndexerDAO.CONTENT_ID_FIELD_NAME);
+            }
+            if (idValues.advanceExact(doc - leaf.docBase)) {
+                ids[position] = idValues.binaryValue().utf8ToString();
+            } else {
+                ids[position] = searcher.doc(doc).get(IIndexerDAO.CONTENT_ID_FIELD_NAME);
+            }
+        }
+        return ids;
+    }
+
     protected Query createQuery(SearchEngineFilter[] filters,
             SearchEngineFilter[] categories, Collection<String> allowedGroups) {
         BooleanQuery.Builder mainQuery = new BooleanQuery.Builder();
@@ -357,7 +396,13 @@ public class SearcherDAO implements ISearcherDAO {
 
     @Override
     public void close() {
-        // nothing to do
+        if (this.ownIndex) {
+            try {
+                this.index.close();
+            } catch (IOException e) {
+                logger.error("Error closing index", e);
+            }
+        }
     }
 
     public ITreeNodeManager getTreeNodeManager() {
@@ -74,6 +74,17 @@ public class ContentPreviewDispenser extends BaseContentDispenser {
         return renderInfo;
     }
 
+    @Override
+    protected String buildRenderedContent(Content content, long modelId, String langCode, RequestContext reqCtx) {
+        if (null == content) {
+            return super.buildRenderedContent(content, modelId, langCode, reqCtx);
+        }
+        // the content on session is shared by the preview requests of the same session
+        synchronized (content) {
+            return super.buildRenderedContent(content, modelId, langCode, reqCtx);
+        }
+    }
+
     private Content extractContentOnSession(RequestContext reqCtx) {
         HttpServletRequest request = reqCtx.getRequest();
         String contentOnSessionMarker = (String) request.getAttribute("contentOnSessionMarker");
@@ -22,13 +22,17 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
+import com.agiletec.aps.system.common.entity.model.attribute.MonoTextAttribute;
+import com.agiletec.aps.system.common.entity.parse.attribute.MonoTextAttributeHandler;
 import com.agiletec.aps.system.common.entity.parse.IEntityTypeFactory;
 import com.agiletec.aps.system.common.notify.INotifyManager;
 import com.agiletec.aps.system.services.category.Category;
 import com.agiletec.plugins.jacms.aps.system.JacmsSystemConstants;
 import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.ContentRecordVO;
 import com.agiletec.plugins.jacms.aps.system.services.content.parse.ContentDOM;
 import com.agiletec.plugins.jacms.aps.system.services.content.parse.ContentTypeDOM;
+import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
 import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.ent.exception.EntRuntimeException;
 import org.junit.jupiter.api.Assertions;
@@ -63,6 +67,9 @@ class ContentManagerTest {
     @Mock
     private INotifyManager notifyManager;
 
+    @Mock
+    private ICacheInfoManager cacheInfoManager;
+
     private String beanName = "jacmsContentManager";
 
     private String className = "com.agiletec.plugins.jacms.aps.system.services.content.model.Content";
@@ -155,6 +162,65 @@ class ContentManagerTest {
         });
     }
 
+    @Test
+    void loadContentShouldReturnCopyOfCachedContent() throws Exception {
+        Content cached = this.createParsedContent("ART1", "ART", "title");
+        when(this.cacheInfoManager.getFromCache(Mockito.eq(ICacheInfoManager.DEFAULT_CACHE_NAME),
+                Mockito.startsWith(ContentManager.CONTENT_OBJECT_CACHE_PREFIX), Mockito.eq(Content.class))).thenReturn(cached);
+        Content first = this.contentManager.loadContent("ART1", true);
+        Content second = this.contentManager.loadContent("ART1", true);
+        Assertions.assertNotSame(cached, first);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("ART1", first.getId());
+        MonoTextAttribute title = (MonoTextAttribute) first.getAttribute("Title");
+        Assertions.assertNotSame(cached.getAttribute("Title"), title);
+        Assertions.assertSame(first, title.getParentEntity());
+        Assertions.assertEquals("title", title.getText());
+        title.setText("modified");
+        Assertions.assertEquals("title", ((MonoTextAttribute) cached.getAttribute("Title")).getText());
+        Mockito.verifyNoInteractions(this.contentDAO);
+    }
+
+    @Test
+    void loadContentShouldCacheParsedContentOnMiss() throws Exception {
+        ContentRecordVO record = new ContentRecordVO();
+        record.setId("ART1");
+        record.setTypeCode("ART");
+        when(this.contentDAO.loadEntityRecord("ART1")).thenReturn(record);
+        Content parsed = this.createParsedContent("ART1", "ART", "title");
+        ContentManager manager = Mockito.spy(this.contentManager);
+        Mockito.doReturn(parsed).when(manager).createContent(record, false);
+        Content content = manager.loadContent("ART1", false);
+        Assertions.assertNotSame(parsed, content);
+        Assertions.assertEquals("title", ((MonoTextAttribute) content.getAttribute("Title")).getText());
+        Mockito.verify(this.cacheInfoManager).putInCache(Mockito.eq(ICacheInfoManager.DEFAULT_CACHE_NAME),
+                Mockito.startsWith(ContentManager.CONTENT_OBJECT_CACHE_PREFIX), Mockito.same(parsed),
+                Mockito.eq(new String[]{JacmsSystemConstants.CONTENT_CACHE_GROUP_PREFIX + "ART1",
+                    JacmsSystemConstants.CONTENT_TYPE_CACHE_GROUP_PREFIX + "ART"}));
+    }
+
+    @Test
+    void saveContentShouldReleaseCachedContent() throws Exception {
+        Content content = new Content();
+        content.setId("ART1");
+        content.setTypeCode("ART");
+        this.contentManager.saveContent(content);
+        Mockito.verify(this.cacheInfoManager, Mockito.times(2)).flushEntry(Mockito.eq(ICacheInfoManager.DEFAULT_CACHE_NAME),
+                Mockito.startsWith(ContentManager.CONTENT_OBJECT_CACHE_PREFIX));
+    }
+
+    private Content createParsedContent(String id, String typeCode, String title) {
+        Content content = new Content();
+        content.setId(id);
+        content.setTypeCode(typeCode);
+        MonoTextAttribute attribute = new MonoTextAttribute();
+        attribute.setName("Title");
+        attribute.setHandler(new MonoTextAttributeHandler());
+        attribute.setText(title);
+        content.addAttribute(attribute);
+        return content;
+    }
+
     @Test
     void getEntityPrototypeShouldReturnNullForNullTypeCode() {
         Assertions.assertNull(this.contentManager.getEntityPrototype(null));
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.dispenser;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import com.agiletec.aps.system.services.user.UserDetails;
+import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.helper.IContentAuthorizationHelper;
+import com.agiletec.plugins.jacms.aps.system.services.content.helper.PublicContentAuthorizationInfo;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import com.agiletec.plugins.jacms.aps.system.services.renderer.IContentRenderer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BaseContentDispenserTest {
+
+    private static final String CONTENT_ID = "ART1";
+
+    @Mock
+    private IContentAuthorizationHelper contentAuthorizationHelper;
+    @Mock
+    private IContentManager contentManager;
+    @Mock
+    private IContentRenderer contentRenderer;
+    @Mock
+    private ICacheInfoManager cacheInfoManager;
+    @Mock
+    private PublicContentAuthorizationInfo authInfo;
+
+    private BaseContentDispenser dispenser;
+
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.dispenser = new BaseContentDispenser();
+        this.dispenser.setContentAuthorizationHelper(this.contentAuthorizationHelper);
+        this.dispenser.setContentManager(this.contentManager);
+        this.dispenser.setContentRenderer(this.contentRenderer);
+        this.dispenser.setCacheInfoManager(this.cacheInfoManager);
+        Content content = new Content();
+        content.setId(CONTENT_ID);
+        content.setTypeCode("ART");
+        Mockito.when(this.contentAuthorizationHelper.getAuthorizationInfo(CONTENT_ID, true)).thenReturn(this.authInfo);
+        Mockito.lenient().when(this.authInfo.isUserAllowed(anyList())).thenReturn(true);
+        Mockito.lenient().when(this.contentManager.loadContent(CONTENT_ID, true)).thenReturn(content);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRenderConcurrentMissesOnce() throws Exception {
+        CountDownLatch renderStarted = new CountDownLatch(1);
+        CountDownLatch renderReleased = new CountDownLatch(1);
+        Mockito.when(this.contentRenderer.render(any(Content.class), eq(1L), eq("en"), any())).thenAnswer(invocation -> {
+            renderStarted.countDown();
+            renderReleased.await(5, TimeUnit.SECONDS);
+            return "<p>rendered</p>";
+        });
+        Future<ContentRenderizationInfo> first = this.executor.submit(() -> this.render());
+        Assertions.assertTrue(renderStarted.await(5, TimeUnit.SECONDS));
+        Thread[] waiting = new Thread[1];
+        Future<ContentRenderizationInfo> second = this.executor.submit(() -> {
+            waiting[0] = Thread.currentThread();
+            return this.render();
+        });
+        long timeout = System.currentTimeMillis() + 5000;
+        while ((null == waiting[0] || waiting[0].getState() != Thread.State.WAITING) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        renderReleased.countDown();
+        ContentRenderizationInfo firstInfo = first.get(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(firstInfo);
+        Assertions.assertSame(firstInfo, second.get(5, TimeUnit.SECONDS));
+        Mockito.verify(this.contentRenderer, Mockito.times(1)).render(any(Content.class), anyLong(), anyString(), any());
+        Mockito.verify(this.cacheInfoManager, Mockito.times(1)).putInCache(eq(ICacheInfoManager.DEFAULT_CACHE_NAME), anyString(), eq(firstInfo), any(String[].class));
+    }
+
+    @Test
+    void shouldNotRenderCachedContent() throws Exception {
+        ContentRenderizationInfo cached = new ContentRenderizationInfo(null, "<p>cached</p>", 1, "en", null);
+        Mockito.when(this.cacheInfoManager.getFromCache(eq(ICacheInfoManager.DEFAULT_CACHE_NAME), anyString())).thenReturn(cached);
+        Assertions.assertSame(cached, this.render());
+        Mockito.verifyNoInteractions(this.contentRenderer);
+    }
+
+    private ContentRenderizationInfo render() {
+        return this.dispenser.getRenderizationInfo(CONTENT_ID, 1, "en", (UserDetails) null, true);
+    }
+
+}
@@ -74,6 +74,28 @@ class BaseContentRendererIntegrationTest extends BaseTestCase {
         }
     }
     
+    @Test
+    void testRenderUpdatedModel() throws Throwable {
+        String contentId = "ART120";
+        int modelId = 1973;
+        try {
+            this.addNewContentModel(modelId, "first $content.id", "ART");
+            RequestContext reqCtx = this.getRequestContext();
+            Content content = this._contentManager.loadContent(contentId, true);
+            Assertions.assertEquals("first ART120", contentRenderer.render(content, modelId, "it", reqCtx));
+            Assertions.assertEquals("first ART120", contentRenderer.render(content, modelId, "en", reqCtx));
+            ContentModel model = this._contentModelManager.getContentModel(modelId);
+            model.setContentShape("second $content.id");
+            this._contentModelManager.updateContentModel(model);
+            Assertions.assertEquals("second ART120", contentRenderer.render(content, modelId, "it", reqCtx));
+        } finally {
+            ContentModel model = this._contentModelManager.getContentModel(modelId);
+            if (null != model) {
+                this._contentModelManager.removeContentModel(model);
+            }
+        }
+    }
+    
     private void addNewContentModel(int id, String shape, String contentTypeCode) throws Throwable {
         ContentModel model = new ContentModel();
         model.setContentType(contentTypeCode);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.entando.entando.ent.exception.EntException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IndexLoaderThreadTest {
+
+    @Mock
+    private SearchEngineManager searchEngineManager;
+
+    @Mock
+    private IContentManager contentManager;
+
+    @Mock
+    private IIndexerDAO indexerDao;
+
+    @TempDir
+    File indexDir;
+
+    @Test
+    void shouldIndexContentsWithWorkers() throws Exception {
+        List<String> ids = this.mockContents(1200);
+        Set<String> workerThreads = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> workerThreads.add(Thread.currentThread().getName()))
+                .when(this.indexerDao).add(Mockito.any());
+        IndexLoaderThread loader = new IndexLoaderThread(this.searchEngineManager, this.contentManager, this.indexerDao, 4, null);
+        loader.setName(ICmsSearchEngineManager.RELOAD_THREAD_NAME_PREFIX + "test");
+        loader.start();
+        loader.join();
+
+        Mockito.verify(this.indexerDao, Mockito.times(ids.size())).add(Mockito.any());
+        Assertions.assertTrue(workerThreads.size() > 1);
+        ArgumentCaptor<ReloadProgress> checkpoints = ArgumentCaptor.forClass(ReloadProgress.class);
+        Mockito.verify(this.searchEngineManager, Mockito.times(3)).storeReloadCheckpoint(checkpoints.capture());
+        ReloadProgress last = checkpoints.getValue();
+        Assertions.assertEquals(ids.get(ids.size() - 1), last.getLastContentId());
+        Assertions.assertEquals(1200, last.getIndexed());
+        Assertions.assertEquals(100, last.getPercentage());
+        this.verifyEnding(LastReloadInfo.ID_SUCCESS_RESULT);
+    }
+
+    @Test
+    void shouldResumeFromCheckpoint() throws Exception {
+        List<String> ids = this.mockContents(10);
+        Set<String> indexedIds = new HashSet<>(ids.subList(0, 7));
+        indexedIds.remove(ids.get(3));
+        indexedIds.add("ART99999");
+        Mockito.when(this.indexerDao.getIndexedIds()).thenReturn(indexedIds);
+        ReloadProgress checkpoint = new ReloadProgress("indexdir", ids.get(5), 6, 10);
+        IndexLoaderThread loader = new IndexLoaderThread(this.searchEngineManager, this.contentManager, this.indexerDao, 2, checkpoint);
+        loader.start();
+        loader.join();
+
+        for (int i = 0; i < ids.size(); i++) {
+            boolean toIndex = (i == 3 || i > 6);
+            Mockito.verify(this.contentManager, Mockito.times(toIndex ? 1 : 0)).loadContent(ids.get(i), true);
+        }
+        Mockito.verify(this.indexerDao, Mockito.times(4)).add(Mockito.any());
+        Mockito.verify(this.indexerDao).delete(IIndexerDAO.CONTENT_ID_FIELD_NAME, "ART99999");
+        ArgumentCaptor<ReloadProgress> progress = ArgumentCaptor.forClass(ReloadProgress.class);
+        Mockito.verify(this.searchEngineManager).storeReloadCheckpoint(progress.capture());
+        Assertions.assertEquals(10, progress.getValue().getIndexed());
+        Assertions.assertEquals(10, progress.getValue().getTotal());
+        this.verifyEnding(LastReloadInfo.ID_SUCCESS_RESULT);
+    }
+
+    @Test
+    void shouldKeepCheckpointWhenStopped() throws Exception {
+        this.mockContents(1200);
+        CountDownLatch indexing = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            indexing.countDown();
+            Thread.sleep(10);
+            return null;
+        }).when(this.indexerDao).add(Mockito.any());
+        IndexLoaderThread loader = new IndexLoaderThread(this.searchEngineManager, this.contentManager, this.indexerDao, 2, null);
+        loader.start();
+        Assertions.assertTrue(indexing.await(5, TimeUnit.SECONDS));
+        loader.stopLoading(5000);
+
+        Assertions.assertFalse(loader.isAlive());
+        Mockito.verify(this.searchEngineManager).notifyInterruptedIndexLoading();
+        Mockito.verify(this.searchEngineManager, Mockito.never()).notifyEndingIndexLoading(Mockito.any(), Mockito.any());
+        Mockito.verify(this.searchEngineManager, Mockito.never()).sellOfQueueEvents();
+    }
+
+    @Test
+    void shouldNotOpenIndexesAfterClose() throws Exception {
+        SearchEngineDAOFactory factory = new SearchEngineDAOFactory();
+        factory.setIndexDiskRootFolder(this.indexDir.getAbsolutePath());
+        factory.close();
+        Assertions.assertThrows(EntException.class, () -> factory.getIndexer("indexdir"));
+    }
+
+    @Test
+    void shouldStoreAndLoadCheckpoint() throws Exception {
+        SearchEngineDAOFactory factory = new SearchEngineDAOFactory();
+        factory.setIndexDiskRootFolder(this.indexDir.getAbsolutePath());
+        try {
+            Assertions.assertNull(factory.loadReloadCheckpoint());
+            factory.storeReloadCheckpoint(new ReloadProgress("indexdir1", "ART500", 500, 1000));
+            ReloadProgress checkpoint = factory.loadReloadCheckpoint();
+            Assertions.assertEquals("indexdir1", checkpoint.getSubDirectory());
+            Assertions.assertEquals("ART500", checkpoint.getLastContentId());
+            Assertions.assertEquals(500, checkpoint.getIndexed());
+            Assertions.assertEquals(1000, checkpoint.getTotal());
+            factory.deleteReloadCheckpoint();
+            Assertions.assertNull(factory.loadReloadCheckpoint());
+        } finally {
+            factory.close();
+        }
+    }
+
+    private List<String> mockContents(int size) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ids.add(String.format("ART%05d", i));
+        }
+        Mockito.when(this.contentManager.searchId(null)).thenReturn(new ArrayList<>(ids));
+        Mockito.lenient().when(this.contentManager.loadContent(Mockito.anyString(), Mockito.eq(true)))
+                .thenAnswer(invocation -> {
+                    Content content = new Content();
+                    content.setId(invocation.getArgument(0));
+                    return content;
+                });
+        return ids;
+    }
+
+    private void verifyEnding(int result) {
+        ArgumentCaptor<LastReloadInfo> info = ArgumentCaptor.forClass(LastReloadInfo.class);
+        Mockito.verify(this.searchEngineManager).notifyEndingIndexLoading(info.capture(), Mockito.eq(this.indexerDao));
+        Assertions.assertEquals(result, info.getValue().getResult());
+        Mockito.verify(this.searchEngineManager).sellOfQueueEvents();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import java.io.File;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LuceneIndexTest {
+
+    @TempDir
+    File indexDir;
+
+    private LuceneIndex index;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (null != this.index) {
+            this.index.close();
+        }
+    }
+
+    @Test
+    void shouldSeeChangesAfterRefresh() throws Exception {
+        this.index = new LuceneIndex(this.indexDir, 60000);
+        this.addDocument("ART1");
+        Assertions.assertTrue(this.index.isStale());
+        Assertions.assertEquals(0, this.countDocuments());
+        this.index.refresh();
+        Assertions.assertFalse(this.index.isStale());
+        Assertions.assertEquals(1, this.countDocuments());
+    }
+
+    @Test
+    void shouldRefreshStaleSearcher() throws Exception {
+        this.index = new LuceneIndex(this.indexDir, 0);
+        this.addDocument("ART1");
+        Assertions.assertEquals(1, this.countDocuments());
+        this.index.getWriter().deleteDocuments(new Term(IIndexerDAO.CONTENT_ID_FIELD_NAME, "ART1"));
+        this.index.changed();
+        Assertions.assertEquals(0, this.countDocuments());
+    }
+
+    @Test
+    void shouldPersistChangesOnCommit() throws Exception {
+        this.index = new LuceneIndex(this.indexDir, 0);
+        this.addDocument("ART1");
+        this.addDocument("ART2");
+        this.index.commit();
+        try (Directory directory = FSDirectory.open(this.indexDir.toPath());
+                DirectoryReader reader = DirectoryReader.open(directory)) {
+            Assertions.assertEquals(2, reader.numDocs());
+        }
+        this.index.close();
+        this.index = new LuceneIndex(this.indexDir, 0);
+        Assertions.assertEquals(2, this.countDocuments());
+    }
+
+    private void addDocument(String id) throws Exception {
+        Document document = new Document();
+        document.add(new StringField(IIndexerDAO.CONTENT_ID_FIELD_NAME, id, Field.Store.YES));
+        this.index.getWriter().addDocument(document);
+        this.index.changed();
+    }
+
+    private int countDocuments() throws Exception {
+        IndexSearcher searcher = this.index.acquireSearcher();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            this.index.releaseSearcher(searcher);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.plugins.jacms.aps.system.services.searchengine;
+
+import com.agiletec.aps.system.services.group.Group;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.util.BytesRef;
+import org.entando.entando.aps.system.services.searchengine.FacetedContentsResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearcherDAOTest {
+
+    @TempDir
+    File indexDir;
+
+    private LuceneIndex index;
+    private SearcherDAO searcherDao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.index = new LuceneIndex(this.indexDir, 0);
+        this.searcherDao = new SearcherDAO();
+        this.searcherDao.setIndex(this.index);
+        this.searcherDao.init(this.indexDir);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.index.close();
+    }
+
+    @Test
+    void shouldReturnAllMatchingContents() throws Exception {
+        int total = 2500;
+        for (int i = 0; i < total; i++) {
+            this.addDocument("ART" + i);
+        }
+        List<String> contentsId = this.searcherDao.searchContentsId(null, null, this.adminGroups());
+        Assertions.assertEquals(total, contentsId.size());
+        Assertions.assertEquals(total, new HashSet<>(contentsId).size());
+        Assertions.assertTrue(contentsId.contains("ART2499"));
+    }
+
+    @Test
+    void shouldCountCategoriesFromIndex() throws Exception {
+        for (int i = 0; i < 1200; i++) {
+            this.addDocument("ART" + i, "general", (i % 2 == 0) ? "general_cat1" : "general_cat2");
+        }
+        this.addDocument("EVN1", "evento");
+        this.addDocument("EVN2");
+        FacetedContentsResult result = this.searcherDao.searchFacetedContents(null, null, this.adminGroups());
+        Assertions.assertEquals(1202, result.getContentsId().size());
+        Map<String, Integer> occurrences = result.getOccurrences();
+        Assertions.assertEquals(4, occurrences.size());
+        Assertions.assertEquals(1200, occurrences.get("general").intValue());
+        Assertions.assertEquals(600, occurrences.get("general_cat1").intValue());
+        Assertions.assertEquals(600, occurrences.get("general_cat2").intValue());
+        Assertions.assertEquals(1, occurrences.get("evento").intValue());
+    }
+
+    @Test
+    void shouldCountCategoriesOfDocumentsWithoutDocValues() throws Exception {
+        this.addDocument("ART1", "general", "general_cat1");
+        this.addLegacyDocument("ART2", "general/general_cat1", "general");
+        this.addLegacyDocument("ART3", "general/general_cat2", "general");
+        this.addLegacyDocument("ART4");
+        FacetedContentsResult result = this.searcherDao.searchFacetedContents(null, null, this.adminGroups());
+        Assertions.assertEquals(4, result.getContentsId().size());
+        Map<String, Integer> occurrences = result.getOccurrences();
+        Assertions.assertEquals(3, occurrences.size());
+        Assertions.assertEquals(3, occurrences.get("general").intValue());
+        Assertions.assertEquals(2, occurrences.get("general_cat1").intValue());
+        Assertions.assertEquals(1, occurrences.get("general_cat2").intValue());
+    }
+
+    @Test
+    void shouldNotReadStoredPathsOfNewDocuments() throws Exception {
+        this.addDocument("ART1", "general");
+        Document document = new Document();
+        document.add(new StringField(IIndexerDAO.CONTENT_ID_FIELD_NAME, "ART2", Field.Store.YES));
+        document.add(new SortedDocValuesField(IIndexerDAO.CONTENT_ID_FIELD_NAME, new BytesRef("ART2")));
+        document.add(new StringField(IIndexerDAO.CONTENT_GROUP_FIELD_NAME, Group.FREE_GROUP_NAME, Field.Store.YES));
+        document.add(new StringField(IIndexerDAO.CONTENT_CATEGORY_FIELD_NAME, "general/general_cat1", Field.Store.YES));
+        this.index.getWriter().addDocument(document);
+        this.index.changed();
+        FacetedContentsResult result = this.searcherDao.searchFacetedContents(null, null, this.adminGroups());
+        Assertions.assertEquals(2, result.getContentsId().size());
+        Map<String, Integer> occurrences = result.getOccurrences();
+        Assertions.assertEquals(1, occurrences.size());
+        Assertions.assertEquals(1, occurrences.get("general").intValue());
+    }
+
+    private List<String> adminGroups() {
+        return new ArrayList<>(Arrays.asList(Group.ADMINS_GROUP_NAME));
+    }
+
+    private void addDocument(String id, String... categoryCodes) throws Exception {
+        Document document = new Document();
+        document.add(new StringField(IIndexerDAO.CONTENT_ID_FIELD_NAME, id, Field.Store.YES));
+        document.add(new SortedDocValuesField(IIndexerDAO.CONTENT_ID_FIELD_NAME, new BytesRef(id)));
+        document.add(new StringField(IIndexerDAO.CONTENT_GROUP_FIELD_NAME, Group.FREE_GROUP_NAME, Field.Store.YES));
+        for (String code : categoryCodes) {
+            document.add(new SortedSetDocValuesField(IIndexerDAO.CONTENT_CATEGORY_CODE_FIELD_NAME, new BytesRef(code)));
+        }
+        this.index.getWriter().addDocument(document);
+        this.index.changed();
+    }
+
+    private void addLegacyDocument(String id, String... categoryPaths) throws Exception {
+        Document document = new Document();
+        document.add(new StringField(IIndexerDAO.CONTENT_ID_FIELD_NAME, id, Field.Store.YES));
+        document.add(new StringField(IIndexerDAO.CONTENT_GROUP_FIELD_NAME, Group.FREE_GROUP_NAME, Field.Store.YES));
+        for (String path : categoryPaths) {
+            document.add(new StringField(IIndexerDAO.CONTENT_CATEGORY_FIELD_NAME, path, Field.Store.YES));
+        }
+        this.index.getWriter().addDocument(document);
+        this.index.changed();
+    }
+
+}
@@ -14,6 +14,7 @@
 package com.agiletec.aps.system;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
@@ -36,6 +37,17 @@ public class RequestContext {
 		this._extraParams = new HashMap<>();
 	}
 	
+	/**
+	 * Crea una copia del contesto dato, con una propria mappa di parametri extra
+	 * inizializzata con i parametri del contesto originale.
+	 * @param source Il contesto da copiare.
+	 */
+	public RequestContext(RequestContext source) {
+		this._extraParams = new HashMap<>(source._extraParams);
+		this._request = source.getRequest();
+		this._response = source.getResponse();
+	}
+	
 	/**
 	 * Restituisce un parametro extra.
 	 * @param name Il nome del parametro
@@ -68,6 +80,14 @@ public class RequestContext {
 		return (ExecutorBeanContainer) this._extraParams.get(SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
 	}
 
+	/**
+	 * Restituisce una vista non modificabile dei parametri extra.
+	 * @return I parametri extra.
+	 */
+	public Map<String, Object> getExtraParams() {
+		return Collections.unmodifiableMap(this._extraParams);
+	}
+
 	/**
 	 * Elimina un parametro extra.
 	 * @param name Il nome del parametro
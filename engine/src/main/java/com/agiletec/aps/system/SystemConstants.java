@@ -124,6 +124,8 @@ public final class SystemConstants {
 
     public static final String GUI_FRAGMENT_MANAGER = "GuiFragmentManager";
 
+    public static final String FREEMARKER_TEMPLATE_MANAGER = "FreemarkerTemplateManager";
+
     /**
      * Nome del servizio che gestisce i modelli di pagina.
      */
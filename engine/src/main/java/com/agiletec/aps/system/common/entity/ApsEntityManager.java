@@ -29,9 +29,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
 
 import com.agiletec.aps.system.common.AbstractService;
 import com.agiletec.aps.system.common.entity.cache.IEntityManagerCacheWrapper;
@@ -82,6 +83,8 @@ public abstract class ApsEntityManager extends AbstractService
 
     private static final EntLogger logger = EntLogFactory.getSanitizedLogger(ApsEntityManager.class);
 
+    private static final int ENTITY_HANDLER_POOL_SIZE = 32;
+
     private IEntityTypeFactory entityTypeFactory;
 
     private Class entityClass;
@@ -105,6 +108,8 @@ public abstract class ApsEntityManager extends AbstractService
     private String attributeDisablingCodesFileName;
 
     private IEntityManagerCacheWrapper cacheWrapper;
+
+    private final transient BlockingQueue<EntityHandler> entityHandlers = new ArrayBlockingQueue<>(ENTITY_HANDLER_POOL_SIZE);
     
     @Override
     public void init() throws Exception {
@@ -174,7 +179,7 @@ public abstract class ApsEntityManager extends AbstractService
 
     /**
      * Create and populate the entity as specified by its type and XML
-     * definition.
+     * definition. The XML is parsed with pooled parsers and handlers.
      *
      * @param entityTypeCode The Entity Type code.
      * @param xml The XML of the associated entity.
@@ -185,11 +190,15 @@ public abstract class ApsEntityManager extends AbstractService
     protected IApsEntity createEntityFromXml(String entityTypeCode, String xml) throws EntException {
         try {
             IApsEntity entityPrototype = this.getEntityPrototype(entityTypeCode);
-            SAXParser parser = EntSafeXmlUtils.newSafeSAXParser();
             InputSource is = new InputSource(new StringReader(xml));
-            EntityHandler handler = this.getEntityHandler();
+            EntityHandler handler = this.entityHandlers.poll();
+            if (null == handler) {
+                handler = this.getEntityHandler();
+            }
             handler.initHandler(entityPrototype, this.getXmlAttributeRootElementName());
-            parser.parse(is, handler);
+            EntSafeXmlUtils.parseWithPooledSAXParser(is, handler);
+            handler.initHandler(null, null);
+            this.entityHandlers.offer(handler);
             return entityPrototype;
         } catch (ParserConfigurationException | SAXException | IOException t) {
             logger.error("Error detected while creating the entity. typecode: {} - xml: {}", entityTypeCode, xml, t);
@@ -534,6 +543,7 @@ public abstract class ApsEntityManager extends AbstractService
      */
     public void setEntityHandler(EntityHandler entityHandler) {
         this.entityHandler = entityHandler;
+        this.entityHandlers.clear();
     }
 
     /**
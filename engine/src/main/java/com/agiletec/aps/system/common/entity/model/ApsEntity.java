@@ -313,6 +313,41 @@ public class ApsEntity implements IApsEntity {
         return entity;
     }
 
+    /**
+     * Create a copy of the entity, with the same values. The attributes are copied through
+     * {@link AttributeInterface#getAttributeCopy(IApsEntity)}.
+     *
+     * @return The copy of the entity, or null if one of the attributes doesn't support the copy of its value.
+     */
+    public IApsEntity getEntityCopy() {
+        ApsEntity entity = null;
+        try {
+            entity = this.getClass().newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            logger.error("Error creating entity copy", e);
+            throw new RuntimeException("Error creating entity copy", e);
+        }
+        entity.setId(this.getId());
+        entity.setTypeCode(this.getTypeCode());
+        entity.setTypeDescription(this.getTypeDescription());
+        entity.setDescription(this.getDescription());
+        entity.setMainGroup(this.getMainGroup());
+        if (null != this.getGroups()) {
+            entity.getGroups().addAll(this.getGroups());
+        }
+        for (AttributeInterface attribute : this._attributeList) {
+            AttributeInterface copy = (AttributeInterface) attribute.getAttributeCopy(entity);
+            if (null == copy) {
+                return null;
+            }
+            entity.addAttribute(copy);
+        }
+        entity._renderingLang = this._renderingLang;
+        entity._defaultLang = this._defaultLang;
+        entity.setEntityDOM(this.getEntityDOM());
+        return entity;
+    }
+
     @Override
     public String getXML() {
         IApsEntityDOM entityDOM = this.getBuildJDOM();
@@ -210,6 +210,24 @@ public abstract class AbstractAttribute implements AttributeInterface, Serializa
         return clone;
     }
 
+    @Override
+    public Object getAttributeCopy(IApsEntity parentEntity) {
+        AbstractAttribute copy = (AbstractAttribute) this.getAttributePrototype();
+        copy.setParentEntity(parentEntity);
+        return this.copyValueTo(copy) ? copy : null;
+    }
+
+    /**
+     * Copy the value of the attribute into the given prototype. The attributes that hold a value must override this
+     * method, as they do with the prototype, and copy every field of the value.
+     *
+     * @param copy The prototype of the attribute, of the same class of the current attribute.
+     * @return true if the value has been copied, false if the attribute doesn't support the copy of its value.
+     */
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        return false;
+    }
+
     @Override
     public void setAttributeConfig(Element attributeElement) throws EntException {
         try {
@@ -124,6 +124,16 @@ public interface AttributeInterface extends Serializable {
      */
     public Object getAttributePrototype();
 
+    /**
+     * Return a copy of the attribute, with the same configuration and the same value.
+     *
+     * @param parentEntity The entity that will hold the copy.
+     * @return The copy of the attribute, or null if the attribute doesn't support the copy of its value.
+     */
+    public default Object getAttributeCopy(IApsEntity parentEntity) {
+        return null;
+    }
+
     /**
      * Set up the default language to utilize when, during the rendering of the attribute, the informations requested
      * are not available in the desired language.
@@ -77,6 +77,12 @@ public class BooleanAttribute extends AbstractAttribute {
         this._boolean = booleanObject;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        ((BooleanAttribute) copy)._boolean = this._boolean;
+        return true;
+    }
+
     @Override
     public boolean isSearchableOptionSupported() {
         return true;
@@ -148,6 +148,21 @@ public class CompositeAttribute extends AbstractComplexAttribute {
         return this._attributeMap;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        CompositeAttribute compositeCopy = (CompositeAttribute) copy;
+        compositeCopy.getAttributes().clear();
+        compositeCopy.getAttributeMap().clear();
+        for (AttributeInterface attribute : this.getAttributes()) {
+            AttributeInterface element = (AttributeInterface) attribute.getAttributeCopy(copy.getParentEntity());
+            if (null == element) {
+                return false;
+            }
+            compositeCopy.addAttribute(element);
+        }
+        return true;
+    }
+
     @Override
     public void setComplexAttributeConfig(Element attributeElement, Map<String, AttributeInterface> attrTypes) throws EntException {
         Element compositeAttributesElement = attributeElement.getChild("attributes");
@@ -147,6 +147,14 @@ public class DateAttribute extends AbstractAttribute implements IndexableAttribu
         this._date = date;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        DateAttribute dateCopy = (DateAttribute) copy;
+        dateCopy._date = (null != this._date) ? new Date(this._date.getTime()) : null;
+        dateCopy._failedDateString = this._failedDateString;
+        return true;
+    }
+
     @Override
     public boolean isSearchableOptionSupported() {
         return true;
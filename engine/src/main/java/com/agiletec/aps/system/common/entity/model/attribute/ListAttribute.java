@@ -149,6 +149,22 @@ public class ListAttribute extends AbstractListAttribute {
         return _listMap;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        ListAttribute listCopy = (ListAttribute) copy;
+        for (Map.Entry<String, List<AttributeInterface>> entry : this._listMap.entrySet()) {
+            List<AttributeInterface> elements = listCopy.getAttributeList(entry.getKey());
+            for (AttributeInterface attribute : entry.getValue()) {
+                AttributeInterface element = (AttributeInterface) attribute.getAttributeCopy(copy.getParentEntity());
+                if (null == element) {
+                    return false;
+                }
+                elements.add(element);
+            }
+        }
+        return true;
+    }
+
     @Override
     public List<AttributeInterface> getAttributes() {
         List<AttributeInterface> attributes = new ArrayList<>();
@@ -87,6 +87,19 @@ public class MonoListAttribute extends AbstractListAttribute {
         this.getAttributes().remove(index);
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        List<AttributeInterface> elements = ((MonoListAttribute) copy).getAttributes();
+        for (AttributeInterface attribute : this.getAttributes()) {
+            AttributeInterface element = (AttributeInterface) attribute.getAttributeCopy(copy.getParentEntity());
+            if (null == element) {
+                return false;
+            }
+            elements.add(element);
+        }
+        return true;
+    }
+
     /**
      * Set up the language for the renderization. Note: the attributes in the
      * list may support several languages (depending on the attributes
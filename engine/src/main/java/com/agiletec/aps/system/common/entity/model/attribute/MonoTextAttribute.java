@@ -76,6 +76,12 @@ public class MonoTextAttribute extends AbstractTextAttribute {
         this._text = text;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        ((MonoTextAttribute) copy)._text = this._text;
+        return true;
+    }
+
     @Override
     public boolean isSearchableOptionSupported() {
         return true;
@@ -99,6 +99,14 @@ public class NumberAttribute extends AbstractAttribute implements IndexableAttri
         this._number = number;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        NumberAttribute numberCopy = (NumberAttribute) copy;
+        numberCopy._number = this._number;
+        numberCopy._failedNumberString = this._failedNumberString;
+        return true;
+    }
+
     @Override
     public boolean isSearchableOptionSupported() {
         return true;
@@ -114,6 +114,12 @@ public class TextAttribute extends AbstractTextAttribute {
         this._textMap = textMap;
     }
 
+    @Override
+    protected boolean copyValueTo(AbstractAttribute copy) {
+        ((TextAttribute) copy)._textMap = new HashMap<>(this._textMap);
+        return true;
+    }
+
     @Override
     public boolean isSearchableOptionSupported() {
         return true;
@@ -77,6 +77,15 @@ public class TimestampAttribute extends DateAttribute {
 		this._failedSecondString = failedSecondString;
 	}
 
+	@Override
+	protected boolean copyValueTo(AbstractAttribute copy) {
+		TimestampAttribute timestampCopy = (TimestampAttribute) copy;
+		timestampCopy._failedHourString = this._failedHourString;
+		timestampCopy._failedMinuteString = this._failedMinuteString;
+		timestampCopy._failedSecondString = this._failedSecondString;
+		return super.copyValueTo(copy);
+	}
+
 	@Override
 	public boolean isSearchableOptionSupported() {
 		return true;
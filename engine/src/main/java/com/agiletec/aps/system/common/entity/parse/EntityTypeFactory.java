@@ -13,7 +13,12 @@
  */
 package com.agiletec.aps.system.common.entity.parse;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
@@ -24,12 +29,16 @@ import com.agiletec.aps.system.common.entity.model.SmallEntityType;
 import com.agiletec.aps.system.common.entity.model.attribute.AttributeRole;
 import org.entando.entando.ent.exception.EntException;
 import com.agiletec.aps.system.services.baseconfig.ConfigInterface;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import java.util.List;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 
 /**
  * This class, which serves the ApsEntity managers, is used to obtain the Entity Types.
  * This class is utilized by default in the Spring bean configuration that defines the base
- * {@link ApsEntityManager} Entity Manager
+ * {@link ApsEntityManager} Entity Manager.
+ * The parsed Entity Types are kept in memory (per entity manager and tenant) and parsed
+ * again only when the configuration XML changes.
  * @author E.Santoboni
  */
 public class EntityTypeFactory implements IEntityTypeFactory {
@@ -37,6 +46,8 @@ public class EntityTypeFactory implements IEntityTypeFactory {
 	private static final EntLogger logger = EntLogFactory.getSanitizedLogger(EntityTypeFactory.class);
 	
 	private ConfigInterface configManager;
+	
+	private final Map<String, ParsedEntityTypes> parsedEntityTypes = new ConcurrentHashMap<>();
 
 	@Override
 	public String extractConfigItem(String configItemName) throws EntException {
@@ -46,15 +57,28 @@ public class EntityTypeFactory implements IEntityTypeFactory {
 	@Override
 	public List<SmallEntityType> extractSmallEntityTypes(String configItemName, IEntityTypeDOM entityTypeDom) throws EntException {
 		String xml = this.extractConfigItem(configItemName);
-		return entityTypeDom.extractSmallEntityTypes(xml);
+		String key = this.getParsedEntityTypesKey(configItemName, null);
+		ParsedEntityTypes parsed = this.parsedEntityTypes.get(key);
+		if (null == parsed || !parsed.isParsedFrom(xml)) {
+			parsed = new ParsedEntityTypes(xml, null, entityTypeDom.extractSmallEntityTypes(xml));
+			this.parsedEntityTypes.put(key, parsed);
+		}
+		List<SmallEntityType> smallEntityTypes = new ArrayList<>(parsed.getSmallEntityTypes().size());
+		for (SmallEntityType smallEntityType : parsed.getSmallEntityTypes()) {
+			smallEntityTypes.add(new SmallEntityType(smallEntityType.getCode(), smallEntityType.getDescription()));
+		}
+		return smallEntityTypes;
 	}
 	
+	/**
+	 * Return the main prototype of an Entity Type.
+	 * The returned object is shared between the callers and must not be modified; 
+	 * use {@link IApsEntity#getEntityPrototype()} to obtain a modifiable copy.
+	 */
 	@Override
 	public IApsEntity extractEntityType(String typeCode, Class entityClass, String configItemName, 
 			IEntityTypeDOM entityTypeDom, String entityManagerName, IApsEntityDOM entityDom) throws EntException {
-		String xml = this.extractConfigItem(configItemName);
-		logger.debug("{} : {}", configItemName , xml);
-		return entityTypeDom.extractEntityType(typeCode, xml, entityClass, entityDom, entityManagerName);
+		return this.getParsedEntityTypes(entityClass, configItemName, entityTypeDom, entityManagerName, entityDom).get(typeCode);
 	}
 	
 	/**
@@ -67,28 +91,58 @@ public class EntityTypeFactory implements IEntityTypeFactory {
 	 * @param entityDom The DOM class that parses the XML representing the single (implemented) entity.
 	 * @param entityManagerName The entity manager name
 	 * @return The map of the Entity Types Prototypes, indexed by code. 
+	 * Every prototype is a copy of the parsed one and can be freely modified.
 	 * @throws EntException If errors occurs during the parsing process of the XML.
 	 */
 	@Override
 	public Map<String, IApsEntity> extractEntityTypes(Class entityClass, String configItemName, 
 			IEntityTypeDOM entityTypeDom, String entityManagerName, IApsEntityDOM entityDom) throws EntException {
-		Map<String, IApsEntity> entityTypes = null;
-		try {
-			String xml = this.extractConfigItem(configItemName);
-			logger.debug("{} : {}", configItemName , xml);
-			entityTypes = entityTypeDom.extractEntityTypes(xml, entityClass, entityDom, entityManagerName);
-		} catch (Throwable t) {
-			logger.error("Error in the entities initialization process. configItemName:{}", configItemName, t);
-			throw new EntException("Error in the entities initialization process", t);
+		Map<String, IApsEntity> entityTypes = new HashMap<>();
+		Map<String, IApsEntity> parsedTypes = this.getParsedEntityTypes(entityClass, configItemName, entityTypeDom, entityManagerName, entityDom);
+		for (Map.Entry<String, IApsEntity> entry : parsedTypes.entrySet()) {
+			entityTypes.put(entry.getKey(), entry.getValue().getEntityPrototype());
 		}
 		return entityTypes;
 	}
 	
+	private Map<String, IApsEntity> getParsedEntityTypes(Class entityClass, String configItemName, 
+			IEntityTypeDOM entityTypeDom, String entityManagerName, IApsEntityDOM entityDom) throws EntException {
+		String xml = this.extractConfigItem(configItemName);
+		String key = this.getParsedEntityTypesKey(configItemName, entityManagerName);
+		ParsedEntityTypes parsed = this.parsedEntityTypes.get(key);
+		if (null != parsed && parsed.isParsedFrom(xml)) {
+			return parsed.getEntityTypes();
+		}
+		synchronized (this.parsedEntityTypes) {
+			parsed = this.parsedEntityTypes.get(key);
+			if (null != parsed && parsed.isParsedFrom(xml)) {
+				return parsed.getEntityTypes();
+			}
+			try {
+				logger.debug("{} : {}", configItemName , xml);
+				Map<String, IApsEntity> entityTypes = entityTypeDom.extractEntityTypes(xml, entityClass, entityDom, entityManagerName);
+				parsed = new ParsedEntityTypes(xml, entityTypes, null);
+			} catch (Throwable t) {
+				logger.error("Error in the entities initialization process. configItemName:{}", configItemName, t);
+				throw new EntException("Error in the entities initialization process", t);
+			}
+			this.parsedEntityTypes.put(key, parsed);
+		}
+		return parsed.getEntityTypes();
+	}
+	
+	private String getParsedEntityTypesKey(String configItemName, String entityManagerName) {
+		String tenantCode = ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+		String suffix = (null != entityManagerName) ? entityManagerName : "smallTypes";
+		return tenantCode + "_" + configItemName + "_" + suffix;
+	}
+	
 	@Override
 	public void updateEntityTypes(Map<String, IApsEntity> entityTypes, String configItemName, IEntityTypeDOM entityTypeDom) throws EntException {
 		try {
 			String xml = entityTypeDom.getXml(entityTypes);
 			this.getConfigManager().updateConfigItem(configItemName, xml);
+			this.releaseParsedEntityTypes(configItemName);
 		} catch (Throwable t) {
 			logger.error("Error detected while updating the Entity Types. configItemName: {}", configItemName, t);
 			throw new EntException("Error detected while updating the Entity Types", t);
@@ -107,6 +161,11 @@ public class EntityTypeFactory implements IEntityTypeFactory {
         }
     }
 	
+	private void releaseParsedEntityTypes(String configItemName) {
+		String prefix = this.getParsedEntityTypesKey(configItemName, "");
+		this.parsedEntityTypes.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+	
 	protected ConfigInterface getConfigManager() {
 		return this.configManager;
 	}
@@ -115,4 +174,30 @@ public class EntityTypeFactory implements IEntityTypeFactory {
 		this.configManager = configManager;
 	}
 	
+	private static final class ParsedEntityTypes {
+		
+		private final String xml;
+		private final Map<String, IApsEntity> entityTypes;
+		private final List<SmallEntityType> smallEntityTypes;
+		
+		private ParsedEntityTypes(String xml, Map<String, IApsEntity> entityTypes, List<SmallEntityType> smallEntityTypes) {
+			this.xml = xml;
+			this.entityTypes = (null != entityTypes) ? Collections.unmodifiableMap(entityTypes) : Collections.emptyMap();
+			this.smallEntityTypes = (null != smallEntityTypes) ? Collections.unmodifiableList(smallEntityTypes) : Collections.emptyList();
+		}
+		
+		private boolean isParsedFrom(String xml) {
+			return Objects.equals(this.xml, xml);
+		}
+		
+		private Map<String, IApsEntity> getEntityTypes() {
+			return entityTypes;
+		}
+		
+		private List<SmallEntityType> getSmallEntityTypes() {
+			return smallEntityTypes;
+		}
+		
+	}
+	
 }
@@ -13,11 +13,16 @@
  */
 package com.agiletec.aps.system.common.renderer;
 
+import java.io.StringReader;
 import java.io.StringWriter;
 
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
 import org.apache.velocity.context.Context;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.RuntimeSingleton;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
@@ -61,6 +66,24 @@ public class DefaultVelocityRenderer extends AbstractService implements IVelocit
 		return renderedObject;
 	}
     
+	/**
+	 * Parse the given template source into a template that can be merged
+	 * many times, also concurrently, with different contexts.
+	 * @param name the name of the template, used in error messages
+	 * @param source the template source
+	 * @return the parsed template
+	 * @throws ParseException in case of invalid template source
+	 */
+	protected Template parseTemplate(String name, String source) throws ParseException {
+		RuntimeServices runtimeServices = RuntimeSingleton.getRuntimeServices();
+		Template template = new Template();
+		template.setName(name);
+		template.setRuntimeServices(runtimeServices);
+		template.setData(runtimeServices.parse(new StringReader(source), template));
+		template.initDocument();
+		return template;
+	}
+    
 	protected String getWrapperContextName() {
 		if (null == this._wrapperContextName) {
 			return DEFAULT_WRAPPER_CTX_NAME;
@@ -32,6 +32,8 @@ import com.agiletec.aps.system.services.role.IRoleManager;
 import com.agiletec.aps.system.services.role.Permission;
 import com.agiletec.aps.system.services.role.Role;
 import com.agiletec.aps.system.services.user.UserDetails;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -49,6 +51,8 @@ public class AuthorizationManager extends AbstractService implements IAuthorizat
 
     private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(AuthorizationManager.class);
 
+    private final transient Cache<UserDetails, UserAuthorizationIndex> authorizationIndexes = CacheBuilder.newBuilder().weakKeys().build();
+
     @Override
     public void init() throws Exception {
         _logger.debug("{} ready", this.getClass().getName());
@@ -94,33 +98,7 @@ public class AuthorizationManager extends AbstractService implements IAuthorizat
         if (null == user || (null == groupName && null == roleName)) {
             return false;
         }
-        List<Authorization> userAuths = user.getAuthorizations();
-        for (int i = 0; i < userAuths.size(); i++) {
-            Authorization userAuth = userAuths.get(i);
-            if (null == userAuth) {
-                continue;
-            }
-            Group group = userAuth.getGroup();
-            if ((null == group && null != groupName) || (null != group && null == groupName)) {
-                continue;
-            } else if (null != group && null != groupName) {
-                if (!chechAdmin && !groupName.equals(group.getName())) {
-                    continue;
-                } else if (chechAdmin && !Group.ADMINS_GROUP_NAME.equals(group.getName())) {
-                    continue;
-                }
-            }
-            Role role = userAuth.getRole();
-            if (null == roleName) {
-                return true;
-            } else {
-                boolean isSuper = role.hasPermission(Permission.SUPERUSER);
-                if (role.getName().equals(roleName) || (chechAdmin && isSuper)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.getAuthorizationIndex(user).hasGroupAndRole(groupName, roleName, chechAdmin);
     }
 
     @Override
@@ -368,15 +346,7 @@ public class AuthorizationManager extends AbstractService implements IAuthorizat
         if (null == user) {
             return false;
         }
-        List<Role> rolesWithPermission = this.getRolesWithPermission(user, permissionName);
-        for (int i = 0; i < rolesWithPermission.size(); i++) {
-            Role role = rolesWithPermission.get(i);
-            boolean check = this.checkAuth(user, role.getAuthority(), true);
-            if (check) {
-                return true;
-            }
-        }
-        return false;
+        return this.getAuthorizationIndex(user).hasPermission(permissionName);
     }
 
     private List<Role> getRolesWithPermission(UserDetails user, String permissionName) {
@@ -454,20 +424,29 @@ public class AuthorizationManager extends AbstractService implements IAuthorizat
         if (null == requiredAuthName || null == user) {
             return false;
         }
-        List<Authorization> auths = user.getAuthorizations();
-        for (int i = 0; i < auths.size(); i++) {
-            Authorization auth = auths.get(i);
-            if (null == auth) {
-                continue;
-            }
-            if (isRole && null != auth.getRole() && requiredAuthName.equals(auth.getRole().getAuthority())) {
-                return true;
-            }
-            if (!isRole && null != auth.getGroup() && requiredAuthName.equals(auth.getGroup().getAuthority())) {
-                return true;
+        UserAuthorizationIndex index = this.getAuthorizationIndex(user);
+        return (isRole) ? index.hasRole(requiredAuthName) : index.hasGroup(requiredAuthName);
+    }
+
+    /**
+     * Return the compiled authorizations of the given user.
+     * The index is kept as long as the user object is alive and is rebuilt
+     * when the version of the authorizations of the user changes; the
+     * authorizations of users that don't track their version are compiled
+     * at every check.
+     * @param user the user
+     * @return the authorization index of the user
+     */
+    private UserAuthorizationIndex getAuthorizationIndex(UserDetails user) {
+        long version = user.getAuthorizationsVersion();
+        UserAuthorizationIndex index = this.authorizationIndexes.getIfPresent(user);
+        if (null == index || !index.isValidFor(version)) {
+            index = new UserAuthorizationIndex(user.getAuthorizations(), version);
+            if (version >= 0) {
+                this.authorizationIndexes.put(user, index);
             }
         }
-        return false;
+        return index;
     }
 
     @Override
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.services.authorization;
+
+import com.agiletec.aps.system.services.group.Group;
+import com.agiletec.aps.system.services.role.Permission;
+import com.agiletec.aps.system.services.role.Role;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the authorizations of a user.
+ * The index is compiled from the authorization list of the user and is valid
+ * as long as the version of the authorizations of the user doesn't change
+ * (see {@link com.agiletec.aps.system.services.user.UserDetails#getAuthorizationsVersion()}).
+ * A null group is indexed under the null key.
+ */
+final class UserAuthorizationIndex {
+
+    private final long version;
+
+    private final Set<String> groupAuthorities = new HashSet<>();
+    private final Set<String> roleAuthorities = new HashSet<>();
+    private final Set<String> permissions = new HashSet<>();
+    private final Map<String, Set<String>> rolesByGroup = new HashMap<>();
+    private final Set<String> superuserGroups = new HashSet<>();
+
+    UserAuthorizationIndex(List<Authorization> authorizations, long version) {
+        List<Authorization> auths = (null != authorizations) ? authorizations : Collections.emptyList();
+        this.version = version;
+        for (Authorization auth : auths) {
+            if (null == auth) {
+                continue;
+            }
+            Group group = auth.getGroup();
+            Role role = auth.getRole();
+            if (null != group && null != group.getAuthority()) {
+                this.groupAuthorities.add(group.getAuthority());
+            }
+            String groupName = (null != group) ? group.getName() : null;
+            Set<String> groupRoles = this.rolesByGroup.computeIfAbsent(groupName, k -> new HashSet<>());
+            if (null != role) {
+                if (null != role.getAuthority()) {
+                    this.roleAuthorities.add(role.getAuthority());
+                    this.permissions.addAll(role.getPermissions());
+                }
+                groupRoles.add(role.getName());
+                if (role.hasPermission(Permission.SUPERUSER)) {
+                    this.superuserGroups.add(groupName);
+                }
+            }
+        }
+    }
+
+    boolean isValidFor(long version) {
+        return version >= 0 && this.version == version;
+    }
+
+    boolean hasGroup(String groupAuthority) {
+        return this.groupAuthorities.contains(groupAuthority);
+    }
+
+    boolean hasRole(String roleAuthority) {
+        return this.roleAuthorities.contains(roleAuthority);
+    }
+
+    boolean hasPermission(String permissionName) {
+        return this.permissions.contains(permissionName);
+    }
+
+    /**
+     * Check an authorization on a group and a role, with the same rules of
+     * {@link IAuthorizationManager#isAuthOnGroupAndRole(com.agiletec.aps.system.services.user.UserDetails, String, String, boolean)}:
+     * when checkAdmin is true only the authorizations on the administrators
+     * group are considered and a superuser role matches any role.
+     */
+    boolean hasGroupAndRole(String groupName, String roleName, boolean checkAdmin) {
+        String groupKey = (null != groupName && checkAdmin) ? Group.ADMINS_GROUP_NAME : groupName;
+        Set<String> groupRoles = this.rolesByGroup.get(groupKey);
+        if (null == groupRoles) {
+            return false;
+        }
+        if (null == roleName) {
+            return true;
+        }
+        return groupRoles.contains(roleName) || (checkAdmin && this.superuserGroups.contains(groupKey));
+    }
+
+}
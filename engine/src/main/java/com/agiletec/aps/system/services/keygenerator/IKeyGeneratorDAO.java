@@ -32,4 +32,12 @@ public interface IKeyGeneratorDAO {
 	 */
 	public void updateKey(int currentKey);
 
+	/**
+	 * Riserva un blocco di chiavi incrementando la chiave nel db
+	 * in un'unica transazione, in modo sicuro anche tra più nodi.
+	 * @param blockSize Il numero di chiavi da riservare.
+	 * @return L'ultima chiave del blocco riservato.
+	 */
+	public int reserveKeys(int blockSize);
+
 }
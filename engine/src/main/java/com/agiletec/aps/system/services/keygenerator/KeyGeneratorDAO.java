@@ -82,7 +82,40 @@ public class KeyGeneratorDAO extends AbstractDAO implements IKeyGeneratorDAO {
 		}
 	}
 
+	@Override
+	public int reserveKeys(int blockSize) {
+		Connection conn = null;
+		PreparedStatement stat = null;
+		Statement selectStat = null;
+		ResultSet res = null;
+		int lastKey = 0;
+		try {
+			conn = this.getConnection();
+			conn.setAutoCommit(false);
+			stat = conn.prepareStatement(RESERVE_KEYS);
+			stat.setInt(1, blockSize);
+			stat.executeUpdate();
+			// the updated row stays locked until the commit
+			selectStat = conn.createStatement();
+			res = selectStat.executeQuery(EXTRACT_KEY);
+			if (res.next()) {
+				lastKey = res.getInt(1);
+			}
+			conn.commit();
+		} catch (Throwable t) {
+			this.executeRollback(conn);
+			_logger.error("Error while reserving {} keys", blockSize, t);
+			throw new RuntimeException("Error while reserving keys", t);
+		} finally {
+			closeDaoResources(res, selectStat);
+			closeDaoResources(null, stat, conn);
+		}
+		return lastKey;
+	}
+
 	private final String EXTRACT_KEY = "SELECT keyvalue FROM uniquekeys";
 
 	private final String UPDATE_KEY = "UPDATE uniquekeys SET keyvalue = ? ";
+
+	private final String RESERVE_KEYS = "UPDATE uniquekeys SET keyvalue = keyvalue + ? ";
 }
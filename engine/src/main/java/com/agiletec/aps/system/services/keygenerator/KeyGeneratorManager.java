@@ -33,6 +33,8 @@ public class KeyGeneratorManager extends AbstractService implements IKeyGenerato
 
 	private IKeyGeneratorManagerCacheWrapper cacheWrapper;
 
+	private int blockSize = 1;
+
 	@Override
 	public void init() throws Exception {
 		initTenantAware();
@@ -57,6 +59,8 @@ public class KeyGeneratorManager extends AbstractService implements IKeyGenerato
 
 	/**
 	 * Restituisce la chiave univoca corrente.
+	 * Le chiavi vengono riservate sul db a blocchi e restituite dalla memoria;
+	 * le chiavi di un blocco non utilizzate prima di un riavvio vengono saltate.
 	 *
 	 * @return La chiave univoca corrente.
 	 * @throws EntException In caso di errore nell'aggiornamento della
@@ -64,7 +68,7 @@ public class KeyGeneratorManager extends AbstractService implements IKeyGenerato
 	 */
 	@Override
 	public int getUniqueKeyCurrentValue() throws EntException {
-		return this.getCacheWrapper().getAndIncrementUniqueKeyCurrentValue(this.getKeyGeneratorDAO());
+		return this.getCacheWrapper().getAndIncrementUniqueKeyCurrentValue(this.getKeyGeneratorDAO(), this.getBlockSize());
 	}
 
 	protected IKeyGeneratorDAO getKeyGeneratorDAO() {
@@ -75,6 +79,14 @@ public class KeyGeneratorManager extends AbstractService implements IKeyGenerato
 		this.keyGeneratorDao = generatorDAO;
 	}
 
+	protected int getBlockSize() {
+		return blockSize;
+	}
+
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
 	protected IKeyGeneratorManagerCacheWrapper getCacheWrapper() {
 		return cacheWrapper;
 	}
@@ -28,6 +28,14 @@ public interface IKeyGeneratorManagerCacheWrapper extends ICacheWrapper {
 
 	public int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO);
 
+	/**
+	 * Return the next key, handed out from a block of keys reserved on the database.
+	 * @param keyGeneratorDAO the dao used to reserve a new block when the current one is exhausted
+	 * @param blockSize the number of keys reserved at a time
+	 * @return the next key
+	 */
+	public int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO, int blockSize);
+
 	public void updateCurrentKey(int val);
 
 }
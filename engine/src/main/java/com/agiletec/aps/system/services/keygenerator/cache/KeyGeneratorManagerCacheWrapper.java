@@ -15,6 +15,10 @@ package com.agiletec.aps.system.services.keygenerator.cache;
 
 import com.agiletec.aps.system.common.AbstractCacheWrapper;
 import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorDAO;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 import org.springframework.cache.Cache;
@@ -23,10 +27,14 @@ public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implem
 
     private final EntLogger logger = EntLogFactory.getSanitizedLogger(getClass());
 
+    // blocks of keys reserved by this node, by tenant; they are never shared with other nodes
+    private final Map<String, KeyBlock> keyBlocks = new ConcurrentHashMap<>();
+
     @Override
     public void release() {
         Cache cache = this.getCache();
         cache.evict(IKeyGeneratorManagerCacheWrapper.CURRENT_KEY);
+        this.keyBlocks.remove(this.getTenantCode());
     }
 
     @Override
@@ -39,15 +47,27 @@ public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implem
         Integer value = keyGeneratorDAO.getUniqueKey();
         Cache cache = this.getCache();
         this.insertObjectsOnCache(cache, value);
+        this.keyBlocks.remove(this.getTenantCode());
     }
 
     @Override
-    public synchronized int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO) {
-        Cache cache = this.getCache();
-        Integer currentValue = this.get(cache, CURRENT_KEY, Integer.class);
-        Integer nextValue = currentValue + 1;
-        this.insertObjectsOnCache(cache, nextValue);
-        keyGeneratorDAO.updateKey(nextValue);
+    public int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO) {
+        return this.getAndIncrementUniqueKeyCurrentValue(keyGeneratorDAO, 1);
+    }
+
+    @Override
+    public synchronized int getAndIncrementUniqueKeyCurrentValue(IKeyGeneratorDAO keyGeneratorDAO, int blockSize) {
+        String tenantCode = this.getTenantCode();
+        KeyBlock block = this.keyBlocks.get(tenantCode);
+        if (null == block || block.isExhausted()) {
+            int size = Math.max(1, blockSize);
+            int lastKey = keyGeneratorDAO.reserveKeys(size);
+            block = new KeyBlock(lastKey - size + 1, lastKey);
+            this.keyBlocks.put(tenantCode, block);
+            logger.debug("reserved keys from {} to {}", lastKey - size + 1, lastKey);
+        }
+        int nextValue = block.next();
+        this.insertObjectsOnCache(this.getCache(), nextValue);
         return nextValue;
     }
 
@@ -66,4 +86,27 @@ public class KeyGeneratorManagerCacheWrapper extends AbstractCacheWrapper implem
         logger.trace("current key is now {}", value);
     }
 
+    private String getTenantCode() {
+        return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+    }
+
+    private static final class KeyBlock {
+
+        private int nextKey;
+        private final int lastKey;
+
+        private KeyBlock(int firstKey, int lastKey) {
+            this.nextKey = firstKey;
+            this.lastKey = lastKey;
+        }
+
+        private boolean isExhausted() {
+            return this.nextKey > this.lastKey;
+        }
+
+        private int next() {
+            return this.nextKey++;
+        }
+    }
+
 }
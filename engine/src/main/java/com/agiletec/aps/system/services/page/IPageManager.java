@@ -156,12 +156,33 @@ public interface IPageManager extends ITreeNodeManager, IParameterizableManager
      */
     public void removeWidget(String pageCode, int pos) throws EntException;
 
+    /**
+     * Return the root of the online page tree. The online pages are shared
+     * between the callers and must not be modified; use {@link IPage#clone()}
+     * to obtain a modifiable copy.
+     * @return the online root
+     */
     public IPage getOnlineRoot();
 
     public IPage getDraftRoot();
 
+    /**
+     * Return an online page. The online pages are shared between the callers
+     * and must not be modified; use {@link IPage#clone()} to obtain a
+     * modifiable copy.
+     * @param pageCode the page code
+     * @return the online page, or null if the page isn't online
+     */
     public IPage getOnlinePage(String pageCode);
 
+    /**
+     * Return the online page with the given full path, as built by
+     * {@link PageUtils#getFullPath(IPageManager, IPage, String)} with "/" as separator.
+     * @param fullPath the full path of the page
+     * @return the online page, or null if no online page has the given path
+     */
+    public IPage getOnlinePageByFullPath(String fullPath);
+
     public IPage getDraftPage(String pageCode);
 
     /**
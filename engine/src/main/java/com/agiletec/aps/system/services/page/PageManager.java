@@ -512,6 +512,11 @@ public class PageManager extends AbstractParameterizableService implements IPage
         return this.getCacheWrapper().getOnlinePage(pageCode);
     }
 
+    @Override
+    public IPage getOnlinePageByFullPath(String fullPath) {
+        return this.getCacheWrapper().getOnlinePageByFullPath(fullPath);
+    }
+
     @Override
     public IPage getDraftPage(String pageCode) {
         return this.getCacheWrapper().getDraftPage(pageCode);
@@ -33,6 +33,7 @@ public interface IPageManagerCacheWrapper extends ICacheWrapper {
     public static final String PAGE_STATUS_CACHE_NAME = "PageManager_pagesStatus";
     public static final String DRAFT_PAGE_CODES_CACHE_NAME = "PageManager_draftCodes";
     public static final String ONLINE_PAGE_CODES_CACHE_NAME = "PageManager_onlineCodes";
+    public static final String ONLINE_PAGE_PATHS_CACHE_NAME = "PageManager_onlinePaths";
 
     public static final String ONLINE_WIDGET_UTILIZER_CACHE_NAME_PREFIX = "PageManager_onlineUtilizer_";
     public static final String DRAFT_WIDGET_UTILIZER_CACHE_NAME_PREFIX = "PageManager_draftUtilizer_";
@@ -45,6 +46,8 @@ public interface IPageManagerCacheWrapper extends ICacheWrapper {
 
     public IPage getOnlinePage(String pageCode);
 
+    public IPage getOnlinePageByFullPath(String fullPath);
+
     public IPage getDraftPage(String pageCode);
 
     public IPage getOnlineRoot();
@@ -31,6 +31,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
@@ -44,6 +46,8 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
 
     private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(PageManagerCacheWrapper.class);
 
+    private final Object onlinePathsLock = new Object();
+
     @Override
     public void release() {
         this.getCache().clear();
@@ -87,11 +91,20 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
             }
             Cache cache = this.getCache();
             this.cleanUtilizers(cache);
-            List<String> draftPageCodes = pageListD.stream().map(p -> p.getCode()).collect(Collectors.toList());
+            Set<String> draftPageCodes = pageListD.stream().map(p -> p.getCode())
+                    .collect(Collectors.toCollection(ConcurrentHashMap::newKeySet));
             cache.put(DRAFT_PAGE_CODES_CACHE_NAME, draftPageCodes);
-            List<String> onlinePageCodes = pageListO.stream().map(p -> p.getCode()).collect(Collectors.toList());
+            Set<String> onlinePageCodes = pageListO.stream().map(p -> p.getCode())
+                    .collect(Collectors.toCollection(ConcurrentHashMap::newKeySet));
             cache.put(ONLINE_PAGE_CODES_CACHE_NAME, onlinePageCodes);
             this.insertObjectsOnCache(cache, status, newDraftRoot, newOnLineRoot, pageListD, pageListO);
+            Map<String, List<String>> utilizersMap = new HashMap<>();
+            this.getWidgetUtilizers(newDraftRoot, newFullMap::get, utilizersMap, true);
+            if (null != newOnLineRoot) {
+                this.getWidgetUtilizers(newOnLineRoot, newOnlineMap::get, utilizersMap, false);
+            }
+            this.insertWidgetUtilizersOnCache(cache, utilizersMap);
+            this.releaseOnlinePaths(cache);
         } catch (EntException e) {
             throw e;
         } catch (Throwable t) {
@@ -150,7 +163,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
                 cache.put(DRAFT_PAGE_CACHE_NAME_PREFIX + parent.getCode(), parent);
                 this.checkRootModification(parent, false, cache);
             }
-            IPage parentOnLine = this.getOnlinePage(page.getParentCode());
+            IPage parentOnLine = this.getOnlinePageToUpdate(page.getParentCode());
             if (null != parentOnLine) {
                 List<String> onlineChildrenCodes = new ArrayList<>(Arrays.asList(parentOnLine.getChildrenCodes()));
                 boolean executedRemoveOnOnLine = onlineChildrenCodes.remove(pageCode);
@@ -161,13 +174,18 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
                 }
             }
         }
-        this.removeCodeFromCachedList(cache, DRAFT_PAGE_CODES_CACHE_NAME, pageCode);
-        this.removeCodeFromCachedList(cache, ONLINE_PAGE_CODES_CACHE_NAME, pageCode);
+        this.removeCodeFromCachedSet(cache, DRAFT_PAGE_CODES_CACHE_NAME, pageCode);
+        this.removeCodeFromCachedSet(cache, ONLINE_PAGE_CODES_CACHE_NAME, pageCode);
         boolean isPublic = page.isOnline();
         boolean isChanged = page.isChanged();
+        IPage onlinePage = this.getOnlinePage(pageCode);
         cache.evict(DRAFT_PAGE_CACHE_NAME_PREFIX + pageCode);
         cache.evict(ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode);
-        this.cleanUtilizers(cache);
+        this.updateWidgetUtilizers(cache, page, null, true);
+        this.updateWidgetUtilizers(cache, onlinePage, null, false);
+        if (null != onlinePage) {
+            this.releaseOnlinePaths(cache);
+        }
         PagesStatus status = this.getPagesStatus();
         status.setLastUpdate(new Date());
         if (isPublic && isChanged) {
@@ -181,7 +199,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     }
 
     private void upgradePositionForSisterDeletion(Cache cache, String code, boolean online) {
-        IPage page = (online) ? this.getOnlinePage(code) : this.getDraftPage(code);
+        IPage page = (online) ? this.getOnlinePageToUpdate(code) : this.getDraftPage(code);
         if (null == page) {
             return;
         }
@@ -196,7 +214,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     @Override
     public void addDraftPage(IPage page) {
         Cache cache = this.getCache();
-        this.addCodeFromCachedList(cache, DRAFT_PAGE_CODES_CACHE_NAME, page.getCode());
+        this.addCodeToCachedSet(cache, DRAFT_PAGE_CODES_CACHE_NAME, page.getCode());
         ((Page) page).setChildrenCodes(new String[0]);
         IPage parent = this.getDraftPage(page.getParentCode());
         String[] childCodes = parent.getChildrenCodes();
@@ -209,7 +227,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         cache.put(DRAFT_PAGE_CACHE_NAME_PREFIX + page.getCode(), page);
         this.checkRootModification(page, false, cache);
         this.checkRootModification(parent, false, cache);
-        this.cleanUtilizers(cache);
+        this.updateWidgetUtilizers(cache, null, page, true);
         PagesStatus status = this.getPagesStatus();
         status.setLastUpdate(new Date());
         status.setUnpublished(status.getUnpublished()+1);
@@ -229,7 +247,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         Cache cache = this.getCache();
         cache.put(DRAFT_PAGE_CACHE_NAME_PREFIX + page.getCode(), page);
         this.checkRootModification(page, false, cache);
-        this.cleanUtilizers(cache);
+        this.updateWidgetUtilizers(cache, cachedPage, page, true);
 
         int online = 0;
         int onlineWithChanges = 0;
@@ -256,7 +274,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         Cache cache = this.getCache();
         IPage page = this.getDraftPage(pageCode);
         if (null != page) {
-            this.addCodeFromCachedList(cache, ONLINE_PAGE_CODES_CACHE_NAME, page.getCode());
+            this.addCodeToCachedSet(cache, ONLINE_PAGE_CODES_CACHE_NAME, page.getCode());
             boolean alreadyChanged = page.isChanged();
             IPage onlinepage = this.getOnlinePage(page.getCode());
             boolean alreadyOnline = null != onlinepage;
@@ -264,17 +282,18 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
             ((Page) page).setChanged(false);
             IPage newOnlinePage = page.clone();
             ((Page) newOnlinePage).setOnlineInstance(true);
-            List<String> totalOnlineCodes = (List<String>) this.get(cache, ONLINE_PAGE_CODES_CACHE_NAME, List.class);
+            Set<String> totalOnlineCodes = (Set<String>) this.get(cache, ONLINE_PAGE_CODES_CACHE_NAME, Set.class);
             List<String> onLineCodes = Arrays.asList(newOnlinePage.getChildrenCodes())
                     .stream().filter(code -> null != this.getOnlinePage(code) && totalOnlineCodes.contains(code))
                     .collect(Collectors.toList());
             ((Page) newOnlinePage).setChildrenCodes(onLineCodes.toArray(new String[onLineCodes.size()]));
             cache.put(ONLINE_PAGE_CACHE_NAME_PREFIX + newOnlinePage.getCode(), newOnlinePage);
             this.checkRootModification(newOnlinePage, true, cache);
+            this.updateWidgetUtilizers(cache, onlinepage, newOnlinePage, false);
             cache.put(DRAFT_PAGE_CACHE_NAME_PREFIX + page.getCode(), page);
             this.checkRootModification(page, false, cache);
             if (!alreadyOnline) {
-                IPage parentOnLine = this.getOnlinePage(newOnlinePage.getParentCode());
+                IPage parentOnLine = this.getOnlinePageToUpdate(newOnlinePage.getParentCode());
                 if (null != parentOnLine && !parentOnLine.getCode().equals(pageCode)) {
                     IPage parentDraft = this.getDraftPage(newOnlinePage.getParentCode());
                     List<String> draftChildrenCodes = Arrays.asList(parentDraft.getChildrenCodes());
@@ -297,18 +316,19 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
                 status.setOnline(status.getOnline() + 1);
                 cache.put(PAGE_STATUS_CACHE_NAME, status);
             }
+            this.releaseOnlinePaths(cache);
         }
-        this.cleanUtilizers(cache);
     }
 
     @Override
     public void setPageOffline(String pageCode) {
         Cache cache = this.getCache();
         IPage page = this.getDraftPage(pageCode);
-        this.removeCodeFromCachedList(cache, ONLINE_PAGE_CODES_CACHE_NAME, pageCode);
+        this.removeCodeFromCachedSet(cache, ONLINE_PAGE_CODES_CACHE_NAME, pageCode);
         IPage onlinepage = this.getOnlinePage(pageCode);
         if (null != onlinepage) {
             cache.evict(ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode);
+            this.updateWidgetUtilizers(cache, onlinepage, null, false);
             PagesStatus status = this.getPagesStatus();
             status.setLastUpdate(new Date());
             if (page.isChanged()) {
@@ -318,7 +338,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
             }
             status.setUnpublished(status.getUnpublished() + 1);
             cache.put(PAGE_STATUS_CACHE_NAME, status);
-            IPage parentOnLine = this.getOnlinePage(onlinepage.getParentCode());
+            IPage parentOnLine = this.getOnlinePageToUpdate(onlinepage.getParentCode());
             if (null != parentOnLine) {
                 List<String> onlineChildrenCodes = new ArrayList<>(Arrays.asList(parentOnLine.getChildrenCodes()));
                 boolean executedRemoveOnOnLine = onlineChildrenCodes.remove(pageCode);
@@ -328,13 +348,13 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
                     this.checkRootModification(parentOnLine, true, cache);
                 }
             }
+            this.releaseOnlinePaths(cache);
         }
         if (null != page) {
             ((Page) page).setOnline(false);
             ((Page) page).setChanged(false);
             cache.put(DRAFT_PAGE_CACHE_NAME_PREFIX + page.getCode(), page);
         }
-        this.cleanUtilizers(cache);
     }
 
     protected boolean isChanged(PageMetadata draftMeta, PageMetadata onlineMeta, Widget[] widgetsDraft, Widget[] widgetsOnline) {
@@ -383,19 +403,17 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         return changed;
     }
     
-    private void addCodeFromCachedList(Cache cache, String listKey, String codeToAdd) {
-        List<String> codes = this.getCopyOfListFromCache(cache, listKey);
-        if (null != codes && !codes.contains(codeToAdd)) {
-            codes.add(codeToAdd);
-            cache.put(listKey, codes);
+    private void addCodeToCachedSet(Cache cache, String setKey, String codeToAdd) {
+        Set<String> codes = this.get(cache, setKey, Set.class);
+        if (null != codes && codes.add(codeToAdd)) {
+            cache.put(setKey, codes);
         }
     }
     
-    private void removeCodeFromCachedList(Cache cache, String listKey, String codeToRemove) {
-        List<String> codes = this.getCopyOfListFromCache(cache, listKey);
-        if (null != codes) {
-            codes.remove(codeToRemove);
-            cache.put(listKey, codes);
+    private void removeCodeFromCachedSet(Cache cache, String setKey, String codeToRemove) {
+        Set<String> codes = this.get(cache, setKey, Set.class);
+        if (null != codes && codes.remove(codeToRemove)) {
+            cache.put(setKey, codes);
         }
     }
     
@@ -422,7 +440,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     }
     
     private void upgradePositionOnOnlineVersion(String pageCode, int position, Cache cache) {
-        IPage onlinePage = this.getOnlinePage(pageCode);
+        IPage onlinePage = this.getOnlinePageToUpdate(pageCode);
         if (null != onlinePage) {
             onlinePage.setPosition(position);
             cache.put(ONLINE_PAGE_CACHE_NAME_PREFIX + onlinePage.getCode(), onlinePage);
@@ -430,7 +448,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     }
     
     private void switchSisterOnParent(String parentCode, String pageUp, String pageDown, Cache cache, boolean online) {
-        IPage parent = (online) ? this.getOnlinePage(parentCode) : this.getDraftPage(parentCode);
+        IPage parent = (online) ? this.getOnlinePageToUpdate(parentCode) : this.getDraftPage(parentCode);
         if (null != parent) {
             List<String> children = new ArrayList(Arrays.asList(parent.getChildrenCodes()));
             int pos1 = children.indexOf(pageUp);
@@ -466,8 +484,80 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         return null;
     }
     
+    /**
+     * Return the online page. Online pages are never modified once cached (every
+     * change puts a new instance), so the cached instance is shared between the
+     * callers and must not be modified.
+     * @param pageCode the page code
+     * @return the shared online page
+     */
     @Override
     public IPage getOnlinePage(String pageCode) {
+        IPage page = this.get(ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode, IPage.class);
+        if (null == page) {
+            _logger.debug("page for key/pageCode:'{}' not found", ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode);
+        }
+        return page;
+    }
+
+    @Override
+    public IPage getOnlinePageByFullPath(String fullPath) {
+        if (null == fullPath) {
+            return null;
+        }
+        Map<String, String> onlinePaths = this.get(ONLINE_PAGE_PATHS_CACHE_NAME, Map.class);
+        if (null == onlinePaths) {
+            onlinePaths = this.buildOnlinePaths();
+        }
+        String pageCode = onlinePaths.get(fullPath);
+        return (null != pageCode) ? this.getOnlinePage(pageCode) : null;
+    }
+
+    private Map<String, String> buildOnlinePaths() {
+        synchronized (this.onlinePathsLock) {
+            Cache cache = this.getCache();
+            Map<String, String> onlinePaths = this.get(cache, ONLINE_PAGE_PATHS_CACHE_NAME, Map.class);
+            if (null == onlinePaths) {
+                onlinePaths = new HashMap<>();
+                IPage root = this.getOnlineRoot();
+                if (null != root) {
+                    onlinePaths.put(root.getCode(), root.getCode());
+                    this.addOnlinePaths(root, "", onlinePaths);
+                }
+                cache.put(ONLINE_PAGE_PATHS_CACHE_NAME, onlinePaths);
+            }
+            return onlinePaths;
+        }
+    }
+
+    private void addOnlinePaths(IPage page, String parentPath, Map<String, String> onlinePaths) {
+        String childrenPath = parentPath;
+        if (null != page.getMetadata() && page.getMetadata().isShowable()) {
+            childrenPath = parentPath + page.getCode() + "/";
+        }
+        String[] childrenCodes = page.getChildrenCodes();
+        if (null != childrenCodes) {
+            for (String childCode : childrenCodes) {
+                IPage child = this.getOnlinePage(childCode);
+                if (null != child) {
+                    onlinePaths.put(childrenPath + child.getCode(), child.getCode());
+                    this.addOnlinePaths(child, childrenPath, onlinePaths);
+                }
+            }
+        }
+    }
+
+    /**
+     * Release the online path index. Called when the online tree has been updated,
+     * so that an index built while the tree was changing is discarded.
+     */
+    private void releaseOnlinePaths(Cache cache) {
+        synchronized (this.onlinePathsLock) {
+            cache.evict(ONLINE_PAGE_PATHS_CACHE_NAME);
+        }
+    }
+
+    private IPage getOnlinePageToUpdate(String pageCode) {
         IPage page = this.get(ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode, IPage.class);
         return this.returnClone(page, ONLINE_PAGE_CACHE_NAME_PREFIX + pageCode);
     }
@@ -481,7 +571,10 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     @Override
     public IPage getOnlineRoot() {
         IPage page = this.get(ONLINE_ROOT_CACHE_NAME, IPage.class);
-        return this.returnClone(page, ONLINE_ROOT_CACHE_NAME);
+        if (null == page) {
+            _logger.debug("page for key/pageCode:'{}' not found", ONLINE_ROOT_CACHE_NAME);
+        }
+        return page;
     }
 
     @Override
@@ -545,63 +638,110 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
             return new ArrayList<>();
         }
         Cache cache = super.getCache();
-        String key = this.getWidgetUtilizerCacheName(widgetTypeCode, draft);
-        Set<String> utilizers = this.get(cache, WIDGET_UTILIZER_KEYS_CACHE_NAME, Set.class);
-        if (null == utilizers) {
-            utilizers = new HashSet<>();
-            cache.put(WIDGET_UTILIZER_KEYS_CACHE_NAME, utilizers);
-        }
-        List<String> pageCodes = this.get(cache, key, List.class);
-        if (null == pageCodes) {
-            Map<String, List> utilizersMap = new HashMap<>();
+        if (null == this.get(cache, WIDGET_UTILIZER_KEYS_CACHE_NAME, Set.class)) {
+            Map<String, List<String>> utilizersMap = new HashMap<>();
             try {
-                IPage root = (draft) ? this.getDraftRoot() : this.getOnlineRoot();
-                this.getWidgetUtilizers(root, utilizersMap, draft);
+                this.getWidgetUtilizers(this.getDraftRoot(), this::getDraftPage, utilizersMap, true);
+                IPage onlineRoot = this.getOnlineRoot();
+                if (null != onlineRoot) {
+                    this.getWidgetUtilizers(onlineRoot, this::getOnlinePage, utilizersMap, false);
+                }
             } catch (Throwable t) {
-                String message = "Error during searching draft page utilizers";
+                String message = "Error during searching page utilizers";
                 _logger.error(message, t);
                 throw new EntException(message, t);
             }
-            utilizersMap.entrySet().stream().forEach(entry
-                    -> cache.put(entry.getKey(), entry.getValue())
-            );
-            utilizers.addAll(utilizersMap.keySet());
-            cache.put(WIDGET_UTILIZER_KEYS_CACHE_NAME, utilizers);
-            pageCodes = utilizersMap.get(key);
-        }
-        if (null == pageCodes) {
-            pageCodes = new ArrayList<>();
-            cache.put(key, pageCodes);
-            utilizers.add(key);
-            cache.put(WIDGET_UTILIZER_KEYS_CACHE_NAME, utilizers);
+            this.insertWidgetUtilizersOnCache(cache, utilizersMap);
         }
-        return pageCodes;
+        List<String> pageCodes = this.get(cache, this.getWidgetUtilizerCacheName(widgetTypeCode, draft), List.class);
+        return (null != pageCodes) ? pageCodes : new ArrayList<>();
     }
 
-    private void getWidgetUtilizers(IPage page, Map<String, List> utilizersMap, boolean draft) {
-        Widget[] widgets = page.getWidgets();
-        if (widgets != null) {
-            for (Widget widget : widgets) {
-                if (null != widget && null != widget.getTypeCode()) {
-                    String cacheCode = this.getWidgetUtilizerCacheName(widget.getTypeCode(), draft);
-                    List<String> widgetUtilizers = utilizersMap.get(cacheCode);
-                    if (null == widgetUtilizers) {
-                        widgetUtilizers = new ArrayList<>();
-                        utilizersMap.put(cacheCode, widgetUtilizers);
-                    }
-                    widgetUtilizers.add(page.getCode());
-                }
-            }
+    private void getWidgetUtilizers(IPage page, Function<String, IPage> pageLoader, Map<String, List<String>> utilizersMap, boolean draft) {
+        for (String widgetTypeCode : this.getWidgetTypeCodes(page)) {
+            String cacheCode = this.getWidgetUtilizerCacheName(widgetTypeCode, draft);
+            utilizersMap.computeIfAbsent(cacheCode, k -> new ArrayList<>()).add(page.getCode());
         }
         String[] childrenCodes = page.getChildrenCodes();
         if (childrenCodes != null) {
             for (String childrenCode : childrenCodes) {
-                IPage child = (draft) ? this.getDraftPage(childrenCode) : this.getOnlinePage(childrenCode);
+                IPage child = pageLoader.apply(childrenCode);
                 if (null != child) {
-                    this.getWidgetUtilizers(child, utilizersMap, draft);
+                    this.getWidgetUtilizers(child, pageLoader, utilizersMap, draft);
+                }
+            }
+        }
+    }
+
+    private void insertWidgetUtilizersOnCache(Cache cache, Map<String, List<String>> utilizersMap) {
+        utilizersMap.entrySet().stream().forEach(entry
+                -> cache.put(entry.getKey(), entry.getValue())
+        );
+        cache.put(WIDGET_UTILIZER_KEYS_CACHE_NAME, new HashSet<>(utilizersMap.keySet()));
+    }
+
+    /**
+     * Update the widget utilizers index with the change of a single page.
+     * Only the utilizer lists of the widget types added to or removed from
+     * the page are touched; nothing is done if the index isn't built yet.
+     * @param cache the cache
+     * @param oldPage the previous version of the page, null if the page is new
+     * @param newPage the new version of the page, null if the page is removed
+     * @param draft true for the draft index, false for the online one
+     */
+    private void updateWidgetUtilizers(Cache cache, IPage oldPage, IPage newPage, boolean draft) {
+        Set<String> utilizerKeys = this.get(cache, WIDGET_UTILIZER_KEYS_CACHE_NAME, Set.class);
+        if (null == utilizerKeys || (null == oldPage && null == newPage)) {
+            return;
+        }
+        String pageCode = (null != newPage) ? newPage.getCode() : oldPage.getCode();
+        Set<String> oldTypeCodes = this.getWidgetTypeCodes(oldPage);
+        Set<String> newTypeCodes = this.getWidgetTypeCodes(newPage);
+        for (String widgetTypeCode : oldTypeCodes) {
+            if (newTypeCodes.contains(widgetTypeCode)) {
+                continue;
+            }
+            String key = this.getWidgetUtilizerCacheName(widgetTypeCode, draft);
+            List<String> pageCodes = this.getCopyOfListFromCache(cache, key);
+            if (null != pageCodes && pageCodes.remove(pageCode)) {
+                cache.put(key, pageCodes);
+            }
+        }
+        Set<String> newUtilizerKeys = null;
+        for (String widgetTypeCode : newTypeCodes) {
+            if (oldTypeCodes.contains(widgetTypeCode)) {
+                continue;
+            }
+            String key = this.getWidgetUtilizerCacheName(widgetTypeCode, draft);
+            List<String> pageCodes = this.getCopyOfListFromCache(cache, key);
+            if (null == pageCodes) {
+                pageCodes = new ArrayList<>();
+            }
+            if (!pageCodes.contains(pageCode)) {
+                pageCodes.add(pageCode);
+                cache.put(key, pageCodes);
+            }
+            if (!utilizerKeys.contains(key)) {
+                newUtilizerKeys = (null == newUtilizerKeys) ? new HashSet<>(utilizerKeys) : newUtilizerKeys;
+                newUtilizerKeys.add(key);
+            }
+        }
+        if (null != newUtilizerKeys) {
+            cache.put(WIDGET_UTILIZER_KEYS_CACHE_NAME, newUtilizerKeys);
+        }
+    }
+
+    private Set<String> getWidgetTypeCodes(IPage page) {
+        Set<String> typeCodes = new HashSet<>();
+        Widget[] widgets = (null != page) ? page.getWidgets() : null;
+        if (widgets != null) {
+            for (Widget widget : widgets) {
+                if (null != widget && null != widget.getTypeCode()) {
+                    typeCodes.add(widget.getTypeCode());
                 }
             }
         }
+        return typeCodes;
     }
 
     @Override
@@ -628,10 +768,11 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
         if (null != this.getOnlinePage(pageCode)) {
             this.updateNewParent(pageCode, newParentCode, false, cache);
         }
+        this.releaseOnlinePaths(cache);
     }
     
     private IPage updateOldParent(IPage pageToMove, boolean draft, Cache cache) {
-        IPage oldParent = (draft) ? this.getDraftPage(pageToMove.getParentCode()) : this.getOnlinePage(pageToMove.getParentCode());
+        IPage oldParent = (draft) ? this.getDraftPage(pageToMove.getParentCode()) : this.getOnlinePageToUpdate(pageToMove.getParentCode());
         if (null == oldParent) {
             return null;
         }
@@ -646,7 +787,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     }
     
     private void updatePositionAndParent(String pageCode, int newPosition, String newParent, boolean draft, Cache cache) {
-        IPage page = (draft) ? this.getDraftPage(pageCode) : this.getOnlinePage(pageCode);
+        IPage page = (draft) ? this.getDraftPage(pageCode) : this.getOnlinePageToUpdate(pageCode);
         if (null != page) {
             page.setPosition(newPosition);
             if (null != newParent) {
@@ -657,7 +798,7 @@ public class PageManagerCacheWrapper extends AbstractCacheWrapper implements IPa
     }
     
     private IPage updateNewParent(String pageToMoveCode, String newParentCode, boolean draft, Cache cache) {
-        IPage newParent = (draft) ? this.getDraftPage(newParentCode) : this.getOnlinePage(newParentCode);
+        IPage newParent = (draft) ? this.getDraftPage(newParentCode) : this.getOnlinePageToUpdate(newParentCode);
         if (null == newParent) {
             return null;
         }
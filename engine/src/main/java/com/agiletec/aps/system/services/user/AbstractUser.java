@@ -83,6 +83,7 @@ public abstract class AbstractUser implements UserDetails, Serializable {
         if (null == auth) return;
         if (!this.getAuthorizations().contains(auth)) {
             this.getAuthorizations().add(auth);
+            this.authorizationsVersion++;
         }
     }
 
@@ -115,6 +116,12 @@ public abstract class AbstractUser implements UserDetails, Serializable {
 
     public void setAuthorizations(List<Authorization> authorizations) {
         this.authorizations = authorizations;
+        this.authorizationsVersion++;
+    }
+
+    @Override
+    public long getAuthorizationsVersion() {
+        return authorizationsVersion;
     }
 
     @Override
@@ -155,5 +162,6 @@ public abstract class AbstractUser implements UserDetails, Serializable {
     private String refreshToken;
 
     private List<Authorization> authorizations = new ArrayList<>();
+    private volatile long authorizationsVersion;
 
 }
\ No newline at end of file
@@ -56,6 +56,17 @@ public interface UserDetails extends Serializable {
      */
     public void addAuthorizations(List<Authorization> auths);
 
+    /**
+     * Return the version of the authorizations of the current user; the version changes every time the
+     * authorizations are changed through addAuthorization, addAuthorizations or setAuthorizations.
+     * Changes made directly on the list returned by getAuthorizations are not tracked.
+     *
+     * @return The version of the authorizations, or -1 if the changes of the authorizations are not tracked
+     */
+    public default long getAuthorizationsVersion() {
+        return -1;
+    }
+
     /**
      * Return the plain password (that is, NOT decrypted) of the current user
      *
@@ -52,4 +52,13 @@ public class HeadInfoContainer implements Serializable {
         return this.container.get(type);
     }
 
+    /**
+     * Aggiunge al contenitore le informazioni del contenitore dato, mantenendone l'ordine.
+     *
+     * @param other Il contenitore da cui copiare le informazioni.
+     */
+    public void addAll(HeadInfoContainer other) {
+        other.container.forEach((type, infos) -> infos.forEach(info -> this.addInfo(type, info)));
+    }
+
 }
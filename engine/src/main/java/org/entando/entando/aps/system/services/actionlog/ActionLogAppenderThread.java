@@ -13,33 +13,30 @@
  */
 package org.entando.entando.aps.system.services.actionlog;
 
-import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Appends the records queued by the action log manager, in batches.
  * @author E.Santoboni
  */
 public class ActionLogAppenderThread extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(ActionLogAppenderThread.class);
 
-    private final ActionLogRecord actionRecordToAdd;
     private final ActionLogManager actionLogManager;
 
-    public ActionLogAppenderThread(ActionLogRecord actionRecordToAdd,
-            ActionLogManager actionLogManager) {
+    public ActionLogAppenderThread(ActionLogManager actionLogManager) {
         this.actionLogManager = actionLogManager;
-        this.actionRecordToAdd = actionRecordToAdd;
     }
 
     @Override
     public void run() {
         try {
-            this.actionLogManager.addActionRecordByThread(this.actionRecordToAdd);
+            this.actionLogManager.appendQueuedRecords();
         } catch (Throwable t) {
             logger.error("error in run", t);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -17,6 +17,7 @@ import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -41,6 +42,7 @@ import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecordAp
 import org.entando.entando.aps.system.services.actionlog.model.ActivityStreamInfo;
 import org.entando.entando.aps.system.services.actionlog.model.IActionLogRecordSearchBean;
 import org.entando.entando.aps.system.services.actionlog.model.IActivityStreamSearchBean;
+import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
 
@@ -101,22 +103,9 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
             conn = this.getConnection();
             conn.setAutoCommit(false);
             stat = conn.prepareStatement(ADD_ACTION_RECORD);
-            stat.setInt(1, actionRecord.getId());
-            stat.setString(2, actionRecord.getUsername());
-            Timestamp timestamp = new Timestamp(actionRecord.getActionDate().getTime());
-            stat.setTimestamp(3, timestamp);
-            stat.setString(4, actionRecord.getNamespace());
-            stat.setString(5, actionRecord.getActionName());
-            stat.setString(6, actionRecord.getParameters());
-            ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
-            if (null != asi) {
-                stat.setString(7, ActivityStreamInfoDOM.marshalInfo(asi));
-            } else {
-                stat.setNull(7, Types.VARCHAR);
-            }
-            stat.setTimestamp(8, timestamp);
+            this.setRecordParameters(stat, actionRecord);
             stat.executeUpdate();
-            this.addLogRecordRelations(actionRecord.getId(), asi, conn);
+            this.addLogRecordRelations(actionRecord.getId(), actionRecord.getActivityStreamInfo(), conn);
             conn.commit();
         } catch (Throwable t) {
             this.executeRollback(conn);
@@ -127,6 +116,68 @@ public class ActionLogDAO extends AbstractSearcherDAO implements IActionLogDAO {
         }
     }
 
+    @Override
+    public void addActionRecords(List<ActionLogRecord> actionRecords) {
+        Connection conn = null;
+        PreparedStatement stat = null;
+        PreparedStatement relationStat = null;
+        try {
+            conn = this.getConnection();
+            conn.setAutoCommit(false);
+            stat = conn.prepareStatement(ADD_ACTION_RECORD);
+            relationStat = conn.prepareStatement(ADD_LOG_RECORD_RELATION);
+            boolean hasRelations = false;
+            for (ActionLogRecord actionRecord : actionRecords) {
+                this.setRecordParameters(stat, actionRecord);
+                stat.addBatch();
+                stat.clearParameters();
+                ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
+                if (null != asi && null != asi.getGroups()) {
+                    for (String groupCode : new HashSet<>(asi.getGroups())) {
+                        relationStat.setInt(1, actionRecord.getId());
+                        relationStat.setString(2, groupCode);
+                        relationStat.addBatch();
+                        relationStat.clearParameters();
+                        hasRelations = true;
+                    }
+                }
+            }
+            stat.executeBatch();
+            if (hasRelations) {
+                relationStat.executeBatch();
+            }
+            conn.commit();
+        } catch (BatchUpdateException e) {
+            this.executeRollback(conn);
+            logger.error("Error on insert actionlogger records", e);
+            throw new RuntimeException("Error on insert actionlogger records", e.getNextException());
+        } catch (Throwable t) {
+            this.executeRollback(conn);
+            logger.error("Error on insert actionlogger records", t);
+            throw new RuntimeException("Error on insert actionlogger records", t);
+        } finally {
+            closeDaoResources(null, relationStat);
+            closeDaoResources(null, stat, conn);
+        }
+    }
+
+    private void setRecordParameters(PreparedStatement stat, ActionLogRecord actionRecord) throws SQLException, EntException {
+        stat.setInt(1, actionRecord.getId());
+        stat.setString(2, actionRecord.getUsername());
+        Timestamp timestamp = new Timestamp(actionRecord.getActionDate().getTime());
+        stat.setTimestamp(3, timestamp);
+        stat.setString(4, actionRecord.getNamespace());
+        stat.setString(5, actionRecord.getActionName());
+        stat.setString(6, actionRecord.getParameters());
+        ActivityStreamInfo asi = actionRecord.getActivityStreamInfo();
+        if (null != asi) {
+            stat.setString(7, ActivityStreamInfoDOM.marshalInfo(asi));
+        } else {
+            stat.setNull(7, Types.VARCHAR);
+        }
+        stat.setTimestamp(8, timestamp);
+    }
+
     private void addLogRecordRelations(int recordId, ActivityStreamInfo asi, Connection conn) {
         if (asi == null) {
             return;
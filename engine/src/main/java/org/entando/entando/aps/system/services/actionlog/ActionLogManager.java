@@ -14,9 +14,16 @@
 package org.entando.entando.aps.system.services.actionlog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import com.agiletec.aps.system.common.AbstractService;
 import com.agiletec.aps.system.common.FieldSearchFilter;
@@ -25,6 +32,7 @@ import org.entando.entando.ent.exception.EntException;
 import com.agiletec.aps.system.services.group.Group;
 import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorManager;
 import com.agiletec.aps.system.services.user.UserDetails;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import com.agiletec.aps.util.DateConverter;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
@@ -46,23 +54,64 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
 
     private static final EntLogger _logger = EntLogFactory.getSanitizedLogger(ActionLogManager.class);
 
+    private static final long APPENDER_STOP_TIMEOUT = 30000;
+    private static final QueuedRecord STOP_APPENDER = new QueuedRecord(null, null);
+
     private ManagerConfiguration _managerConfiguration;
 
     private IActionLogDAO _actionLogDAO;
     private IKeyGeneratorManager _keyGeneratorManager;
 
+    private int _queueCapacity = 10000;
+    private int _batchSize = 100;
+    private long _flushInterval = 200;
+
+    private BlockingQueue<QueuedRecord> _recordQueue;
+    private final Object _appenderLock = new Object();
+    private ActionLogAppenderThread _appender;
+
     @Override
     public void init() throws Exception {
+        if (null == this._recordQueue) {
+            this._recordQueue = new ArrayBlockingQueue<>(this.getQueueCapacity());
+        }
         _logger.debug("{} ready", this.getClass().getName());
     }
 
+    @Override
+    protected void release() {
+        this.flushQueuedRecords();
+        super.release();
+    }
+
+    @Override
+    public void destroy() {
+        this.flushQueuedRecords();
+        super.destroy();
+    }
+
+    /**
+     * Queue a record; the records are written in batches by an appender thread
+     * that is started on demand and ends when the queue stays empty for a flush interval.
+     * When the queue is full the record is written by the calling thread.
+     */
     @Override
     public void addActionRecord(ActionLogRecord actionRecord) throws EntException {
         try {
-            ActionLogAppenderThread thread = new ActionLogAppenderThread(actionRecord, this);
-            String threadName = LOG_APPENDER_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
-            thread.setName(threadName);
-            thread.start();
+            actionRecord.setActionDate(new Date());
+            QueuedRecord queuedRecord = new QueuedRecord(ApsTenantApplicationUtils.getTenant().orElse(null), actionRecord);
+            if (!this._recordQueue.offer(queuedRecord)) {
+                this.writeRecords(Collections.singletonList(queuedRecord));
+                return;
+            }
+            synchronized (this._appenderLock) {
+                if (null == this._appender || !this._appender.isAlive()) {
+                    this._appender = new ActionLogAppenderThread(this);
+                    String threadName = LOG_APPENDER_THREAD_NAME_PREFIX + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss");
+                    this._appender.setName(threadName);
+                    this._appender.start();
+                }
+            }
         } catch (Throwable t) {
             _logger.error("Error adding an actionlogger record", t);
             throw new EntException("Error adding an actionlogger record", t);
@@ -79,22 +128,138 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         }
     }
 
-    protected synchronized void addActionRecordByThread(ActionLogRecord actionRecord) throws EntException {
+    /**
+     * Write the queued records until the queue stays empty for a flush interval
+     * or the appender is stopped.
+     * A batch is written when it reaches the batch size or when its first record
+     * has been waiting for a flush interval.
+     */
+    protected void appendQueuedRecords() {
+        List<QueuedRecord> batch = new ArrayList<>(this.getBatchSize());
         try {
-            Integer key = null;
-            List<Integer> ids = null;
-            do {
-                key = this.getKeyGeneratorManager().getUniqueKeyCurrentValue();
-                FieldSearchFilter filter = new FieldSearchFilter("id", key, true);
-                FieldSearchFilter[] filters = {filter};
-                ids = this.getActionLogDAO().getActionRecords(filters);
-            } while (!ids.isEmpty());
-            actionRecord.setId(key);
-            actionRecord.setActionDate(new Date());
-            this.getActionLogDAO().addActionRecord(actionRecord);
+            boolean stop = false;
+            while (!stop) {
+                QueuedRecord first = this._recordQueue.poll(this.getFlushInterval(), TimeUnit.MILLISECONDS);
+                if (null == first) {
+                    synchronized (this._appenderLock) {
+                        if (this._recordQueue.isEmpty()) {
+                            this.clearAppender();
+                            return;
+                        }
+                    }
+                    continue;
+                }
+                stop = (first == STOP_APPENDER);
+                if (!stop) {
+                    batch.add(first);
+                }
+                long deadline = System.currentTimeMillis() + this.getFlushInterval();
+                while (!stop && batch.size() < this.getBatchSize()) {
+                    long wait = deadline - System.currentTimeMillis();
+                    QueuedRecord next = (wait > 0) ? this._recordQueue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (null == next) {
+                        break;
+                    }
+                    stop = (next == STOP_APPENDER);
+                    if (!stop) {
+                        batch.add(next);
+                    }
+                }
+                this.writeRecords(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.writeRecords(batch);
+        } finally {
+            synchronized (this._appenderLock) {
+                this.clearAppender();
+            }
+        }
+    }
+
+    private void clearAppender() {
+        if (this._appender == Thread.currentThread()) {
+            this._appender = null;
+        }
+    }
+
+    /**
+     * Stop the running appender, letting it write the records it already took,
+     * and write the records left in the queue.
+     */
+    private void flushQueuedRecords() {
+        if (null == this._recordQueue) {
+            return;
+        }
+        ActionLogAppenderThread appender;
+        synchronized (this._appenderLock) {
+            appender = this._appender;
+        }
+        try {
+            if (null != appender && appender.isAlive()
+                    && this._recordQueue.offer(STOP_APPENDER, APPENDER_STOP_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                appender.join(APPENDER_STOP_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<QueuedRecord> records = new ArrayList<>();
+        this._recordQueue.drainTo(records);
+        records.removeIf(r -> r == STOP_APPENDER);
+        this.writeRecords(records);
+    }
+
+    private void writeRecords(List<QueuedRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<String, List<ActionLogRecord>> recordsByTenant = new LinkedHashMap<>();
+        records.forEach(r -> recordsByTenant.computeIfAbsent(r.getTenantCode(), k -> new ArrayList<>()).add(r.getRecord()));
+        Optional<String> currentTenant = ApsTenantApplicationUtils.getTenant();
+        try {
+            for (Map.Entry<String, List<ActionLogRecord>> entry : recordsByTenant.entrySet()) {
+                if (null != entry.getKey()) {
+                    ApsTenantApplicationUtils.setTenant(entry.getKey());
+                } else {
+                    ApsTenantApplicationUtils.removeTenant();
+                }
+                this.writeRecordBatch(entry.getValue());
+            }
+        } finally {
+            currentTenant.ifPresentOrElse(ApsTenantApplicationUtils::setTenant, ApsTenantApplicationUtils::removeTenant);
+        }
+    }
+
+    private void writeRecordBatch(List<ActionLogRecord> records) {
+        try {
+            this.assignRecordIds(records);
+            this.getActionLogDAO().addActionRecords(records);
         } catch (Throwable t) {
-            _logger.error("Error adding an actionlogger record", t);
-            throw new EntException("Error adding an actionlogger record", t);
+            _logger.error("Error adding a batch of {} actionlogger records, adding them one by one", records.size(), t);
+            for (ActionLogRecord actionRecord : records) {
+                try {
+                    this.assignRecordIds(Collections.singletonList(actionRecord));
+                    this.getActionLogDAO().addActionRecord(actionRecord);
+                } catch (Throwable tr) {
+                    _logger.error("Error adding an actionlogger record", tr);
+                }
+            }
+        }
+    }
+
+    private void assignRecordIds(List<ActionLogRecord> records) throws EntException {
+        List<ActionLogRecord> toAssign = records;
+        while (!toAssign.isEmpty()) {
+            List<Integer> keys = new ArrayList<>();
+            for (ActionLogRecord actionRecord : toAssign) {
+                actionRecord.setId(this.getKeyGeneratorManager().getUniqueKeyCurrentValue());
+                keys.add(actionRecord.getId());
+            }
+            FieldSearchFilter<Integer> filter = new FieldSearchFilter<>("id", keys, false);
+            FieldSearchFilter[] filters = {filter};
+            List<Integer> usedIds = this.getActionLogDAO().getActionRecords(filters);
+            toAssign = toAssign.stream().filter(r -> usedIds.contains(r.getId())).collect(Collectors.toList());
         }
     }
 
@@ -265,6 +430,30 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         this._actionLogDAO = actionLogDAO;
     }
 
+    protected int getQueueCapacity() {
+        return _queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this._queueCapacity = queueCapacity;
+    }
+
+    protected int getBatchSize() {
+        return _batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this._batchSize = batchSize;
+    }
+
+    protected long getFlushInterval() {
+        return _flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this._flushInterval = flushInterval;
+    }
+
     protected IKeyGeneratorManager getKeyGeneratorManager() {
         return _keyGeneratorManager;
     }
@@ -273,4 +462,23 @@ public class ActionLogManager extends AbstractService implements IActionLogManag
         this._keyGeneratorManager = keyGeneratorManager;
     }
 
+    private static final class QueuedRecord {
+
+        private final String tenantCode;
+        private final ActionLogRecord record;
+
+        private QueuedRecord(String tenantCode, ActionLogRecord record) {
+            this.tenantCode = tenantCode;
+            this.record = record;
+        }
+
+        private String getTenantCode() {
+            return tenantCode;
+        }
+
+        private ActionLogRecord getRecord() {
+            return record;
+        }
+    }
+
 }
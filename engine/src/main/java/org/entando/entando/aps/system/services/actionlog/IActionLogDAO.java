@@ -37,6 +37,12 @@ public interface IActionLogDAO {
 	
 	public void addActionRecord(ActionLogRecord actionRecord);
 	
+	/**
+	 * Add a list of records (with their activity stream relations) in a single transaction.
+	 * @param actionRecords The records to add.
+	 */
+	public void addActionRecords(List<ActionLogRecord> actionRecords);
+	
 	public ActionLogRecord getActionRecord(int id);
 	
 	public void deleteActionRecord(int id);
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-Present Entando S.r.l. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Local cache backed by a bounded store: entries are evicted when the configured
+ * maximum size (or weight) is reached or when their time-to-live elapses.
+ * Lookups are routed through the native store so that hit, miss and eviction
+ * statistics are recorded.
+ */
+public class BoundedConcurrentMapCache extends CustomConcurrentMapCache {
+
+    private final Cache<Object, Object> nativeStore;
+
+    public BoundedConcurrentMapCache(String name, Cache<Object, Object> nativeStore, boolean allowNullValues) {
+        super(name, nativeStore.asMap(), allowNullValues);
+        this.nativeStore = nativeStore;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return this.nativeStore.getIfPresent(key);
+    }
+
+    /**
+     * Return the statistics (hits, misses, evictions) of the cache.
+     * Counters are always zero if statistics recording is disabled.
+     * @return the statistics of the cache
+     */
+    public CacheStats getStats() {
+        return this.nativeStore.stats();
+    }
+
+    /**
+     * Return the approximate number of entries of the cache.
+     * @return the number of entries
+     */
+    public long getEstimatedSize() {
+        return this.nativeStore.size();
+    }
+
+    /**
+     * Perform any pending maintenance (expired entries removal).
+     */
+    public void cleanUp() {
+        this.nativeStore.cleanUp();
+    }
+
+}
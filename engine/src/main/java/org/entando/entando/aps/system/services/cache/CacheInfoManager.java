@@ -18,18 +18,26 @@ import com.agiletec.aps.system.common.AbstractService;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.page.events.PageChangedEvent;
 import com.agiletec.aps.system.services.page.events.PageChangedObserver;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import com.google.common.util.concurrent.Striped;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.aps.system.services.tenants.RefreshableBeanTenantAware;
 import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.entando.entando.ent.util.EntLogging.EntLogFactory;
@@ -38,7 +46,11 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
 /**
- * Manager of the System Cache
+ * Manager of the System Cache.
+ * The keys of every group are stored in the cache info cache; updates of a group
+ * are serialized by a lock held by this instance, so on distributed caches two
+ * nodes tagging the same group at the same time can still lose a key, and
+ * flushAll/getGroupSizes only see the groups created by this node.
  *
  * @author E.Santoboni
  */
@@ -47,16 +59,54 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
 
     private static final EntLogger logger = EntLogFactory.getSanitizedLogger(CacheInfoManager.class);
 
+    private static final String EXPIRATION_SWEEPER_THREAD_NAME = "CACHE_INFO_EXPIRATION_SWEEPER";
+
+    private static final Striped<Lock> groupLocks = Striped.lazyWeakLock(64);
+
     private CacheManager springCacheManager;
 
+    private final Map<String, Map<String, Set<String>>> groupsByCache = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, Map<String, Long>>> expirationsByCache = new ConcurrentHashMap<>();
+
+    private transient ScheduledExecutorService scheduler = null;
+
+    private int expirationSweepIntervalSeconds = 60;
+
     @Override
     public void init() throws Exception {
+        this.startExpirationSweeper();
         logger.debug("{} (cache info service initialized) ready", this.getClass().getName());
     }
 
+    /**
+     * Start the background sweeper of the expired entries, shared by all the tenants;
+     * it is stopped only when the service is destroyed.
+     */
+    private synchronized void startExpirationSweeper() {
+        if (null != this.scheduler || this.getExpirationSweepIntervalSeconds() <= 0) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, EXPIRATION_SWEEPER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sweepExpiredEntries,
+                this.getExpirationSweepIntervalSeconds(), this.getExpirationSweepIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    private synchronized void stopExpirationSweeper() {
+        if (null != this.scheduler) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
     @Override
     public void releaseTenantAware() {
-        this.destroy();
+        this.flushAll(CACHE_INFO_MANAGER_CACHE_NAME);
+        this.flushAll(DEFAULT_CACHE_NAME);
     }
 
     @Override
@@ -74,12 +124,9 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
     @Override
     public void setExpirationTime(String targetCache, String key, Date expirationTime) {
         Cache cache = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
-        Map<String, Date> expirationTimes = this.get(cache, EXPIRATIONS_CACHE_NAME_PREFIX + targetCache, Map.class);
-        if (null == expirationTimes) {
-            expirationTimes = new HashMap<String, Date>();
-        }
-        expirationTimes.put(key, expirationTime);
-        cache.put(EXPIRATIONS_CACHE_NAME_PREFIX + targetCache, expirationTimes);
+        cache.put(this.getExpirationCacheKey(targetCache, key), expirationTime);
+        this.getTenantMap(this.expirationsByCache).computeIfAbsent(this.checkCacheName(targetCache), c -> new ConcurrentHashMap<>())
+                .put(key, expirationTime.getTime());
     }
 
     @Override
@@ -99,8 +146,8 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
 
     @Override
     public void destroy() {
-        this.flushAll(CACHE_INFO_MANAGER_CACHE_NAME);
-        this.flushAll(DEFAULT_CACHE_NAME);
+        this.stopExpirationSweeper();
+        this.releaseTenantAware();
         super.destroy();
     }
 
@@ -115,7 +162,18 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
 
     public void flushAll(String cacheName) {
         Cache cacheOfGroup = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
-        cacheOfGroup.evict(GROUP_CACHE_NAME_PREFIX + cacheName);
+        Set<String> groups = this.getTenantMap(this.groupsByCache).remove(this.checkCacheName(cacheName));
+        if (null != groups) {
+            for (String group : groups) {
+                cacheOfGroup.evict(this.getGroupCacheKey(cacheName, group));
+            }
+        }
+        Map<String, Long> expirations = this.getTenantMap(this.expirationsByCache).remove(this.checkCacheName(cacheName));
+        if (null != expirations) {
+            for (String key : expirations.keySet()) {
+                cacheOfGroup.evict(this.getExpirationCacheKey(cacheName, key));
+            }
+        }
         Cache cache = this.getCache(cacheName);
         cache.clear();
     }
@@ -141,64 +199,109 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
     public void putInCache(String targetCache, String key, Object obj, String[] groups) {
         Cache cache = this.getCache(targetCache);
         cache.put(key, obj);
-        this.accessOnGroupMapping(targetCache, 1, groups, key);
+        this.addToGroups(targetCache, key, groups);
     }
 
     @Override
     public void putInGroup(String targetCache, String key, String[] groups) {
-        this.accessOnGroupMapping(targetCache, 1, groups, key);
+        this.addToGroups(targetCache, key, groups);
     }
 
     @Override
     public void flushGroup(String targetCache, String group) {
-        String[] groups = {group};
-        this.accessOnGroupMapping(targetCache, -1, groups, null);
-    }
-
-    protected synchronized void accessOnGroupMapping(String targetCache, int operationId, String[] groups, String key) {
         Cache cache = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
-        Map<String, List<String>> objectsByGroup = this.get(cache, GROUP_CACHE_NAME_PREFIX + targetCache, Map.class);
-        if (objectsByGroup != null) {
-            objectsByGroup = new HashMap<>(objectsByGroup);
-        }
-        boolean updateMapInCache = false;
-        if (operationId > 0) {
-            //add
-            if (null == objectsByGroup) {
-                objectsByGroup = new HashMap<>();
+        String groupKey = this.getGroupCacheKey(targetCache, group);
+        Set<String> objectKeys;
+        Lock lock = this.getGroupLock(groupKey);
+        lock.lock();
+        try {
+            objectKeys = this.get(cache, groupKey, Set.class);
+            if (null == objectKeys) {
+                return;
             }
+            cache.evict(groupKey);
+        } finally {
+            lock.unlock();
+        }
+        this.flushEntries(targetCache, objectKeys);
+    }
+
+    @Override
+    public int getGroupSize(String targetCache, String group) {
+        Set<String> objectKeys = this.get(this.getGroupCacheKey(targetCache, group), Set.class);
+        return (null != objectKeys) ? objectKeys.size() : 0;
+    }
+
+    /**
+     * Return the number of keys mapped by every group of the given cache
+     * known by this instance.
+     *
+     * @param targetCache The cache name
+     * @return the size of the groups, mapped by group name
+     */
+    public Map<String, Integer> getGroupSizes(String targetCache) {
+        Map<String, Integer> sizes = new HashMap<>();
+        Set<String> groups = this.getTenantMap(this.groupsByCache).get(this.checkCacheName(targetCache));
+        if (null != groups) {
             for (String group : groups) {
-                List<String> objectKeys = objectsByGroup.get(group);
+                sizes.put(group, this.getGroupSize(targetCache, group));
+            }
+        }
+        return sizes;
+    }
+
+    protected void addToGroups(String targetCache, String key, String[] groups) {
+        if (null == groups || null == key) {
+            return;
+        }
+        Cache cache = this.getCache(CACHE_INFO_MANAGER_CACHE_NAME);
+        for (String group : groups) {
+            String groupKey = this.getGroupCacheKey(targetCache, group);
+            Lock lock = this.getGroupLock(groupKey);
+            lock.lock();
+            try {
+                Set<String> objectKeys = this.get(cache, groupKey, Set.class);
                 if (null == objectKeys) {
-                    objectKeys = new ArrayList<>();
-                    objectsByGroup.put(group, objectKeys);
+                    Set<String> newObjectKeys = ConcurrentHashMap.newKeySet();
+                    Cache.ValueWrapper existing = cache.putIfAbsent(groupKey, newObjectKeys);
+                    objectKeys = (null != existing && null != existing.get()) ? (Set<String>) existing.get() : newObjectKeys;
+                    this.getTenantMap(this.groupsByCache).computeIfAbsent(this.checkCacheName(targetCache), c -> ConcurrentHashMap.newKeySet()).add(group);
                 }
-                if (!objectKeys.contains(key)) {
-                    objectKeys.add(key);
-                    updateMapInCache = true;
-                }
-            }
-        } else {
-            //remove
-            if (null == objectsByGroup) {
-                return;
-            }
-            for (String group : groups) {
-                List<String> objectKeys = objectsByGroup.get(group);
-                if (null != objectKeys) {
-                    for (String extractedKey : objectKeys) {
-                        this.flushEntry(targetCache, extractedKey);
-                    }
-                    objectsByGroup.remove(group);
-                    updateMapInCache = true;
+                if (objectKeys.add(key)) {
+                    // required by the distributed caches, where the extracted set is a copy
+                    cache.put(groupKey, objectKeys);
                 }
+            } finally {
+                lock.unlock();
             }
         }
-        if (updateMapInCache) {
-            cache.put(GROUP_CACHE_NAME_PREFIX + targetCache, objectsByGroup);
+    }
+
+    private Lock getGroupLock(String groupKey) {
+        String tenantCode = ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+        return groupLocks.get(tenantCode + "_" + groupKey);
+    }
+
+    protected void flushEntries(String targetCache, Collection<String> keys) {
+        Cache cache = this.getCache(targetCache);
+        for (String key : keys) {
+            cache.evict(key);
         }
     }
 
+    protected String getGroupCacheKey(String targetCache, String group) {
+        return GROUP_CACHE_NAME_PREFIX + this.checkCacheName(targetCache) + "_" + group;
+    }
+
+    private <V> Map<String, V> getTenantMap(Map<String, Map<String, V>> mapsByTenant) {
+        String tenantCode = ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+        return mapsByTenant.computeIfAbsent(tenantCode, t -> new ConcurrentHashMap<>());
+    }
+
+    private String checkCacheName(String cacheName) {
+        return StringUtils.isBlank(cacheName) ? DEFAULT_CACHE_NAME : cacheName;
+    }
+
     protected Collection<Cache> getCaches() {
         Collection<Cache> caches = new ArrayList<Cache>();
         Iterator<String> iter = this.getSpringCacheManager().getCacheNames().iterator();
@@ -218,25 +321,73 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         if (StringUtils.isBlank(targetCache)) {
             targetCache = DEFAULT_CACHE_NAME;
         }
-        Map<String, Date> expirationTimes = this.get(EXPIRATIONS_CACHE_NAME_PREFIX + targetCache, Map.class);
-        if (null == expirationTimes) {
-            return false;
-        }
-        Date expirationTime = expirationTimes.get(key);
+        Date expirationTime = this.get(this.getExpirationCacheKey(targetCache, key), Date.class);
         if (null == expirationTime) {
             return false;
         }
         if (expirationTime.before(new Date())) {
             logger.debug("Key {} of cache {} is expired", key, targetCache);
-            Map<String, Date> newExpirationTimes = new HashMap<>(expirationTimes);
-            newExpirationTimes.remove(key);
-            this.putInCache(CACHE_INFO_MANAGER_CACHE_NAME, EXPIRATIONS_CACHE_NAME_PREFIX + targetCache, newExpirationTimes);
+            this.removeExpiration(targetCache, key);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Evict the expired entries whose expiration time was set by this instance.
+     * Entries whose expiration was postponed (i.e. by another node) are only rescheduled.
+     */
+    protected void sweepExpiredEntries() {
+        for (Map.Entry<String, Map<String, Map<String, Long>>> tenantExpirations : this.expirationsByCache.entrySet()) {
+            String tenantCode = tenantExpirations.getKey();
+            try {
+                if (!ITenantManager.PRIMARY_CODE.equals(tenantCode)) {
+                    ApsTenantApplicationUtils.setTenant(tenantCode);
+                }
+                this.sweepExpiredEntries(tenantExpirations.getValue());
+            } catch (Exception e) {
+                logger.error("Error sweeping expired cache entries of tenant {}", tenantCode, e);
+            } finally {
+                ApsTenantApplicationUtils.removeTenant();
+            }
+        }
+    }
+
+    private void sweepExpiredEntries(Map<String, Map<String, Long>> expirationsByTargetCache) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Map<String, Long>> cacheExpirations : expirationsByTargetCache.entrySet()) {
+            String targetCache = cacheExpirations.getKey();
+            for (Map.Entry<String, Long> expiration : cacheExpirations.getValue().entrySet()) {
+                if (expiration.getValue() >= now) {
+                    continue;
+                }
+                String key = expiration.getKey();
+                Date expirationTime = this.get(this.getExpirationCacheKey(targetCache, key), Date.class);
+                if (null == expirationTime) {
+                    cacheExpirations.getValue().remove(key, expiration.getValue());
+                } else if (expirationTime.getTime() < now) {
+                    this.removeExpiration(targetCache, key);
+                    this.flushEntry(targetCache, key);
+                } else {
+                    cacheExpirations.getValue().replace(key, expiration.getValue(), expirationTime.getTime());
+                }
+            }
+        }
+    }
+
+    protected void removeExpiration(String targetCache, String key) {
+        this.getCache(CACHE_INFO_MANAGER_CACHE_NAME).evict(this.getExpirationCacheKey(targetCache, key));
+        Map<String, Long> expirations = this.getTenantMap(this.expirationsByCache).get(this.checkCacheName(targetCache));
+        if (null != expirations) {
+            expirations.remove(key);
+        }
+    }
+
+    protected String getExpirationCacheKey(String targetCache, String key) {
+        return EXPIRATIONS_CACHE_NAME_PREFIX + this.checkCacheName(targetCache) + "_" + key;
+    }
+
     protected Cache getCache(String cacheName) {
         if (StringUtils.isBlank(cacheName)) {
             cacheName = DEFAULT_CACHE_NAME;
@@ -280,6 +431,13 @@ public class CacheInfoManager extends AbstractService implements ICacheInfoManag
         this.springCacheManager = springCacheManager;
     }
 
+    protected int getExpirationSweepIntervalSeconds() {
+        return expirationSweepIntervalSeconds;
+    }
+    public void setExpirationSweepIntervalSeconds(int expirationSweepIntervalSeconds) {
+        this.expirationSweepIntervalSeconds = expirationSweepIntervalSeconds;
+    }
+
     protected String getCacheName() {
         return CACHE_INFO_MANAGER_CACHE_NAME;
     }
@@ -13,8 +13,13 @@
  */
 package org.entando.entando.aps.system.services.cache;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+import org.entando.entando.ent.util.EntLogging.EntLogFactory;
+import org.entando.entando.ent.util.EntLogging.EntLogger;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
@@ -24,6 +29,8 @@ import org.springframework.util.StringUtils;
 
 public class CustomConcurrentMapCacheFactoryBean implements FactoryBean<CustomConcurrentMapCache>, BeanNameAware, InitializingBean {
 
+	private static final EntLogger logger = EntLogFactory.getSanitizedLogger(CustomConcurrentMapCacheFactoryBean.class);
+
 	private String name = "";
 
 	@Nullable
@@ -31,6 +38,19 @@ public class CustomConcurrentMapCacheFactoryBean implements FactoryBean<CustomCo
 
 	private boolean allowNullValues = true;
 
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private Weigher<Object, Object> weigher;
+
+	private long expireAfterWriteSeconds = -1;
+
+	private long expireAfterAccessSeconds = -1;
+
+	private boolean recordStats = true;
+
 	@Nullable
 	private CustomConcurrentMapCache cache;
 
@@ -64,6 +84,63 @@ public class CustomConcurrentMapCacheFactoryBean implements FactoryBean<CustomCo
 		this.allowNullValues = allowNullValues;
 	}
 
+	/**
+	 * Specify the maximum number of entries of the cache.
+	 * When a bound (size, weight or time-to-live) is set the cache is backed
+	 * by a {@link BoundedConcurrentMapCache} and the configured store is ignored.
+	 * <p>Default is "-1" (unbounded).
+	 * @param maximumSize the maximum number of entries
+	 */
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Specify the maximum weight of the entries of the cache;
+	 * it's alternative to the maximum size.
+	 * <p>Default is "-1" (unbounded).
+	 * @param maximumWeight the maximum weight
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+	}
+
+	/**
+	 * Specify the weigher used to compute the weight of the entries.
+	 * <p>Default weights every entry as "1".
+	 * @param weigher the weigher to set
+	 */
+	public void setWeigher(Weigher<Object, Object> weigher) {
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Specify the time-to-live of the entries, starting from their last write.
+	 * <p>Default is "-1" (no expiration).
+	 * @param expireAfterWriteSeconds the time-to-live in seconds
+	 */
+	public void setExpireAfterWriteSeconds(long expireAfterWriteSeconds) {
+		this.expireAfterWriteSeconds = expireAfterWriteSeconds;
+	}
+
+	/**
+	 * Specify the time-to-idle of the entries, starting from their last access.
+	 * <p>Default is "-1" (no expiration).
+	 * @param expireAfterAccessSeconds the time-to-idle in seconds
+	 */
+	public void setExpireAfterAccessSeconds(long expireAfterAccessSeconds) {
+		this.expireAfterAccessSeconds = expireAfterAccessSeconds;
+	}
+
+	/**
+	 * Set whether to record hit, miss and eviction statistics of a bounded cache.
+	 * <p>Default is "true".
+	 * @param recordStats the value to set
+	 */
+	public void setRecordStats(boolean recordStats) {
+		this.recordStats = recordStats;
+	}
+
 	@Override
 	public void setBeanName(String beanName) {
 		if (!StringUtils.hasLength(this.name)) {
@@ -73,10 +150,42 @@ public class CustomConcurrentMapCacheFactoryBean implements FactoryBean<CustomCo
 
 	@Override
 	public void afterPropertiesSet() {
+		if (this.isBounded()) {
+			if (null != this.store) {
+				logger.debug("Cache '{}' is bounded - the configured store will be ignored", this.name);
+			}
+			this.cache = new BoundedConcurrentMapCache(this.name, this.buildNativeStore(), this.allowNullValues);
+			return;
+		}
 		this.cache = (this.store != null ? new CustomConcurrentMapCache(this.name, this.store, this.allowNullValues) :
 				new CustomConcurrentMapCache(this.name, this.allowNullValues));
 	}
     
+	protected boolean isBounded() {
+		return (this.maximumSize >= 0 || this.maximumWeight >= 0
+				|| this.expireAfterWriteSeconds > 0 || this.expireAfterAccessSeconds > 0);
+	}
+
+	protected com.google.common.cache.Cache<Object, Object> buildNativeStore() {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+		if (this.maximumWeight >= 0) {
+			Weigher<Object, Object> entryWeigher = (null != this.weigher) ? this.weigher : (k, v) -> 1;
+			builder.maximumWeight(this.maximumWeight).weigher(entryWeigher);
+		} else if (this.maximumSize >= 0) {
+			builder.maximumSize(this.maximumSize);
+		}
+		if (this.expireAfterWriteSeconds > 0) {
+			builder.expireAfterWrite(this.expireAfterWriteSeconds, TimeUnit.SECONDS);
+		}
+		if (this.expireAfterAccessSeconds > 0) {
+			builder.expireAfterAccess(this.expireAfterAccessSeconds, TimeUnit.SECONDS);
+		}
+		if (this.recordStats) {
+			builder.recordStats();
+		}
+		return builder.build();
+	}
+
 	@Override
 	@Nullable
 	public CustomConcurrentMapCache getObject() {
@@ -13,9 +13,12 @@
  */
 package org.entando.entando.aps.system.services.cache;
 
+import com.google.common.cache.CacheStats;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.support.AbstractCacheManager;
@@ -56,6 +59,22 @@ public class EntandoCacheManager extends AbstractCacheManager {
         return this.caches;
     }
 
+    /**
+     * Return the statistics of the bounded caches, mapped by cache name.
+     *
+     * @return the statistics of the bounded caches
+     */
+    public Map<String, CacheStats> getBoundedCachesStats() {
+        Map<String, CacheStats> stats = new HashMap<>();
+        for (String cacheName : this.getCacheNames()) {
+            Cache cache = this.getCache(cacheName);
+            if (cache instanceof BoundedConcurrentMapCache) {
+                stats.put(cacheName, ((BoundedConcurrentMapCache) cache).getStats());
+            }
+        }
+        return stats;
+    }
+
     protected List<ExternalCachesContainer> getExternalCachesContainers() {
         return externalCachesContainers;
     }
@@ -44,6 +44,8 @@ public interface ICacheInfoManager {
 	public void flushGroup(String targetCache, String group);
 
 	public void putInGroup(String targetCache, String key, String[] groups);
+
+	public int getGroupSize(String targetCache, String group);
     
     public void setExpirationTime(String targetCache, String key, int expiresInMinute);
     
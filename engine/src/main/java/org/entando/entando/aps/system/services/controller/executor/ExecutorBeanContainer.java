@@ -28,7 +28,9 @@ public class ExecutorBeanContainer {
     private final TemplateModel templateModel;
 
     public ExecutorBeanContainer(Configuration configuration, TemplateModel templateModel) {
-        configuration.setNewBuiltinClassResolver(TemplateClassResolver.SAFER_RESOLVER);
+        if (configuration.getNewBuiltinClassResolver() != TemplateClassResolver.SAFER_RESOLVER) {
+            configuration.setNewBuiltinClassResolver(TemplateClassResolver.SAFER_RESOLVER);
+        }
         this.configuration = configuration;
         this.templateModel = templateModel;
     }
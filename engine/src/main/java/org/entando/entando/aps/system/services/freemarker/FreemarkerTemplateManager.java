@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.common.AbstractService;
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedObserver;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import freemarker.core.TemplateClassResolver;
+import freemarker.template.Configuration;
+import freemarker.template.DefaultObjectWrapper;
+import freemarker.template.Template;
+import freemarker.template.TemplateExceptionHandler;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedObserver;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
+import org.entando.entando.aps.system.services.tenants.RefreshableBeanTenantAware;
+import org.entando.entando.aps.system.services.widgettype.events.WidgetTypeChangedEvent;
+import org.entando.entando.aps.system.services.widgettype.events.WidgetTypeChangedObserver;
+import org.entando.entando.ent.exception.EntException;
+import org.entando.entando.ent.util.EntLogging.EntLogFactory;
+import org.entando.entando.ent.util.EntLogging.EntLogger;
+
+/**
+ * Manager of the FreeMarker configurations used by the portal.
+ * A single configuration is built for every tenant; the parsed templates are
+ * held by its template cache and evicted when the related fragment or widget changes.
+ */
+public class FreemarkerTemplateManager extends AbstractService implements IFreemarkerTemplateManager,
+        GuiFragmentChangedObserver, WidgetTypeChangedObserver, PageModelChangedObserver, RefreshableBeanTenantAware {
+
+    private static final EntLogger logger = EntLogFactory.getSanitizedLogger(FreemarkerTemplateManager.class);
+
+    private transient IGuiFragmentManager guiFragmentManager;
+
+    private long templateUpdateDelaySeconds = 60;
+
+    private final Map<String, Configuration> configurations = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, ParsedTemplate>> pageModelTemplates = new ConcurrentHashMap<>();
+
+    @Override
+    public void init() throws Exception {
+        logger.debug("{} ready", this.getClass().getName());
+    }
+
+    @Override
+    public void releaseTenantAware() {
+        this.pageModelTemplates.remove(this.getTenantCode());
+        this.configurations.remove(this.getTenantCode());
+    }
+
+    @Override
+    protected void release() {
+        this.releaseTenantAware();
+    }
+
+    @Override
+    public void destroy() {
+        this.pageModelTemplates.clear();
+        this.configurations.clear();
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        return this.configurations.computeIfAbsent(this.getTenantCode(), code -> this.createConfiguration());
+    }
+
+    @Override
+    public Template getPageModelTemplate(PageModel pageModel) throws IOException {
+        Map<String, ParsedTemplate> templates = this.pageModelTemplates.computeIfAbsent(this.getTenantCode(), code -> new ConcurrentHashMap<>());
+        String source = pageModel.getTemplate();
+        ParsedTemplate parsed = templates.get(pageModel.getCode());
+        if (null == parsed || !parsed.isParsedFrom(source)) {
+            Template template = new Template(pageModel.getCode(), new StringReader(source), this.getConfiguration());
+            parsed = new ParsedTemplate(source, template);
+            templates.put(pageModel.getCode(), parsed);
+        }
+        return parsed.getTemplate();
+    }
+
+    @Override
+    public Template getGuiFragmentTemplate(String code) throws IOException {
+        return this.getConfiguration().getTemplate(code);
+    }
+
+    protected Configuration createConfiguration() {
+        Configuration config = new Configuration();
+        config.setObjectWrapper(new DefaultObjectWrapper());
+        config.setTemplateExceptionHandler(TemplateExceptionHandler.DEBUG_HANDLER);
+        config.setTemplateLoader(new GuiFragmentTemplateLoader(this.getGuiFragmentManager()));
+        config.setLocalizedLookup(false);
+        config.setTemplateUpdateDelayMilliseconds(this.getTemplateUpdateDelaySeconds() * 1000);
+        config.setNewBuiltinClassResolver(TemplateClassResolver.SAFER_RESOLVER);
+        return config;
+    }
+
+    @Override
+    public void updateFromGuiFragmentChanged(GuiFragmentChangedEvent event) {
+        GuiFragment fragment = event.getGuiFragment();
+        if (null != fragment) {
+            this.removeTemplate(fragment.getCode());
+        }
+    }
+
+    @Override
+    public void updateFromPageModelChanged(PageModelChangedEvent event) {
+        PageModel pageModel = event.getPageModel();
+        Map<String, ParsedTemplate> templates = this.pageModelTemplates.get(this.getTenantCode());
+        if (null != pageModel && null != templates) {
+            templates.remove(pageModel.getCode());
+        }
+    }
+
+    @Override
+    public void updateFromShowletTypeChanged(WidgetTypeChangedEvent event) {
+        try {
+            List<String> fragmentCodes = this.getGuiFragmentManager().getGuiFragmentCodesByWidgetType(event.getWidgetTypeCode());
+            if (null != fragmentCodes) {
+                fragmentCodes.forEach(this::removeTemplate);
+            }
+        } catch (EntException e) {
+            logger.error("Error evicting templates of widget type '{}'", event.getWidgetTypeCode(), e);
+        }
+    }
+
+    protected void removeTemplate(String name) {
+        Configuration config = this.configurations.get(this.getTenantCode());
+        if (null == config) {
+            return;
+        }
+        try {
+            config.removeTemplateFromCache(name);
+        } catch (IOException e) {
+            logger.error("Error evicting template '{}'", name, e);
+        }
+    }
+
+    protected String getTenantCode() {
+        return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+    }
+
+    protected IGuiFragmentManager getGuiFragmentManager() {
+        return guiFragmentManager;
+    }
+    public void setGuiFragmentManager(IGuiFragmentManager guiFragmentManager) {
+        this.guiFragmentManager = guiFragmentManager;
+    }
+
+    protected long getTemplateUpdateDelaySeconds() {
+        return templateUpdateDelaySeconds;
+    }
+    public void setTemplateUpdateDelaySeconds(long templateUpdateDelaySeconds) {
+        this.templateUpdateDelaySeconds = templateUpdateDelaySeconds;
+    }
+
+    /**
+     * A compiled template with the source it was parsed from;
+     * the source acts as version of the template.
+     */
+    private static final class ParsedTemplate {
+
+        private final String source;
+        private final Template template;
+
+        private ParsedTemplate(String source, Template template) {
+            this.source = source;
+            this.template = template;
+        }
+
+        private boolean isParsedFrom(String otherSource) {
+            return Objects.equals(this.source, otherSource);
+        }
+
+        private Template getTemplate() {
+            return template;
+        }
+
+    }
+
+}
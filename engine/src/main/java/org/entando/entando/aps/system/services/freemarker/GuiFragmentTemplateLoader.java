@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import freemarker.cache.TemplateLoader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
+
+/**
+ * Template loader that resolves the templates by gui fragment code.
+ * The template source is the current gui of the fragment; its hash is used as
+ * last modification value so that a changed fragment is detected and reloaded
+ * by the template cache.
+ */
+public class GuiFragmentTemplateLoader implements TemplateLoader {
+
+    private IGuiFragmentManager guiFragmentManager;
+
+    public GuiFragmentTemplateLoader(IGuiFragmentManager guiFragmentManager) {
+        this.guiFragmentManager = guiFragmentManager;
+    }
+
+    @Override
+    public Object findTemplateSource(String code) throws IOException {
+        try {
+            GuiFragment fragment = this.guiFragmentManager.getGuiFragment(code);
+            if (null != fragment) {
+                return fragment.getCurrentGui();
+            }
+            return null;
+        } catch (Exception e) {
+            throw new IOException("Error extracting fragment " + code, e);
+        }
+    }
+
+    @Override
+    public long getLastModified(Object templateSource) {
+        return (null != templateSource) ? templateSource.hashCode() : -1;
+    }
+
+    @Override
+    public Reader getReader(Object templateSource, String encoding) throws IOException {
+        return new StringReader((String) templateSource);
+    }
+
+    @Override
+    public void closeTemplateSource(Object templateSource) throws IOException {
+        //nothing to do
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import java.io.IOException;
+
+/**
+ * Service that holds the FreeMarker configuration (and its template cache)
+ * shared by the portal requests of the current tenant.
+ */
+public interface IFreemarkerTemplateManager {
+
+    /**
+     * Return the shared configuration of the current tenant.
+     * The returned configuration must be handled as read-only.
+     * @return the configuration
+     */
+    public Configuration getConfiguration();
+
+    /**
+     * Return the compiled template of the given page model.
+     * The template is parsed once and reused until the page model changes.
+     * @param pageModel the page model
+     * @return the compiled template
+     * @throws IOException in case of error parsing the template
+     */
+    public Template getPageModelTemplate(PageModel pageModel) throws IOException;
+
+    /**
+     * Return the compiled template of the given gui fragment.
+     * The template is held by the template cache of the shared configuration
+     * and evicted when the fragment changes.
+     * @param code the code of the gui fragment
+     * @return the compiled template
+     * @throws IOException in case of missing fragment or error parsing the template
+     */
+    public Template getGuiFragmentTemplate(String code) throws IOException;
+
+}
@@ -13,6 +13,9 @@
  */
 package org.entando.entando.aps.system.services.oauth2;
 
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -25,6 +28,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.entando.entando.aps.system.services.oauth2.model.OAuth2AccessTokenImpl;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
@@ -35,8 +39,15 @@ public class ApiOAuth2TokenManager extends AbstractOAuthManager implements IApiO
 
     private static final EntLogger logger = EntLogFactory.getSanitizedLogger(ApiOAuth2TokenManager.class);
     public static final int ACCESS_TOKEN_LEN = 32;
+    private static final int MAX_CACHED_TOKENS = 5000;
+    // the cache is local to every node: a revoke done by another node is seen at most after this time
+    private static final int CACHED_TOKEN_TTL_SECONDS = 30;
     private transient ScheduledExecutorService scheduler = null;
 
+    // access tokens by tenant and value; entries are used until the token expires, for a short time at most
+    private final Cache<String, OAuth2AccessToken> accessTokens = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_TOKENS)
+            .expireAfterWrite(CACHED_TOKEN_TTL_SECONDS, TimeUnit.SECONDS).build();
+
     private IOAuth2TokenDAO oAuth2TokenDAO;
 
     @Override
@@ -51,6 +62,7 @@ public class ApiOAuth2TokenManager extends AbstractOAuthManager implements IApiO
     @Override
     protected void release() {
         this.scheduler.shutdown();
+        this.accessTokens.invalidateAll();
     }
 
     @Override
@@ -77,12 +89,25 @@ public class ApiOAuth2TokenManager extends AbstractOAuthManager implements IApiO
 
     @Override
     public OAuth2AccessToken readAccessToken(String tokenValue) {
-        return this.getOAuth2TokenDAO().readAccessToken(tokenValue);
+        String key = this.getCacheKey(tokenValue);
+        OAuth2AccessToken token = this.accessTokens.getIfPresent(key);
+        if (null != token) {
+            if (!token.isExpired()) {
+                return token;
+            }
+            this.accessTokens.invalidate(key);
+        }
+        token = this.getOAuth2TokenDAO().readAccessToken(tokenValue);
+        if (null != token && null != token.getExpiration() && !token.isExpired()) {
+            this.accessTokens.put(key, token);
+        }
+        return token;
     }
 
     @Override
     public void removeAccessToken(OAuth2AccessToken token) {
         this.getOAuth2TokenDAO().removeAccessToken(token.getValue());
+        this.accessTokens.invalidate(this.getCacheKey(token.getValue()));
     }
 
     @Override
@@ -103,11 +128,32 @@ public class ApiOAuth2TokenManager extends AbstractOAuthManager implements IApiO
     @Override
     public void removeRefreshToken(OAuth2RefreshToken refreshToken) {
         this.getOAuth2TokenDAO().removeAccessTokenUsingRefreshToken(refreshToken.getValue());
+        this.evictAccessTokensByRefreshToken(refreshToken.getValue());
     }
 
     @Override
     public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
         this.getOAuth2TokenDAO().removeAccessTokenUsingRefreshToken(refreshToken.getValue());
+        this.evictAccessTokensByRefreshToken(refreshToken.getValue());
+    }
+
+    private void evictAccessTokensByRefreshToken(String refreshTokenValue) {
+        String prefix = this.getCacheKey("");
+        this.accessTokens.asMap().entrySet().removeIf(entry -> entry.getKey().startsWith(prefix)
+                && null != entry.getValue().getRefreshToken()
+                && refreshTokenValue.equals(entry.getValue().getRefreshToken().getValue()));
+    }
+
+    @Override
+    public void evictAccessTokensByClientId(String clientId) {
+        String prefix = this.getCacheKey("");
+        this.accessTokens.asMap().entrySet().removeIf(entry -> entry.getKey().startsWith(prefix)
+                && entry.getValue() instanceof OAuth2AccessTokenImpl
+                && clientId.equals(((OAuth2AccessTokenImpl) entry.getValue()).getClientId()));
+    }
+
+    private String getCacheKey(String tokenValue) {
+        return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE) + ":" + tokenValue;
     }
 
     @Override
@@ -23,4 +23,11 @@ public interface IApiOAuth2TokenManager extends TokenStore {
 
     public OAuth2AccessToken createAccessTokenForLocalUser(String username);
 
+    /**
+     * Evict from the local cache the access tokens of the given client,
+     * already removed from the database.
+     * @param clientId the client id
+     */
+    public void evictAccessTokensByClientId(String clientId);
+
 }
@@ -37,6 +37,8 @@ public class OAuthConsumerManager extends AbstractOAuthManager implements IOAuth
 
     private IOAuthConsumerDAO consumerDAO;
 
+    private IApiOAuth2TokenManager tokenManager;
+
     @Override
     public void init() throws Exception {
         logger.debug("{} ready", this.getClass().getName());
@@ -116,6 +118,9 @@ public class OAuthConsumerManager extends AbstractOAuthManager implements IOAuth
     public void deleteConsumer(String clientId) throws EntException {
         try {
             this.getConsumerDAO().deleteConsumer(clientId);
+            if (null != this.getTokenManager()) {
+                this.getTokenManager().evictAccessTokensByClientId(clientId);
+            }
         } catch (Throwable t) {
             logger.error("Error deleting consumer record by key {}", clientId, t);
             throw new EntException("Error deleting consumer record by key " + clientId, t);
@@ -142,6 +147,14 @@ public class OAuthConsumerManager extends AbstractOAuthManager implements IOAuth
         this.consumerDAO = consumerDAO;
     }
 
+    protected IApiOAuth2TokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    public void setTokenManager(IApiOAuth2TokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
     @Override
     public List<ConsumerRecordVO> getConsumers(FieldSearchFilter<?>[] filters) throws EntException {
         try {
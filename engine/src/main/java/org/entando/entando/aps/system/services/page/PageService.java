@@ -487,8 +487,9 @@ public class PageService implements IComponentExistsService, IPageService,
                 bindingResult.reject(ERRCODE_STATUS_INVALID, new String[]{pageCode}, "page.status.invalid");
                 throw new ValidationGenericException(bindingResult);
             }
-            pageD.setMetadata(pageO.getMetadata());
-            pageD.setWidgets(pageO.getWidgets());
+            IPage onlineCopy = pageO.clone();
+            pageD.setMetadata(onlineCopy.getMetadata());
+            pageD.setWidgets(onlineCopy.getWidgets());
             this.getPageManager().updatePage(pageD);
             PageConfigurationDto pageConfigurationDto = new PageConfigurationDto(pageO, STATUS_ONLINE);
             return pageConfigurationDto;
@@ -1009,6 +1010,7 @@ public class PageService implements IComponentExistsService, IPageService,
         IPage result = getPageManager().getDraftPage(pageCode);
         if (result == null) {
             result = getPageManager().getOnlinePage(pageCode);
+            result = (null != result) ? result.clone() : null;
         }
         return (Page) result;
     }
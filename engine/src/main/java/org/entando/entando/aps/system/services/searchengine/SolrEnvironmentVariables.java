@@ -20,6 +20,11 @@ public final class SolrEnvironmentVariables {
     private static final String SOLR_ACTIVE = "SOLR_ACTIVE";
     private static final String SOLR_ADDRESS = "SOLR_ADDRESS";
     private static final String SOLR_CORE = "SOLR_CORE";
+    private static final String SOLR_INDEXING_BATCH_SIZE = "SOLR_INDEXING_BATCH_SIZE";
+    private static final String SOLR_INDEXING_FLUSH_INTERVAL = "SOLR_INDEXING_FLUSH_INTERVAL";
+    private static final String SOLR_INDEXING_COMMIT_WITHIN = "SOLR_INDEXING_COMMIT_WITHIN";
+    private static final String SOLR_RELOAD_THREADS = "SOLR_RELOAD_THREADS";
+    private static final String SOLR_RELOAD_QUEUE_SIZE = "SOLR_RELOAD_QUEUE_SIZE";
 
     private SolrEnvironmentVariables() {
     }
@@ -36,6 +41,42 @@ public final class SolrEnvironmentVariables {
         return get(SOLR_CORE, "entando");
     }
 
+    /**
+     * Max number of documents sent to Solr in a single update request.
+     */
+    public static int indexingBatchSize() {
+        return Integer.parseInt(get(SOLR_INDEXING_BATCH_SIZE, "100"));
+    }
+
+    /**
+     * Max time (in milliseconds) a document waits to be sent to Solr.
+     */
+    public static int indexingFlushInterval() {
+        return Integer.parseInt(get(SOLR_INDEXING_FLUSH_INTERVAL, "500"));
+    }
+
+    /**
+     * Time (in milliseconds) within which Solr makes the sent documents visible; with a value lower than 1 every
+     * update request is followed by an explicit soft commit.
+     */
+    public static int indexingCommitWithin() {
+        return Integer.parseInt(get(SOLR_INDEXING_COMMIT_WITHIN, "1000"));
+    }
+
+    /**
+     * Number of threads loading the contents during a reload of the index of a tenant.
+     */
+    public static int reloadThreads() {
+        return Integer.parseInt(get(SOLR_RELOAD_THREADS, "4"));
+    }
+
+    /**
+     * Max number of loaded contents waiting to be indexed during a reload of the index.
+     */
+    public static int reloadQueueSize() {
+        return Integer.parseInt(get(SOLR_RELOAD_QUEUE_SIZE, "500"));
+    }
+
     private static String get(String name, String defaultValue) {
         String valueFromEnv = System.getenv(name);
         if (StringUtils.isBlank(valueFromEnv)) {
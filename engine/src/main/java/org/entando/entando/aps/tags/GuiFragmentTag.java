@@ -17,14 +17,12 @@ import com.agiletec.aps.system.RequestContext;
 import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.util.ApsWebApplicationUtils;
 import freemarker.template.Template;
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.StringReader;
-import java.io.Writer;
+import java.io.StringWriter;
 import javax.servlet.ServletRequest;
 import javax.servlet.jsp.JspException;
 import org.apache.commons.lang3.StringUtils;
 import org.entando.entando.aps.system.services.controller.executor.ExecutorBeanContainer;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateManager;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 import org.entando.entando.ent.exception.EntException;
@@ -69,7 +67,7 @@ public class GuiFragmentTag extends ExtendedTagSupport {
     }
 
 	protected String extractFragmentOutput(RequestContext reqCtx) throws EntException {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		StringWriter out = new StringWriter();
 		try {
 			IGuiFragmentManager guiFragmentManager = (IGuiFragmentManager) ApsWebApplicationUtils.getBean(SystemConstants.GUI_FRAGMENT_MANAGER, this.pageContext);
 			GuiFragment guiFragment = guiFragmentManager.getGuiFragment(this.getCode());
@@ -77,16 +75,15 @@ public class GuiFragmentTag extends ExtendedTagSupport {
 				return null;
 			}
 			ExecutorBeanContainer ebc = reqCtx.getExecutorBeanContainer();
-			Writer out = new OutputStreamWriter(baos);
-			Template template = new Template(this.getCode(), new StringReader(guiFragment.getCurrentGui()), ebc.getConfiguration());
+			IFreemarkerTemplateManager templateManager = (IFreemarkerTemplateManager) ApsWebApplicationUtils.getBean(SystemConstants.FREEMARKER_TEMPLATE_MANAGER, this.pageContext);
+			Template template = templateManager.getGuiFragmentTemplate(this.getCode());
 			template.process(ebc.getTemplateModel(), out);
-			out.flush();
 		} catch (Throwable t) {
 			String msg = "Error creating fragment output - code '" + this.getCode() + "'";
 			_logger.error(msg, t);
 			throw new EntException(msg, t);
 		}
-		return baos.toString();
+		return out.toString();
 	}
 
 	@Override
@@ -15,6 +15,7 @@
 package org.entando.entando.ent.util;
 
 import org.entando.entando.ent.exception.EntRuntimeException;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXNotRecognizedException;
 import org.xml.sax.SAXNotSupportedException;
@@ -26,7 +27,11 @@ import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Helpers to centralize creation of safe factories and parsers
@@ -42,6 +47,9 @@ public class EntSafeXmlUtils {
     private static final String HTTP_APACHE_ORG_XML_FEATURES_NONVALIDATING_LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
     public static final String XMLSCHEMA_FACTORY_CLASS = "com.sun.org.apache.xerces.internal.jaxp.validation.XMLSchemaFactory";
 
+    private static final int SAX_PARSER_POOL_SIZE = 32;
+    private static final BlockingQueue<SAXParser> SAX_PARSERS = new ArrayBlockingQueue<>(SAX_PARSER_POOL_SIZE);
+
     private static SAXParserFactory newSaxParserFactory() {
         SAXParserFactory parseFactory = SAXParserFactory.newInstance();
         try {
@@ -59,6 +67,28 @@ public class EntSafeXmlUtils {
         return parseFactory.newSAXParser();
     }
 
+    /**
+     * Parse the given source with a safe SAX parser taken from a shared pool.
+     * The parser is reset and given back to the pool only when the parsing succeeds,
+     * so a parser left in an unknown state is never reused.
+     *
+     * @param inputSource the source to parse
+     * @param handler the handler of the parsing events
+     * @throws ParserConfigurationException if a new parser can't be created
+     * @throws SAXException in case of parsing error
+     * @throws IOException in case of error reading the source
+     */
+    public static void parseWithPooledSAXParser(InputSource inputSource, DefaultHandler handler)
+            throws ParserConfigurationException, SAXException, IOException {
+        SAXParser parser = SAX_PARSERS.poll();
+        if (null == parser) {
+            parser = newSafeSAXParser();
+        }
+        parser.parse(inputSource, handler);
+        parser.reset();
+        SAX_PARSERS.offer(parser);
+    }
+
     public static SchemaFactory newSafeSchemaFactory(String schemaLanguage) {
         SchemaFactory schemaFactory = SchemaFactory.newInstance(schemaLanguage, XMLSCHEMA_FACTORY_CLASS, null);
         try {
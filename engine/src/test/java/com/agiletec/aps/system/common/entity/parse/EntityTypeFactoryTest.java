@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common.entity.parse;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+import com.agiletec.aps.system.common.entity.model.ApsEntity;
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
+import com.agiletec.aps.system.services.baseconfig.ConfigInterface;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EntityTypeFactoryTest {
+
+    private static final String CONFIG_ITEM = "entityTypes";
+    private static final String MANAGER = "entityManager";
+
+    @Mock
+    private ConfigInterface configManager;
+    @Mock
+    private IEntityTypeDOM entityTypeDom;
+    @Mock
+    private IApsEntityDOM entityDom;
+
+    private EntityTypeFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        this.factory = new EntityTypeFactory();
+        this.factory.setConfigManager(this.configManager);
+    }
+
+    @Test
+    void shouldParseEntityTypesOnce() throws Exception {
+        Mockito.when(this.configManager.getConfigItem(CONFIG_ITEM)).thenReturn("<entitytypes />");
+        Mockito.when(this.entityTypeDom.extractEntityTypes("<entitytypes />", ApsEntity.class, this.entityDom, MANAGER))
+                .thenReturn(this.createTypes("TST"));
+        IApsEntity first = this.extractType("TST");
+        IApsEntity second = this.extractType("TST");
+        Assertions.assertNotNull(first);
+        Assertions.assertSame(first, second);
+        Map<String, IApsEntity> types = this.factory.extractEntityTypes(ApsEntity.class, CONFIG_ITEM, this.entityTypeDom, MANAGER, this.entityDom);
+        Assertions.assertNotSame(first, types.get("TST"));
+        Assertions.assertEquals("TST", types.get("TST").getTypeCode());
+        Mockito.verify(this.entityTypeDom, Mockito.times(1)).extractEntityTypes(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void shouldParseEntityTypesAgainWhenConfigurationChanges() throws Exception {
+        Mockito.when(this.configManager.getConfigItem(CONFIG_ITEM)).thenReturn("<entitytypes />", "<entitytypes></entitytypes>");
+        Mockito.when(this.entityTypeDom.extractEntityTypes("<entitytypes />", ApsEntity.class, this.entityDom, MANAGER))
+                .thenReturn(this.createTypes("TST"));
+        Mockito.when(this.entityTypeDom.extractEntityTypes("<entitytypes></entitytypes>", ApsEntity.class, this.entityDom, MANAGER))
+                .thenReturn(this.createTypes("NEW"));
+        Assertions.assertNotNull(this.extractType("TST"));
+        Assertions.assertNull(this.extractType("TST"));
+        Assertions.assertNotNull(this.extractType("NEW"));
+        Mockito.verify(this.entityTypeDom, Mockito.times(2)).extractEntityTypes(anyString(), any(), any(), any());
+    }
+
+    private IApsEntity extractType(String typeCode) throws Exception {
+        return this.factory.extractEntityType(typeCode, ApsEntity.class, CONFIG_ITEM, this.entityTypeDom, MANAGER, this.entityDom);
+    }
+
+    private Map<String, IApsEntity> createTypes(String typeCode) {
+        ApsEntity type = new ApsEntity();
+        type.setTypeCode(typeCode);
+        type.setTypeDescription(typeCode);
+        Map<String, IApsEntity> types = new HashMap<>();
+        types.put(typeCode, type);
+        return types;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.common.entity.parse;
+
+import com.agiletec.aps.system.common.entity.model.ApsEntity;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.SAXParser;
+import org.entando.entando.ent.util.EntLogging.EntLogFactory;
+import org.entando.entando.ent.util.EntLogging.EntLogger;
+import org.entando.entando.ent.util.EntSafeXmlUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.xml.sax.InputSource;
+
+/**
+ * Bulk entity deserialization benchmark: compares a new SAX parser per entity
+ * with the pooled parsers and handlers.
+ * Run with -Dentando.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "entando.benchmark", matches = "true")
+class EntityXmlParsingBenchmarkTest {
+
+    private static final EntLogger logger = EntLogFactory.getSanitizedLogger(EntityXmlParsingBenchmarkTest.class);
+
+    private static final int ENTITIES = 50000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void benchmarkBulkEntityDeserialization() throws Exception {
+        String[] xmls = new String[ENTITIES];
+        for (int i = 0; i < ENTITIES; i++) {
+            xmls[i] = "<entity id=\"TST" + i + "\" typecode=\"TST\"><descr>Entity " + i + "</descr>"
+                    + "<groups mainGroup=\"free\"><group name=\"customers\" /></groups><attributes /></entity>";
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String xml : xmls) {
+                ApsEntity entity = new ApsEntity();
+                SAXParser parser = EntSafeXmlUtils.newSafeSAXParser();
+                EntityHandler handler = new EntityHandler().getHandlerPrototype();
+                handler.initHandler(entity, "entity");
+                parser.parse(new InputSource(new StringReader(xml)), handler);
+                Assertions.assertEquals("free", entity.getMainGroup());
+            }
+            long newParsers = System.nanoTime() - start;
+            start = System.nanoTime();
+            EntityHandler handler = new EntityHandler().getHandlerPrototype();
+            for (String xml : xmls) {
+                ApsEntity entity = new ApsEntity();
+                handler.initHandler(entity, "entity");
+                EntSafeXmlUtils.parseWithPooledSAXParser(new InputSource(new StringReader(xml)), handler);
+                Assertions.assertEquals("free", entity.getMainGroup());
+            }
+            long pooledParsers = System.nanoTime() - start;
+            logger.info("round {}: new parsers {} entities/s - pooled parsers {} entities/s", round,
+                    this.getThroughput(newParsers), this.getThroughput(pooledParsers));
+        }
+    }
+
+    private long getThroughput(long nanos) {
+        return ENTITIES * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.services.authorization;
+
+import com.agiletec.aps.system.services.group.Group;
+import com.agiletec.aps.system.services.role.Permission;
+import com.agiletec.aps.system.services.role.Role;
+import com.agiletec.aps.system.services.user.User;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AuthorizationManagerTest {
+
+    private AuthorizationManager authorizationManager = new AuthorizationManager();
+
+    @Test
+    void shouldCheckCompiledAuthorizations() {
+        User user = new User();
+        user.addAuthorization(new Authorization(this.createGroup("coach"), this.createRole("editor", Permission.CONTENT_EDITOR)));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroup(user, "coach"));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroup(user, Group.FREE_GROUP_NAME));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnRole(user, "editor"));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnPermission(user, Permission.CONTENT_EDITOR));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnPermission(user, Permission.MANAGE_PAGES));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroupAndRole(user, "coach", "editor", false));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroupAndRole(user, "coach", "editor", true));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroupAndRole(user, "coach", null, false));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroupAndRole(user, Group.FREE_GROUP_NAME, "editor", false));
+    }
+
+    @Test
+    void shouldRecompileChangedAuthorizations() {
+        User user = new User();
+        user.addAuthorization(new Authorization(this.createGroup("coach"), this.createRole("editor", Permission.CONTENT_EDITOR)));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroup(user, "customers"));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnPermission(user, Permission.SUPERUSER));
+
+        user.addAuthorization(new Authorization(this.createGroup(Group.ADMINS_GROUP_NAME), this.createRole("admin", Permission.SUPERUSER)));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroup(user, "customers"));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnPermission(user, Permission.MANAGE_PAGES));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroupAndRole(user, "customers", "editor", true));
+
+        user.setAuthorizations(new ArrayList<>());
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroup(user, "coach"));
+        Assertions.assertFalse(this.authorizationManager.isAuthOnPermission(user, Permission.MANAGE_PAGES));
+    }
+
+    @Test
+    void shouldRecompileReplacedAuthorizations() {
+        User user = new User();
+        user.addAuthorization(new Authorization(this.createGroup("coach"), this.createRole("editor", Permission.CONTENT_EDITOR)));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroup(user, "coach"));
+
+        long version = user.getAuthorizationsVersion();
+        List<Authorization> authorizations = new ArrayList<>(user.getAuthorizations());
+        authorizations.set(0, new Authorization(this.createGroup("customers"), this.createRole("editor", Permission.CONTENT_EDITOR)));
+        user.setAuthorizations(authorizations);
+        Assertions.assertNotEquals(version, user.getAuthorizationsVersion());
+        Assertions.assertFalse(this.authorizationManager.isAuthOnGroup(user, "coach"));
+        Assertions.assertTrue(this.authorizationManager.isAuthOnGroup(user, "customers"));
+    }
+
+    @Test
+    void shouldNotChangeVersionForDuplicatedAuthorization() {
+        User user = new User();
+        Authorization authorization = new Authorization(this.createGroup("coach"), this.createRole("editor", Permission.CONTENT_EDITOR));
+        user.addAuthorization(authorization);
+        long version = user.getAuthorizationsVersion();
+        user.addAuthorization(authorization);
+        Assertions.assertEquals(version, user.getAuthorizationsVersion());
+        Assertions.assertEquals(1, user.getAuthorizations().size());
+    }
+
+    private Group createGroup(String name) {
+        Group group = new Group();
+        group.setName(name);
+        return group;
+    }
+
+    private Role createRole(String name, String permission) {
+        Role role = new Role();
+        role.setName(name);
+        role.addPermission(permission);
+        return role;
+    }
+
+}
@@ -40,5 +40,22 @@ class TestKeyGeneratorDAO extends BaseTestCase {
         }
 		assertEquals(key, current);
 	}
-    
+
+    @Test
+    void testReserveKeys() throws Throwable {
+        DataSource dataSource = (DataSource) getApplicationContext().getBean("portDataSource");
+        KeyGeneratorDAO keyGeneratorDao = new KeyGeneratorDAO();
+        keyGeneratorDao.setDataSource(dataSource);
+        MockUniqueKeysDAO mockUniqueKeysDao = new MockUniqueKeysDAO();
+        mockUniqueKeysDao.setDataSource(dataSource);
+        int current = mockUniqueKeysDao.getCurrentKey(1);
+        try {
+            assertEquals(current + 10, keyGeneratorDao.reserveKeys(10));
+            assertEquals(current + 11, keyGeneratorDao.reserveKeys(1));
+            assertEquals(current + 11, mockUniqueKeysDao.getCurrentKey(1));
+        } finally {
+            keyGeneratorDao.updateKey(current);
+        }
+    }
+
 }
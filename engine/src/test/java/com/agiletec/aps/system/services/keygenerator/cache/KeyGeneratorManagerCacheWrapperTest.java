@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.services.keygenerator.cache;
+
+import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorDAO;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.entando.entando.aps.system.services.cache.CustomConcurrentMapCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class KeyGeneratorManagerCacheWrapperTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private IKeyGeneratorDAO keyGeneratorDAO;
+
+    @InjectMocks
+    private KeyGeneratorManagerCacheWrapper cacheWrapper;
+
+    private final AtomicInteger databaseKey = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() {
+        CustomConcurrentMapCache cache = new CustomConcurrentMapCache(IKeyGeneratorManagerCacheWrapper.CACHE_NAME, true);
+        Mockito.when(cacheManager.getCache(IKeyGeneratorManagerCacheWrapper.CACHE_NAME)).thenReturn(cache);
+        Mockito.when(keyGeneratorDAO.getUniqueKey()).thenAnswer(invocation -> databaseKey.get());
+        Mockito.lenient().when(keyGeneratorDAO.reserveKeys(Mockito.anyInt()))
+                .thenAnswer(invocation -> databaseKey.addAndGet(invocation.getArgument(0)));
+        cacheWrapper.initCache(keyGeneratorDAO);
+    }
+
+    @Test
+    void shouldHandOutKeysFromReservedBlocks() {
+        for (int i = 1; i <= 25; i++) {
+            Assertions.assertEquals(100 + i, cacheWrapper.getAndIncrementUniqueKeyCurrentValue(keyGeneratorDAO, 10));
+        }
+        Assertions.assertEquals(125, cacheWrapper.getUniqueKeyCurrentValue());
+        Assertions.assertEquals(130, databaseKey.get());
+        Mockito.verify(keyGeneratorDAO, Mockito.times(3)).reserveKeys(10);
+    }
+
+    @Test
+    void shouldSkipUnusedKeysAfterRelease() {
+        Assertions.assertEquals(101, cacheWrapper.getAndIncrementUniqueKeyCurrentValue(keyGeneratorDAO, 10));
+        // another node reserves a block
+        databaseKey.addAndGet(10);
+        Assertions.assertEquals(102, cacheWrapper.getAndIncrementUniqueKeyCurrentValue(keyGeneratorDAO, 10));
+
+        cacheWrapper.release();
+        cacheWrapper.initCache(keyGeneratorDAO);
+        Assertions.assertEquals(121, cacheWrapper.getAndIncrementUniqueKeyCurrentValue(keyGeneratorDAO, 10));
+    }
+
+}
@@ -16,6 +16,8 @@ package com.agiletec.aps.system.services.page;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -92,6 +94,12 @@ class PageManagerIntegrationTest extends BaseTestCase {
         assertEquals(7, draft.getPosition());
     }
 
+    @Test
+    void testSharedOnlinePages() throws Throwable {
+        assertSame(_pageManager.getOnlinePage("pagina_1"), _pageManager.getOnlinePage("pagina_1"));
+        assertNotSame(_pageManager.getDraftPage("pagina_1"), _pageManager.getDraftPage("pagina_1"));
+    }
+
     @Test
     void testAddUpdateMoveDeletePage() throws Throwable {
         try {
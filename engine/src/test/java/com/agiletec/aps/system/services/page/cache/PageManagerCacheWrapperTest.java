@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package com.agiletec.aps.system.services.page.cache;
+
+import com.agiletec.aps.system.services.page.IPage;
+import com.agiletec.aps.system.services.page.IPageDAO;
+import com.agiletec.aps.system.services.page.Page;
+import com.agiletec.aps.system.services.page.PageMetadata;
+import com.agiletec.aps.system.services.page.PageRecord;
+import com.agiletec.aps.system.services.page.Widget;
+import java.util.Arrays;
+import java.util.List;
+import org.entando.entando.aps.system.services.cache.CustomConcurrentMapCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class PageManagerCacheWrapperTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private IPageDAO pageDAO;
+
+    @InjectMocks
+    private PageManagerCacheWrapper cacheWrapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CustomConcurrentMapCache cache = new CustomConcurrentMapCache(IPageManagerCacheWrapper.PAGE_MANAGER_CACHE_NAME, true);
+        Mockito.when(cacheManager.getCache(IPageManagerCacheWrapper.PAGE_MANAGER_CACHE_NAME)).thenReturn(cache);
+        PageRecord root = this.createRecord("homepage", "homepage", 1, true, "menu");
+        PageRecord child = this.createRecord("child", "homepage", 1, false, "login_form");
+        Mockito.when(pageDAO.loadPageRecords()).thenReturn(Arrays.asList(root, child));
+        cacheWrapper.initCache(pageDAO);
+    }
+
+    @Test
+    void shouldBuildWidgetUtilizersOnInit() throws Exception {
+        Assertions.assertEquals(Arrays.asList("homepage"), cacheWrapper.getDraftWidgetUtilizers("menu"));
+        Assertions.assertEquals(Arrays.asList("homepage"), cacheWrapper.getOnlineWidgetUtilizers("menu"));
+        Assertions.assertEquals(Arrays.asList("child"), cacheWrapper.getDraftWidgetUtilizers("login_form"));
+        Assertions.assertTrue(cacheWrapper.getOnlineWidgetUtilizers("login_form").isEmpty());
+        Assertions.assertTrue(cacheWrapper.getDraftWidgetUtilizers("unknown").isEmpty());
+    }
+
+    @Test
+    void shouldUpdateWidgetUtilizersOnPageChanges() throws Exception {
+        IPage child = cacheWrapper.getDraftPage("child");
+        ((Page) child).setWidgets(this.createWidgets("menu"));
+        cacheWrapper.updateDraftPage(child);
+        Assertions.assertEquals(Arrays.asList("homepage", "child"), cacheWrapper.getDraftWidgetUtilizers("menu"));
+        Assertions.assertTrue(cacheWrapper.getDraftWidgetUtilizers("login_form").isEmpty());
+        Assertions.assertEquals(Arrays.asList("homepage"), cacheWrapper.getOnlineWidgetUtilizers("menu"));
+
+        cacheWrapper.setPageOnline("child");
+        Assertions.assertEquals(Arrays.asList("homepage", "child"), cacheWrapper.getOnlineWidgetUtilizers("menu"));
+
+        cacheWrapper.setPageOffline("child");
+        Assertions.assertEquals(Arrays.asList("homepage"), cacheWrapper.getOnlineWidgetUtilizers("menu"));
+        Assertions.assertEquals(Arrays.asList("homepage", "child"), cacheWrapper.getDraftWidgetUtilizers("menu"));
+
+        cacheWrapper.deleteDraftPage("child");
+        Assertions.assertEquals(Arrays.asList("homepage"), cacheWrapper.getDraftWidgetUtilizers("menu"));
+    }
+
+    @Test
+    void shouldAddNewPageToWidgetUtilizers() throws Exception {
+        Page newPage = (Page) this.createRecord("new_page", "homepage", 2, false, "search_form").createDraftPage();
+        cacheWrapper.addDraftPage(newPage);
+        List<String> utilizers = cacheWrapper.getDraftWidgetUtilizers("search_form");
+        Assertions.assertEquals(Arrays.asList("new_page"), utilizers);
+        Assertions.assertTrue(cacheWrapper.getOnlineWidgetUtilizers("search_form").isEmpty());
+    }
+
+    @Test
+    void shouldResolveOnlinePagesByFullPath() throws Exception {
+        Assertions.assertEquals("homepage", cacheWrapper.getOnlinePageByFullPath("homepage").getCode());
+        Assertions.assertNull(cacheWrapper.getOnlinePageByFullPath("child"));
+        cacheWrapper.setPageOnline("child");
+        Assertions.assertEquals("child", cacheWrapper.getOnlinePageByFullPath("child").getCode());
+        Assertions.assertNull(cacheWrapper.getOnlinePageByFullPath("homepage/child"));
+
+        IPage root = cacheWrapper.getDraftPage("homepage");
+        root.getMetadata().setShowable(true);
+        cacheWrapper.updateDraftPage(root);
+        cacheWrapper.setPageOnline("homepage");
+        Assertions.assertEquals("child", cacheWrapper.getOnlinePageByFullPath("homepage/child").getCode());
+        Assertions.assertNull(cacheWrapper.getOnlinePageByFullPath("child"));
+
+        cacheWrapper.setPageOffline("child");
+        Assertions.assertNull(cacheWrapper.getOnlinePageByFullPath("homepage/child"));
+    }
+
+    private PageRecord createRecord(String code, String parentCode, int position, boolean online, String widgetTypeCode) {
+        PageRecord record = new PageRecord();
+        record.setCode(code);
+        record.setParentCode(parentCode);
+        record.setPosition(position);
+        record.setGroup("free");
+        record.setMetadataDraft(new PageMetadata());
+        record.setWidgetsDraft(this.createWidgets(widgetTypeCode));
+        if (online) {
+            record.setMetadataOnline(new PageMetadata());
+            record.setWidgetsOnline(this.createWidgets(widgetTypeCode));
+        }
+        return record;
+    }
+
+    private Widget[] createWidgets(String widgetTypeCode) {
+        Widget widget = new Widget();
+        widget.setTypeCode(widgetTypeCode);
+        return new Widget[]{widget, null};
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.actionlog;
+
+import com.agiletec.aps.BaseTestCase;
+import com.agiletec.aps.system.services.keygenerator.IKeyGeneratorManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.entando.entando.aps.system.services.actionlog.model.ActionLogRecord;
+import org.entando.entando.aps.system.services.actionlog.model.ActivityStreamInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ActionLogManagerTest {
+
+    private static final int PRODUCERS = 8;
+    private static final int RECORDS_BY_PRODUCER = 500;
+
+    @Mock
+    private IKeyGeneratorManager keyGeneratorManager;
+
+    private BasicDataSource dataSource;
+    private ActionLogDAO actionLogDAO;
+    private ActionLogManager actionLogManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.dataSource = new BasicDataSource();
+        this.dataSource.setUrl("jdbc:derby:memory:actionLogManagerTest;create=true");
+        this.executeUpdate("CREATE TABLE actionlogrecords (id INT NOT NULL PRIMARY KEY, username VARCHAR(40), "
+                + "actiondate TIMESTAMP, namespace CLOB, actionname VARCHAR(40), parameters CLOB, "
+                + "activitystreaminfo CLOB, updatedate TIMESTAMP)");
+        this.executeUpdate("CREATE TABLE actionlogrelations (id INT GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
+                + "recordid INT NOT NULL REFERENCES actionlogrecords (id), refgroup VARCHAR(20))");
+        AtomicInteger keys = new AtomicInteger(1);
+        Mockito.when(this.keyGeneratorManager.getUniqueKeyCurrentValue()).thenAnswer(invocation -> keys.getAndIncrement());
+        this.actionLogDAO = Mockito.spy(new ActionLogDAO());
+        this.actionLogDAO.setDataSource(this.dataSource);
+        this.actionLogDAO.setDataSourceClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        this.actionLogManager = new ActionLogManager();
+        this.actionLogManager.setActionLogDAO(this.actionLogDAO);
+        this.actionLogManager.setKeyGeneratorManager(this.keyGeneratorManager);
+        this.actionLogManager.setBatchSize(50);
+        this.actionLogManager.setFlushInterval(50);
+        this.actionLogManager.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.executeUpdate("DROP TABLE actionlogrelations");
+        this.executeUpdate("DROP TABLE actionlogrecords");
+        this.dataSource.close();
+    }
+
+    @Test
+    void shouldWriteConcurrentRecordsInBatches() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < PRODUCERS; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < RECORDS_BY_PRODUCER; j++) {
+                    this.actionLogManager.addActionRecord(this.createRecord(j % 2 == 0));
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        BaseTestCase.waitThreads(IActionLogManager.LOG_APPENDER_THREAD_NAME_PREFIX);
+        long elapsed = System.currentTimeMillis() - start;
+
+        int total = PRODUCERS * RECORDS_BY_PRODUCER;
+        Assertions.assertEquals(total, this.count("SELECT COUNT(*) FROM actionlogrecords"));
+        Assertions.assertEquals(total, this.count("SELECT COUNT(DISTINCT id) FROM actionlogrecords"));
+        Assertions.assertEquals(total / 2, this.count("SELECT COUNT(*) FROM actionlogrelations"));
+        Mockito.verify(this.actionLogDAO, Mockito.never()).addActionRecord(Mockito.any());
+        Mockito.verify(this.actionLogDAO, Mockito.atMost(total / 10)).addActionRecords(Mockito.anyList());
+        Assertions.assertTrue(elapsed < 30000, "records written in " + elapsed + " ms");
+    }
+
+    @Test
+    void shouldWriteRecordsByCallerWhenQueueIsFull() throws Exception {
+        CountDownLatch appenderWriting = new CountDownLatch(1);
+        CountDownLatch appenderReleased = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith(IActionLogManager.LOG_APPENDER_THREAD_NAME_PREFIX)) {
+                appenderWriting.countDown();
+                appenderReleased.await(5, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(this.actionLogDAO).addActionRecords(Mockito.anyList());
+        this.actionLogManager = new ActionLogManager();
+        this.actionLogManager.setActionLogDAO(this.actionLogDAO);
+        this.actionLogManager.setKeyGeneratorManager(this.keyGeneratorManager);
+        this.actionLogManager.setQueueCapacity(1);
+        this.actionLogManager.setFlushInterval(10);
+        this.actionLogManager.init();
+        this.actionLogManager.addActionRecord(this.createRecord(false));
+        Assertions.assertTrue(appenderWriting.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 9; i++) {
+            this.actionLogManager.addActionRecord(this.createRecord(false));
+        }
+        Assertions.assertEquals(8, this.count("SELECT COUNT(*) FROM actionlogrecords"));
+        appenderReleased.countDown();
+        this.actionLogManager.destroy();
+        Assertions.assertEquals(10, this.count("SELECT COUNT(*) FROM actionlogrecords"));
+    }
+
+    @Test
+    void shouldDrainQueueOnDestroy() throws Exception {
+        this.actionLogManager.setFlushInterval(5000);
+        for (int i = 0; i < 120; i++) {
+            this.actionLogManager.addActionRecord(this.createRecord(true));
+        }
+        this.actionLogManager.destroy();
+        Assertions.assertEquals(120, this.count("SELECT COUNT(*) FROM actionlogrecords"));
+        Assertions.assertEquals(120, this.count("SELECT COUNT(*) FROM actionlogrelations"));
+    }
+
+    @Test
+    void shouldSkipIdsAlreadyUsed() throws Exception {
+        this.executeUpdate("INSERT INTO actionlogrecords (id, username) VALUES (1, 'admin')");
+        this.actionLogManager.addActionRecord(this.createRecord(false));
+        this.actionLogManager.destroy();
+        Assertions.assertEquals(2, this.count("SELECT COUNT(*) FROM actionlogrecords"));
+        Assertions.assertEquals(1, this.count("SELECT COUNT(*) FROM actionlogrecords WHERE id = 2"));
+    }
+
+    private ActionLogRecord createRecord(boolean activityStream) {
+        ActionLogRecord actionRecord = new ActionLogRecord();
+        actionRecord.setUsername("admin");
+        actionRecord.setNamespace("/do/Content");
+        actionRecord.setActionName("save");
+        actionRecord.setParameters("contentId=ART1");
+        if (activityStream) {
+            ActivityStreamInfo info = new ActivityStreamInfo();
+            info.setGroups(Arrays.asList("free", "free"));
+            actionRecord.setActivityStreamInfo(info);
+        }
+        return actionRecord;
+    }
+
+    private void executeUpdate(String sql) throws Exception {
+        try (Connection conn = this.dataSource.getConnection(); Statement stat = conn.createStatement()) {
+            stat.executeUpdate(sql);
+        }
+    }
+
+    private int count(String sql) throws Exception {
+        try (Connection conn = this.dataSource.getConnection();
+                Statement stat = conn.createStatement();
+                ResultSet res = stat.executeQuery(sql)) {
+            res.next();
+            return res.getInt(1);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-Present Entando S.r.l. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BoundedConcurrentMapCacheTest {
+
+    @Test
+    void shouldCreateUnboundedCacheByDefault() {
+        CustomConcurrentMapCacheFactoryBean factory = new CustomConcurrentMapCacheFactoryBean();
+        factory.setName("unbounded");
+        factory.setStore(new ConcurrentHashMap<>());
+        factory.afterPropertiesSet();
+        CustomConcurrentMapCache cache = factory.getObject();
+        Assertions.assertNotNull(cache);
+        Assertions.assertFalse(cache instanceof BoundedConcurrentMapCache);
+    }
+
+    @Test
+    void shouldEvictEntriesOverMaximumSize() {
+        BoundedConcurrentMapCache cache = this.createCache(10, -1);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key_" + i, "value_" + i);
+        }
+        cache.cleanUp();
+        Assertions.assertTrue(cache.getEstimatedSize() <= 10);
+        Assertions.assertTrue(cache.getStats().evictionCount() >= 90);
+    }
+
+    @Test
+    void shouldRecordHitsAndMisses() {
+        BoundedConcurrentMapCache cache = this.createCache(10, -1);
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key").get());
+        Assertions.assertNull(cache.get("missing"));
+        Assertions.assertEquals(1, cache.getStats().hitCount());
+        Assertions.assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    void shouldHandleNullValues() {
+        BoundedConcurrentMapCache cache = this.createCache(10, -1);
+        cache.put("key", null);
+        Assertions.assertNotNull(cache.get("key"));
+        Assertions.assertNull(cache.get("key").get());
+    }
+
+    @Test
+    void shouldExpireEntries() throws Exception {
+        BoundedConcurrentMapCache cache = this.createCache(-1, 1);
+        cache.put("key", "value");
+        Assertions.assertNotNull(cache.get("key"));
+        Thread.sleep(1500);
+        Assertions.assertNull(cache.get("key"));
+    }
+
+    private BoundedConcurrentMapCache createCache(long maximumSize, long expireAfterWriteSeconds) {
+        CustomConcurrentMapCacheFactoryBean factory = new CustomConcurrentMapCacheFactoryBean();
+        factory.setName("bounded");
+        factory.setMaximumSize(maximumSize);
+        factory.setExpireAfterWriteSeconds(expireAfterWriteSeconds);
+        factory.afterPropertiesSet();
+        CustomConcurrentMapCache cache = factory.getObject();
+        Assertions.assertTrue(cache instanceof BoundedConcurrentMapCache);
+        return (BoundedConcurrentMapCache) cache;
+    }
+
+}
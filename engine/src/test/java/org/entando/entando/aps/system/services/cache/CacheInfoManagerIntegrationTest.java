@@ -93,6 +93,23 @@ class CacheInfoManagerIntegrationTest extends BaseTestCase {
 		assertNull(extracted);
 	}
 
+	@Test
+	public void testGroupSize() {
+		String group = "group2";
+		String[] groups = {group};
+		for (int i = 0; i < 10; i++) {
+			cacheInfoManager.putInCache(DEFAULT_CACHE, "Chiave_" + i, "Stringa prova", groups);
+		}
+		cacheInfoManager.putInGroup(DEFAULT_CACHE, "Chiave_0", groups);
+		assertEquals(10, cacheInfoManager.getGroupSize(DEFAULT_CACHE, group));
+		assertEquals(10, cacheInfoManager.getGroupSizes(DEFAULT_CACHE).get(group).intValue());
+		cacheInfoManager.flushGroup(DEFAULT_CACHE, group);
+		assertEquals(0, cacheInfoManager.getGroupSize(DEFAULT_CACHE, group));
+		for (int i = 0; i < 10; i++) {
+			assertNull(cacheInfoManager.getFromCache(DEFAULT_CACHE, "Chiave_" + i));
+		}
+	}
+
     @BeforeEach
 	private void init() {
 		cacheInfoManager = (CacheInfoManager) this.getService(SystemConstants.CACHE_INFO_MANAGER);
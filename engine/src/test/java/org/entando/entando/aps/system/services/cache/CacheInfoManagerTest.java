@@ -18,8 +18,13 @@ import com.agiletec.aps.system.services.page.events.PageChangedEvent;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.mockito.*;
 import org.springframework.cache.*;
+import org.springframework.cache.support.SimpleValueWrapper;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,11 +44,11 @@ class CacheInfoManagerTest {
     @Mock
     private Cache cache;
 
-    @Mock
-    private Cache.ValueWrapper valueWrapperForExpirationTime;
-	
 	@Mock
     private Cache.ValueWrapper valueWrapperForGroups;
+
+	@Mock
+    private Cache.ValueWrapper valueWrapperForSecondGroup;
 	
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
@@ -54,16 +59,19 @@ class CacheInfoManagerTest {
 	@BeforeEach
 	public void setUp() throws Exception {
 		MockitoAnnotations.initMocks(this);
-		Map<String, Date> map = new HashMap<>();
-		Mockito.lenient().when(valueWrapperForExpirationTime.get()).thenReturn(map);
-		Mockito.lenient().when(cache.get(Mockito.startsWith(ICacheInfoManager.EXPIRATIONS_CACHE_NAME_PREFIX))).thenReturn(valueWrapperForExpirationTime);
-		Map<String, List<String>> groupsMap = new HashMap<>();
-		List<String> list_a = Arrays.asList("key_a1", "key_a2", "key_a3");
-		List<String> list_b = Arrays.asList("key_b1", "key_b2", "key_b3", "key_b4");
-		groupsMap.put("group_1", new ArrayList<>(list_a));
-		groupsMap.put("group_2", new ArrayList<>(list_b));
-		Mockito.lenient().when(valueWrapperForGroups.get()).thenReturn(groupsMap);
-		Mockito.lenient().when(cache.get(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX))).thenReturn(valueWrapperForGroups);
+		Map<Object, Object> expirations = new HashMap<>();
+		Mockito.lenient().doAnswer(i -> expirations.put(i.getArgument(0), i.getArgument(1)))
+				.when(cache).put(Mockito.startsWith(ICacheInfoManager.EXPIRATIONS_CACHE_NAME_PREFIX), Mockito.any());
+		Mockito.lenient().doAnswer(i -> expirations.remove(i.getArgument(0)))
+				.when(cache).evict(Mockito.startsWith(ICacheInfoManager.EXPIRATIONS_CACHE_NAME_PREFIX));
+		Mockito.lenient().when(cache.get(Mockito.startsWith(ICacheInfoManager.EXPIRATIONS_CACHE_NAME_PREFIX)))
+				.thenAnswer(i -> expirations.containsKey(i.getArgument(0)) ? new SimpleValueWrapper(expirations.get(i.getArgument(0))) : null);
+		Set<String> set_a = new HashSet<>(Arrays.asList("key_a1", "key_a2", "key_a3"));
+		Set<String> set_b = new HashSet<>(Arrays.asList("key_b1", "key_b2", "key_b3", "key_b4"));
+		Mockito.lenient().when(valueWrapperForGroups.get()).thenReturn(set_a);
+		Mockito.lenient().when(valueWrapperForSecondGroup.get()).thenReturn(set_b);
+		Mockito.lenient().when(cache.get(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + "targetCacheName5_group_1")).thenReturn(valueWrapperForGroups);
+		Mockito.lenient().when(cache.get(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + "targetCacheName5_group_2")).thenReturn(valueWrapperForSecondGroup);
 		Mockito.lenient().when(cacheManager.getCache(Mockito.anyString())).thenReturn(this.cache);
 	}
 	
@@ -92,6 +100,31 @@ class CacheInfoManagerTest {
 		Assertions.assertTrue(expired2);
     }
 	
+    @Test
+    void sweepExpiredEntries() {
+		String targetCache = "targetCacheName6";
+		cacheInfoManager.setExpirationTime(targetCache, "expiredKey", new Date(System.currentTimeMillis() - 1000));
+		cacheInfoManager.setExpirationTime(targetCache, "validKey", 1);
+		cacheInfoManager.sweepExpiredEntries();
+		Mockito.verify(cache, Mockito.times(1)).evict("expiredKey");
+		Mockito.verify(cache, Mockito.times(0)).evict("validKey");
+		Assertions.assertFalse(cacheInfoManager.isExpired(targetCache, "expiredKey"));
+		Assertions.assertFalse(cacheInfoManager.isExpired(targetCache, "validKey"));
+    }
+
+    @Test
+    void keepSweepingAfterTenantRelease() throws Exception {
+		cacheInfoManager.setExpirationSweepIntervalSeconds(1);
+		cacheInfoManager.init();
+		try {
+			cacheInfoManager.releaseTenantAware();
+			cacheInfoManager.setExpirationTime("targetCacheName7", "expiredKey", new Date(System.currentTimeMillis() - 1000));
+			Mockito.verify(cache, Mockito.timeout(5000)).evict("expiredKey");
+		} finally {
+			cacheInfoManager.destroy();
+		}
+    }
+
     @Test
     void updateFromPageChanged() {
 		PageChangedEvent event = new PageChangedEvent();
@@ -100,12 +133,8 @@ class CacheInfoManagerTest {
 		event.setPage(page);
         cacheInfoManager.updateFromPageChanged(event);
 		Mockito.verify(cache, Mockito.times(1)).get(Mockito.anyString());
-		Mockito.verify(cache, Mockito.times(0)).put(Mockito.anyString(), Mockito.any(Map.class));
-		Object requiredMap = cacheInfoManager.getFromCache(ICacheInfoManager.CACHE_INFO_MANAGER_CACHE_NAME, 
-				ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + ICacheInfoManager.CACHE_INFO_MANAGER_CACHE_NAME);
-		Assertions.assertTrue(requiredMap instanceof Map);
-		Assertions.assertNotNull(requiredMap);
-		Assertions.assertEquals(2, ((Map) requiredMap).size());
+		Mockito.verify(cache, Mockito.times(0)).put(Mockito.anyString(), Mockito.any(Set.class));
+		Mockito.verify(cache, Mockito.times(0)).evict(Mockito.any(Object.class));
     }
 	
 	@Test
@@ -174,6 +203,51 @@ class CacheInfoManagerTest {
 		Mockito.verify(cacheManager, Mockito.times(0)).getCache(targetCache);
 		Mockito.verify(cache, Mockito.times(0)).put(Mockito.eq(cacheKey), Mockito.anyString());
 		Mockito.verify(cacheManager, Mockito.times(1)).getCache(ICacheInfoManager.CACHE_INFO_MANAGER_CACHE_NAME);
+		Mockito.verify(cache, Mockito.times(2)).put(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX), Mockito.any(Set.class));
+	}
+
+	@Test
+    void putInGroupWithExistingKey() {
+		String targetCache = "targetCacheName5";
+		String[] groups = new String[]{"group_1"};
+		cacheInfoManager.putInGroup(targetCache, "key_a1", groups);
+		Mockito.verify(cache, Mockito.times(0)).put(Mockito.anyString(), Mockito.any(Object.class));
+		Mockito.verify(cache, Mockito.times(0)).putIfAbsent(Mockito.anyString(), Mockito.any(Object.class));
+	}
+
+	@Test
+    void putInGroupConcurrentlyOnCopyingCache() throws Exception {
+		Map<Object, Object> store = new ConcurrentHashMap<>();
+		String groupKey = ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + "targetCacheName8_group_1";
+		Mockito.lenient().when(cache.get(groupKey)).thenAnswer(i -> store.containsKey(groupKey)
+				? new SimpleValueWrapper(new HashSet<>((Set<String>) store.get(groupKey))) : null);
+		Mockito.lenient().doAnswer(i -> store.put(i.getArgument(0), i.getArgument(1)))
+				.when(cache).put(Mockito.eq(groupKey), Mockito.any());
+		Mockito.lenient().doAnswer(i -> {
+			Object previous = store.putIfAbsent(i.getArgument(0), i.getArgument(1));
+			return (null != previous) ? new SimpleValueWrapper(new HashSet<>((Set<String>) previous)) : null;
+		}).when(cache).putIfAbsent(Mockito.eq(groupKey), Mockito.any());
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String key = "key_" + i;
+				futures.add(executor.submit(() -> cacheInfoManager.putInGroup("targetCacheName8", key, new String[]{"group_1"})));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assertions.assertEquals(200, cacheInfoManager.getGroupSize("targetCacheName8", "group_1"));
+	}
+
+	@Test
+    void getGroupSize() {
+		Assertions.assertEquals(3, cacheInfoManager.getGroupSize("targetCacheName5", "group_1"));
+		Assertions.assertEquals(4, cacheInfoManager.getGroupSize("targetCacheName5", "group_2"));
+		Assertions.assertEquals(0, cacheInfoManager.getGroupSize("targetCacheName5", "group_3"));
 	}
 	
 	@Test
@@ -190,9 +264,10 @@ class CacheInfoManagerTest {
 		String targetCache = "targetCacheName5";
 		cacheInfoManager.flushGroup(targetCache, groupName);
 		Mockito.verify(cacheManager, Mockito.times(1)).getCache(ICacheInfoManager.CACHE_INFO_MANAGER_CACHE_NAME);
-		Mockito.verify(cacheManager, Mockito.times(expectedEvict)).getCache(targetCache);
-		Mockito.verify(cache, Mockito.times(expectedEvict)).evict(Mockito.any(Object.class));
-		Mockito.verify(cache, Mockito.times(1)).put(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX), Mockito.any(Object.class));
+		Mockito.verify(cacheManager, Mockito.times(1)).getCache(targetCache);
+		Mockito.verify(cache, Mockito.times(1)).evict(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX + targetCache + "_" + groupName);
+		Mockito.verify(cache, Mockito.times(expectedEvict + 1)).evict(Mockito.any(Object.class));
+		Mockito.verify(cache, Mockito.times(0)).put(Mockito.startsWith(ICacheInfoManager.GROUP_CACHE_NAME_PREFIX), Mockito.any(Object.class));
 	}
 	
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.freemarker;
+
+import com.agiletec.aps.system.services.pagemodel.PageModel;
+import com.agiletec.aps.system.services.pagemodel.events.PageModelChangedEvent;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import java.util.Arrays;
+import org.entando.entando.aps.system.services.guifragment.GuiFragment;
+import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
+import org.entando.entando.aps.system.services.guifragment.event.GuiFragmentChangedEvent;
+import org.entando.entando.aps.system.services.widgettype.events.WidgetTypeChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FreemarkerTemplateManagerTest {
+
+    @Mock
+    private IGuiFragmentManager guiFragmentManager;
+
+    @InjectMocks
+    private FreemarkerTemplateManager templateManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        GuiFragment fragment = new GuiFragment();
+        fragment.setCode("fragment_code");
+        fragment.setGui("<p>test</p>");
+        Mockito.lenient().when(guiFragmentManager.getGuiFragment("fragment_code")).thenReturn(fragment);
+    }
+
+    @Test
+    void shouldShareConfiguration() {
+        Configuration config = this.templateManager.getConfiguration();
+        Assertions.assertNotNull(config);
+        Assertions.assertSame(config, this.templateManager.getConfiguration());
+        this.templateManager.releaseTenantAware();
+        Assertions.assertNotSame(config, this.templateManager.getConfiguration());
+    }
+
+    @Test
+    void shouldCacheTemplates() throws Exception {
+        Configuration config = this.templateManager.getConfiguration();
+        Template template = config.getTemplate("fragment_code");
+        Assertions.assertSame(template, config.getTemplate("fragment_code"));
+        Mockito.verify(guiFragmentManager, Mockito.times(1)).getGuiFragment("fragment_code");
+    }
+
+    @Test
+    void shouldReturnCachedGuiFragmentTemplate() throws Exception {
+        Template template = this.templateManager.getGuiFragmentTemplate("fragment_code");
+        Assertions.assertSame(template, this.templateManager.getGuiFragmentTemplate("fragment_code"));
+        Assertions.assertSame(template, this.templateManager.getConfiguration().getTemplate("fragment_code"));
+        Mockito.verify(guiFragmentManager, Mockito.times(1)).getGuiFragment("fragment_code");
+    }
+
+    @Test
+    void shouldEvictTemplateOnFragmentChange() throws Exception {
+        Configuration config = this.templateManager.getConfiguration();
+        Template template = config.getTemplate("fragment_code");
+        GuiFragmentChangedEvent event = new GuiFragmentChangedEvent();
+        event.setGuiFragment(this.guiFragmentManager.getGuiFragment("fragment_code"));
+        event.setOperationCode(GuiFragmentChangedEvent.UPDATE_OPERATION_CODE);
+        this.templateManager.updateFromGuiFragmentChanged(event);
+        Assertions.assertNotSame(template, config.getTemplate("fragment_code"));
+    }
+
+    @Test
+    void shouldEvictTemplateOnWidgetTypeChange() throws Exception {
+        Mockito.when(guiFragmentManager.getGuiFragmentCodesByWidgetType("widget_code")).thenReturn(Arrays.asList("fragment_code"));
+        Configuration config = this.templateManager.getConfiguration();
+        Template template = config.getTemplate("fragment_code");
+        WidgetTypeChangedEvent event = new WidgetTypeChangedEvent();
+        event.setWidgetTypeCode("widget_code");
+        this.templateManager.updateFromShowletTypeChanged(event);
+        Assertions.assertNotSame(template, config.getTemplate("fragment_code"));
+    }
+
+    @Test
+    void shouldParsePageModelTemplateOnce() throws Exception {
+        PageModel pageModel = this.createPageModel("<html>${title}</html>");
+        Template template = this.templateManager.getPageModelTemplate(pageModel);
+        Assertions.assertSame(template, this.templateManager.getPageModelTemplate(pageModel));
+        pageModel.setTemplate("<html>${title}!</html>");
+        Template changed = this.templateManager.getPageModelTemplate(pageModel);
+        Assertions.assertNotSame(template, changed);
+        Assertions.assertSame(changed, this.templateManager.getPageModelTemplate(pageModel));
+    }
+
+    @Test
+    void shouldEvictPageModelTemplateOnPageModelChange() throws Exception {
+        PageModel pageModel = this.createPageModel("<html>${title}</html>");
+        Template template = this.templateManager.getPageModelTemplate(pageModel);
+        PageModelChangedEvent event = new PageModelChangedEvent();
+        event.setPageModel(pageModel);
+        event.setOperationCode(PageModelChangedEvent.UPDATE_OPERATION_CODE);
+        this.templateManager.updateFromPageModelChanged(event);
+        Assertions.assertNotSame(template, this.templateManager.getPageModelTemplate(pageModel));
+    }
+
+    private PageModel createPageModel(String template) {
+        PageModel pageModel = new PageModel();
+        pageModel.setCode("model_code");
+        pageModel.setTemplate(template);
+        return pageModel;
+    }
+
+}
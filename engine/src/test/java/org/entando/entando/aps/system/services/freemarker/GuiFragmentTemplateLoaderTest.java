@@ -1,11 +1,9 @@
-package org.entando.entando.aps.servlet;
+package org.entando.entando.aps.system.services.freemarker;
 
 import static org.mockito.ArgumentMatchers.any;
 
 import java.io.IOException;
 import java.io.Reader;
-import org.entando.entando.aps.servlet.ControllerServlet;
-import org.entando.entando.aps.servlet.ControllerServlet.EntTemplateLoader;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 import org.entando.entando.ent.exception.EntException;
@@ -17,16 +15,18 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
-class ControllerServletTest {
+class GuiFragmentTemplateLoaderTest {
 
     @Mock
     private IGuiFragmentManager guiFragmentManager;
 
     @Test
     void shouldBeOk() throws Exception {
-        EntTemplateLoader templateLoader = new EntTemplateLoader(guiFragmentManager);
+        GuiFragmentTemplateLoader templateLoader = new GuiFragmentTemplateLoader(guiFragmentManager);
 
-        Assertions.assertEquals(-1, templateLoader.getLastModified(new Object()));
+        Assertions.assertEquals(-1, templateLoader.getLastModified(null));
+        Assertions.assertEquals("testGui".hashCode(), templateLoader.getLastModified("testGui"));
+        Assertions.assertNotEquals(templateLoader.getLastModified("testGui"), templateLoader.getLastModified("otherGui"));
 
         templateLoader.closeTemplateSource(new Object());
 
@@ -112,6 +112,46 @@ class ApiOAuth2TokenManagerTest {
         Assertions.assertEquals("token", token.getValue());
     }
 
+    @Test
+    void readCachedAccessToken() throws Exception {
+        OAuth2AccessTokenImpl cachedToken = this.createAccessToken("token", 3600000);
+        when(tokenDAO.readAccessToken("token")).thenReturn(cachedToken);
+        Assertions.assertSame(cachedToken, tokenManager.readAccessToken("token"));
+        Assertions.assertSame(cachedToken, tokenManager.readAccessToken("token"));
+        Mockito.verify(tokenDAO, Mockito.times(1)).readAccessToken("token");
+
+        this.tokenManager.removeAccessToken(cachedToken);
+        tokenManager.readAccessToken("token");
+        Mockito.verify(tokenDAO, Mockito.times(2)).readAccessToken("token");
+
+        this.tokenManager.removeAccessTokenUsingRefreshToken(new DefaultOAuth2RefreshToken("refresh"));
+        tokenManager.readAccessToken("token");
+        Mockito.verify(tokenDAO, Mockito.times(3)).readAccessToken("token");
+    }
+
+    @Test
+    void evictCachedAccessTokensByClientId() throws Exception {
+        OAuth2AccessTokenImpl cachedToken = this.createAccessToken("token", 3600000);
+        cachedToken.setClientId("client");
+        when(tokenDAO.readAccessToken("token")).thenReturn(cachedToken);
+        tokenManager.readAccessToken("token");
+        this.tokenManager.evictAccessTokensByClientId("other_client");
+        tokenManager.readAccessToken("token");
+        Mockito.verify(tokenDAO, Mockito.times(1)).readAccessToken("token");
+
+        this.tokenManager.evictAccessTokensByClientId("client");
+        tokenManager.readAccessToken("token");
+        Mockito.verify(tokenDAO, Mockito.times(2)).readAccessToken("token");
+    }
+
+    @Test
+    void readExpiredAccessTokenFromDatabase() throws Exception {
+        when(tokenDAO.readAccessToken("token")).thenReturn(this.createAccessToken("token", -1000));
+        tokenManager.readAccessToken("token");
+        tokenManager.readAccessToken("token");
+        Mockito.verify(tokenDAO, Mockito.times(2)).readAccessToken("token");
+    }
+
     @Test
     void removeAccessToken() throws Exception {
         this.tokenManager.removeAccessToken(this.createMockAccessToken());
@@ -176,6 +216,13 @@ class ApiOAuth2TokenManagerTest {
         return token;
     }
 
+    private OAuth2AccessTokenImpl createAccessToken(String value, long validityMillis) {
+        OAuth2AccessTokenImpl token = new OAuth2AccessTokenImpl(value);
+        token.setExpiration(new Date(System.currentTimeMillis() + validityMillis));
+        token.setRefreshToken(new DefaultOAuth2RefreshToken("refresh"));
+        return token;
+    }
+
     private OAuth2Authentication createMockAuthentication() {
         TestingAuthenticationToken mock = new TestingAuthenticationToken("username", "password");
         OAuth2Request oAuth2Request = new OAuth2Request(null, "clientId", null, true, null, null, null, null, null);
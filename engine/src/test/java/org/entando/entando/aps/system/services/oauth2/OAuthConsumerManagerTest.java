@@ -43,6 +43,9 @@ class OAuthConsumerManagerTest {
     @Mock
     private IOAuthConsumerDAO consumerDAO;
 
+    @Mock
+    private IApiOAuth2TokenManager tokenManager;
+
     @InjectMocks
     private OAuthConsumerManager consumerManager;
 
@@ -122,6 +125,7 @@ class OAuthConsumerManagerTest {
     void deleteConsumer() throws Exception {
         this.consumerManager.deleteConsumer("key_test_1");
         Mockito.verify(consumerDAO, Mockito.times(1)).deleteConsumer(Mockito.anyString());
+        Mockito.verify(tokenManager, Mockito.times(1)).evictAccessTokensByClientId("key_test_1");
     }
 
     @Test
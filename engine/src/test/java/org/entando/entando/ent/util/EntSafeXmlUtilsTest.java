@@ -3,6 +3,7 @@ package org.entando.entando.ent.util;
 import com.agiletec.aps.system.common.entity.parse.EntityHandler;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -12,10 +13,15 @@ import javax.xml.validation.Schema;
 import javax.xml.validation.Validator;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 class EntSafeXmlUtilsTest {
 
@@ -32,6 +38,20 @@ class EntSafeXmlUtilsTest {
         p.parse(xmlIs, handler);
     }
 
+    @Test
+    void testParseWithPooledSAXParser() throws ParserConfigurationException, SAXException, IOException {
+        for (int i = 0; i < 3; i++) {
+            ElementCounter counter = new ElementCounter();
+            EntSafeXmlUtils.parseWithPooledSAXParser(new InputSource(new StringReader("<root><item /><item /></root>")), counter);
+            assertEquals(3, counter.elements);
+        }
+        assertThrows(SAXException.class, () -> EntSafeXmlUtils.parseWithPooledSAXParser(
+                new InputSource(new StringReader("<root><item></root>")), new ElementCounter()));
+        ElementCounter counter = new ElementCounter();
+        EntSafeXmlUtils.parseWithPooledSAXParser(new InputSource(new StringReader("<root />")), counter);
+        assertEquals(1, counter.elements);
+    }
+
     @Test
     void testNewSafeSchemaFactory() throws SAXException, IOException {
         InputStream schemaIs = getResIs("components/test_schema/componentDef-4.2.xsd");
@@ -48,4 +68,14 @@ class EntSafeXmlUtilsTest {
     private InputStream getResIs(String s) {
         return this.getClass().getClassLoader().getResourceAsStream(s);
     }
+
+    private static class ElementCounter extends DefaultHandler {
+
+        private int elements;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            this.elements++;
+        }
+    }
 }
\ No newline at end of file
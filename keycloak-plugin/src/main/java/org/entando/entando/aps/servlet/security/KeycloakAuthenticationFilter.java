@@ -13,13 +13,17 @@ import com.agiletec.aps.system.services.user.IUserManager;
 import com.agiletec.aps.system.services.user.UserDetails;
 import com.agiletec.aps.util.ApsTenantApplicationUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.keycloak.services.KeycloakAuthorizationManager;
 import org.entando.entando.keycloak.services.KeycloakConfiguration;
@@ -48,12 +52,16 @@ public class KeycloakAuthenticationFilter extends AbstractAuthenticationProcessi
 
     private static final Logger log = LoggerFactory.getLogger(KeycloakAuthenticationFilter.class);
 
+    private static final int MAX_PROVISIONED_USERS = 10000;
+
     private final ObjectMapper objectMapper;
     private final KeycloakConfiguration configuration;
     private final IUserManager userManager;
     private final OpenIDConnectService oidcService;
     private final IAuthenticationProviderManager authenticationProviderManager;
     private final KeycloakAuthorizationManager keycloakGroupManager;
+    // fingerprint of the claims and of the default authorizations the user has been provisioned with, by tenant and username
+    private final Cache<String, String> provisionedUsers = CacheBuilder.newBuilder().maximumSize(MAX_PROVISIONED_USERS).build();
 
     @Autowired
     public KeycloakAuthenticationFilter(final KeycloakConfiguration configuration,
@@ -103,15 +111,15 @@ public class KeycloakAuthenticationFilter extends AbstractAuthenticationProcessi
             final UserDetails user = authenticationProviderManager.getUser(accessToken.getUsername());
             final UserAuthentication userAuthentication = new UserAuthentication(user);
 
-            ofNullable(accessToken.getResourceAccess())
+            final List<String> clientRoles = ofNullable(accessToken.getResourceAccess())
                     .map(access -> access.get(configuration.getClientId()))
                     .map(TokenRoles::getRoles)
-                    .ifPresent(permissions -> addAuthorizations(permissions, user));
+                    .orElse(null);
+            ofNullable(clientRoles).ifPresent(permissions -> addAuthorizations(permissions, user));
 
             setUserOnContext(request, user, userAuthentication);
 
-            // TODO optimise to not check on every request
-            keycloakGroupManager.processNewUser(user);
+            processUserIfChanged(user, clientRoles);
 
             return userAuthentication;
         } catch (EntException e) {
@@ -120,6 +128,15 @@ public class KeycloakAuthenticationFilter extends AbstractAuthenticationProcessi
         }
     }
 
+    private void processUserIfChanged(final UserDetails user, final List<String> clientRoles) {
+        final String key = ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE) + ":" + user.getUsername();
+        final String fingerprint = clientRoles + "|" + configuration.getDefaultAuthorizations();
+        if (!Objects.equals(fingerprint, provisionedUsers.getIfPresent(key))) {
+            keycloakGroupManager.processNewUser(user);
+            provisionedUsers.put(key, fingerprint);
+        }
+    }
+
     private void addAuthorizations(final List<String> permissions, final UserDetails user) {
 
         permissions.stream()
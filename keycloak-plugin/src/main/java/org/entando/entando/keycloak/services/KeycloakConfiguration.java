@@ -19,6 +19,8 @@ public class KeycloakConfiguration {
     private String publicClientId;
     private String secureUris;
     private String defaultAuthorizations;
+    private boolean localTokenValidation;
+    private int introspectionCacheSize;
 
     @Autowired
     public void setTenantManager(ITenantManager tenantManager) {
@@ -116,6 +118,22 @@ public class KeycloakConfiguration {
         this.defaultAuthorizations = defaultAuthorizations;
     }
 
+    public boolean isLocalTokenValidation() {
+        return localTokenValidation;
+    }
+
+    public void setLocalTokenValidation(boolean localTokenValidation) {
+        this.localTokenValidation = localTokenValidation;
+    }
+
+    public int getIntrospectionCacheSize() {
+        return introspectionCacheSize;
+    }
+
+    public void setIntrospectionCacheSize(int introspectionCacheSize) {
+        this.introspectionCacheSize = introspectionCacheSize;
+    }
+
     private Optional<TenantConfig> getCurrentConfig() {
         return ApsTenantApplicationUtils.getTenant()
                 .filter(StringUtils::isNotBlank)
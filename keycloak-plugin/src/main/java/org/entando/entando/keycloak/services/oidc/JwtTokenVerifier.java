@@ -0,0 +1,183 @@
+package org.entando.entando.keycloak.services.oidc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.entando.entando.keycloak.services.oidc.model.AccessToken;
+import org.entando.entando.keycloak.services.oidc.model.TokenRoles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Validates Keycloak access tokens locally, checking the signature against the
+ * realm signing keys and the token expiration.
+ * The signing keys are downloaded from the certs endpoint of the realm and kept
+ * in memory; they are downloaded again when a token is signed with an unknown key.
+ */
+class JwtTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private static final long MIN_KEYS_REFRESH_INTERVAL_MILLIS = 30000;
+
+    private static final Map<String, String> SIGNATURE_ALGORITHMS = Map.of(
+            "RS256", "SHA256withRSA",
+            "RS384", "SHA384withRSA",
+            "RS512", "SHA512withRSA");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Map<String, RealmKeys> realmKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Verify a token.
+     * @param token the bearer token
+     * @param realmUrl the url of the realm, i.e. authUrl/realms/realm
+     * @return the verified token, not active if the signature, the issuer or the
+     * validity period are wrong; null if the token can't be verified locally
+     * (not a JWT, unsupported algorithm or unknown signing key)
+     */
+    public AccessToken verify(final String token, final String realmUrl) {
+        final String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        final Map<String, Object> header;
+        final Map<String, Object> claims;
+        try {
+            header = this.decode(parts[0]);
+            claims = this.decode(parts[1]);
+        } catch (IllegalArgumentException | IOException e) {
+            log.debug("Token is not a JWT", e);
+            return null;
+        }
+        final String algorithm = SIGNATURE_ALGORITHMS.get(String.valueOf(header.get("alg")));
+        final PublicKey key = (null != algorithm) ? this.getKey(realmUrl, (String) header.get("kid")) : null;
+        if (null == key) {
+            return null;
+        }
+        final AccessToken accessToken = this.createAccessToken(claims);
+        accessToken.setActive(this.isSignatureValid(parts, algorithm, key) && this.isValid(claims, realmUrl));
+        return accessToken;
+    }
+
+    private boolean isSignatureValid(final String[] parts, final String algorithm, final PublicKey key) {
+        try {
+            final Signature signature = Signature.getInstance(algorithm);
+            signature.initVerify(key);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.debug("Invalid token signature", e);
+            return false;
+        }
+    }
+
+    private boolean isValid(final Map<String, Object> claims, final String realmUrl) {
+        final long now = System.currentTimeMillis() / 1000;
+        final Object exp = claims.get("exp");
+        if (!(exp instanceof Number) || ((Number) exp).longValue() <= now) {
+            return false;
+        }
+        final Object nbf = claims.get("nbf");
+        if (nbf instanceof Number && ((Number) nbf).longValue() > now) {
+            return false;
+        }
+        final Object type = claims.get("typ");
+        if (null != type && !"Bearer".equalsIgnoreCase(type.toString())) {
+            return false;
+        }
+        // the realm is checked but not the host, which changes when keycloak is reached through an internal address
+        final Object issuer = claims.get("iss");
+        final String realmPath = realmUrl.substring(realmUrl.lastIndexOf("/realms/"));
+        return null != issuer && issuer.toString().endsWith(realmPath);
+    }
+
+    private AccessToken createAccessToken(final Map<String, Object> claims) {
+        final AccessToken accessToken = new AccessToken();
+        accessToken.setUsername((String) claims.get("preferred_username"));
+        accessToken.setName((String) claims.get("name"));
+        accessToken.setEmail((String) claims.get("email"));
+        final Object exp = claims.get("exp");
+        accessToken.setExpiration((exp instanceof Number) ? ((Number) exp).longValue() : null);
+        final Object resourceAccess = claims.get("resource_access");
+        if (null != resourceAccess) {
+            accessToken.setResourceAccess(this.objectMapper.convertValue(resourceAccess, new TypeReference<Map<String, TokenRoles>>() {}));
+        }
+        return accessToken;
+    }
+
+    private Map<String, Object> decode(final String part) throws IOException {
+        return this.objectMapper.readValue(Base64.getUrlDecoder().decode(part), new TypeReference<Map<String, Object>>() {});
+    }
+
+    private PublicKey getKey(final String realmUrl, final String keyId) {
+        final RealmKeys keys = this.realmKeys.computeIfAbsent(realmUrl, url -> new RealmKeys());
+        PublicKey key = keys.getKey(keyId);
+        if (null == key && keys.canRefresh()) {
+            synchronized (keys) {
+                key = keys.getKey(keyId);
+                if (null == key && keys.canRefresh()) {
+                    keys.setKeys(this.loadKeys(realmUrl));
+                    key = keys.getKey(keyId);
+                }
+            }
+        }
+        return key;
+    }
+
+    private Map<String, PublicKey> loadKeys(final String realmUrl) {
+        final Map<String, PublicKey> keys = new HashMap<>();
+        try {
+            final String response = new RestTemplate().getForObject(realmUrl + "/protocol/openid-connect/certs", String.class);
+            final Map<String, List<Map<String, String>>> jwks = this.objectMapper.readValue(response,
+                    new TypeReference<Map<String, List<Map<String, String>>>>() {});
+            for (final Map<String, String> jwk : jwks.getOrDefault("keys", Collections.emptyList())) {
+                if ("RSA".equals(jwk.get("kty")) && !"enc".equals(jwk.get("use")) && null != jwk.get("kid")) {
+                    final BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("n")));
+                    final BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("e")));
+                    keys.put(jwk.get("kid"), KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+                }
+            }
+        } catch (RestClientException | GeneralSecurityException | IOException | IllegalArgumentException e) {
+            log.error("Error loading the signing keys of realm {}", realmUrl, e);
+        }
+        return keys;
+    }
+
+    private static class RealmKeys {
+
+        private volatile Map<String, PublicKey> keys = Collections.emptyMap();
+        private volatile long lastRefresh;
+
+        PublicKey getKey(final String keyId) {
+            return (null != keyId) ? this.keys.get(keyId) : null;
+        }
+
+        boolean canRefresh() {
+            return System.currentTimeMillis() - this.lastRefresh > MIN_KEYS_REFRESH_INTERVAL_MILLIS;
+        }
+
+        void setKeys(final Map<String, PublicKey> keys) {
+            this.keys = keys;
+            this.lastRefresh = System.currentTimeMillis();
+        }
+    }
+
+}
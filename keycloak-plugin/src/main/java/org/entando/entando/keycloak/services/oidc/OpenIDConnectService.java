@@ -1,6 +1,9 @@
 package org.entando.entando.keycloak.services.oidc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.entando.entando.KeycloakWiki;
 import org.entando.entando.keycloak.services.KeycloakConfiguration;
@@ -36,10 +39,14 @@ public class OpenIDConnectService {
     private static final Logger log = LoggerFactory.getLogger(OpenIDConnectService.class);
 
     private final KeycloakConfiguration configuration;
+    private final JwtTokenVerifier tokenVerifier = new JwtTokenVerifier();
+    private final Cache<String, AccessToken> introspectionCache;
 
     @Autowired
     public OpenIDConnectService(final KeycloakConfiguration configuration) {
         this.configuration = configuration;
+        final int cacheSize = configuration.getIntrospectionCacheSize();
+        this.introspectionCache = (cacheSize > 0) ? CacheBuilder.newBuilder().maximumSize(cacheSize).build() : null;
     }
 
     public AuthResponse login(final String username, final String password) throws OidcException {
@@ -152,11 +159,50 @@ public class OpenIDConnectService {
         return new HttpEntity<>(body, headers);
     }
 
+    /**
+     * Validate a bearer token.
+     * When local validation is enabled the token signature is checked against
+     * the realm signing keys, otherwise (or when the token can't be verified
+     * locally) the token is sent to the introspection endpoint; if the
+     * introspection cache is enabled, active tokens are cached by hash until
+     * their expiration.
+     */
     public ResponseEntity<AccessToken> validateToken(final String bearerToken) {
+        final String realmUrl = String.format("%s/realms/%s", configuration.getAuthUrl(), configuration.getRealm());
+        if (configuration.isLocalTokenValidation()) {
+            final AccessToken accessToken = tokenVerifier.verify(bearerToken, realmUrl);
+            if (accessToken != null) {
+                return ResponseEntity.ok(accessToken);
+            }
+        }
+        if (introspectionCache == null) {
+            return introspectToken(bearerToken, realmUrl);
+        }
+        final String cacheKey = realmUrl + ":" + DigestUtils.sha256Hex(bearerToken);
+        final AccessToken cached = introspectionCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return ResponseEntity.ok(cached);
+            }
+            introspectionCache.invalidate(cacheKey);
+        }
+        final ResponseEntity<AccessToken> response = introspectToken(bearerToken, realmUrl);
+        final AccessToken accessToken = response.getBody();
+        if (HttpStatus.OK.equals(response.getStatusCode()) && accessToken != null
+                && accessToken.isActive() && accessToken.getExpiration() != null && !isExpired(accessToken)) {
+            introspectionCache.put(cacheKey, accessToken);
+        }
+        return response;
+    }
+
+    private ResponseEntity<AccessToken> introspectToken(final String bearerToken, final String realmUrl) {
         final RestTemplate restTemplate = new RestTemplate();
         final HttpEntity<MultiValueMap<String, String>> req = createValidationRequest(bearerToken);
-        final String url = String.format("%s/realms/%s/protocol/openid-connect/token/introspect", configuration.getAuthUrl(), configuration.getRealm());
-        return restTemplate.postForEntity(url, req, AccessToken.class);
+        return restTemplate.postForEntity(realmUrl + "/protocol/openid-connect/token/introspect", req, AccessToken.class);
+    }
+
+    private boolean isExpired(final AccessToken accessToken) {
+        return accessToken.getExpiration() <= System.currentTimeMillis() / 1000;
     }
 
     public ResponseEntity<AuthResponse> refreshToken(final String refreshToken) {
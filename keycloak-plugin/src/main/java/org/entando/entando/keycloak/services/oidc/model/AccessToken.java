@@ -15,6 +15,9 @@ public class AccessToken {
 
     private boolean active;
 
+    @JsonProperty("exp")
+    private Long expiration;
+
     @Override
     public String toString() {
         return String.format("{name=%s, username=%s, email=%s, active=%s}", name, username, email, active);
@@ -52,6 +55,14 @@ public class AccessToken {
         this.active = active;
     }
 
+    public Long getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(final Long expiration) {
+        this.expiration = expiration;
+    }
+
     public Map<String, TokenRoles> getResourceAccess() {
         return resourceAccess;
     }
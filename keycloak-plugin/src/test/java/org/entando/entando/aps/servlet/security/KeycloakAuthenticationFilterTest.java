@@ -154,6 +154,22 @@ class KeycloakAuthenticationFilterTest {
         }
     }
 
+    @Test
+    void attemptAuthenticationShouldProcessUserOnlyWhenClaimsChange() throws Exception {
+        this.mockForAttemptAuthenticationTest();
+        when(tokenRoles.getRoles()).thenReturn(Collections.singletonList(Permission.ENTER_BACKEND));
+        try ( MockedStatic<WebApplicationContextUtils> wacUtil = Mockito.mockStatic(WebApplicationContextUtils.class)) {
+            wacUtil.when(() -> WebApplicationContextUtils.getWebApplicationContext(svCtx)).thenReturn(wac);
+            keycloakAuthenticationFilter.attemptAuthentication(request, response);
+            keycloakAuthenticationFilter.attemptAuthentication(request, response);
+            verify(keycloakGroupManager, times(1)).processNewUser(any());
+
+            when(tokenRoles.getRoles()).thenReturn(Arrays.asList(Permission.ENTER_BACKEND, Permission.SUPERUSER));
+            keycloakAuthenticationFilter.attemptAuthentication(request, response);
+            verify(keycloakGroupManager, times(2)).processNewUser(any());
+        }
+    }
+
     private void mockForAttemptAuthenticationTest() throws Exception {
 
         when(request.getHeader("Authorization")).thenReturn("Bearer jwt");
@@ -13,8 +13,24 @@
  */
 package org.entando.entando.keycloak.services.oidc;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.entando.entando.keycloak.services.KeycloakConfiguration;
+import org.entando.entando.keycloak.services.oidc.model.AccessToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,13 +38,47 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 
 @ExtendWith(MockitoExtension.class)
 class OpenIDConnectServiceTest {
 
+    private static final String REALM_PATH = "/auth/realms/ent";
+
     @Mock
     private KeycloakConfiguration keycloakConfiguration;
 
+    private HttpServer identityProvider;
+    private KeyPair keyPair;
+    private final AtomicInteger certsRequests = new AtomicInteger();
+    private final AtomicInteger introspectRequests = new AtomicInteger();
+    private volatile String introspectResponse;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) this.keyPair.getPublic();
+        String jwks = "{\"keys\":[{\"kid\":\"k1\",\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\","
+                + "\"n\":\"" + this.encode(publicKey.getModulus()) + "\",\"e\":\"" + this.encode(publicKey.getPublicExponent()) + "\"}]}";
+        this.identityProvider = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.identityProvider.createContext(REALM_PATH + "/protocol/openid-connect/certs", exchange -> {
+            this.certsRequests.incrementAndGet();
+            this.respond(exchange, jwks);
+        });
+        this.identityProvider.createContext(REALM_PATH + "/protocol/openid-connect/token/introspect", exchange -> {
+            this.introspectRequests.incrementAndGet();
+            this.respond(exchange, this.introspectResponse);
+        });
+        this.identityProvider.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.identityProvider.stop(0);
+    }
+
     @Test
     void shouldHeadersGenerationBeCorrect(){
         OpenIDConnectService testService = new OpenIDConnectService(keycloakConfiguration) {
@@ -98,4 +148,100 @@ class OpenIDConnectServiceTest {
         Assertions.assertEquals(expectedUrl, actualLogoutUrl);
 
     }
+
+    @Test
+    void shouldValidateTokenLocally() throws Exception {
+        OpenIDConnectService testService = this.createStubService(true, 0);
+        long exp = System.currentTimeMillis() / 1000 + 300;
+        String token = this.createToken("{\"iss\":\"http://keycloak.entando.org" + REALM_PATH + "\",\"typ\":\"Bearer\",\"exp\":" + exp
+                + ",\"preferred_username\":\"admin\",\"resource_access\":{\"clientId\":{\"roles\":[\"superuser\"]}}}");
+
+        ResponseEntity<AccessToken> response = testService.validateToken(token);
+        Assertions.assertTrue(response.getBody().isActive());
+        Assertions.assertEquals("admin", response.getBody().getUsername());
+        Assertions.assertEquals(exp, response.getBody().getExpiration());
+        Assertions.assertEquals("superuser", response.getBody().getResourceAccess().get("clientId").getRoles().get(0));
+
+        Assertions.assertTrue(testService.validateToken(token).getBody().isActive());
+        Assertions.assertEquals(1, this.certsRequests.get());
+        Assertions.assertEquals(0, this.introspectRequests.get());
+    }
+
+    @Test
+    void shouldRejectInvalidTokensLocally() throws Exception {
+        OpenIDConnectService testService = this.createStubService(true, 0);
+        long exp = System.currentTimeMillis() / 1000 + 300;
+        String token = this.createToken("{\"iss\":\"http://localhost" + REALM_PATH + "\",\"exp\":" + exp + ",\"preferred_username\":\"admin\"}");
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + this.encode("{\"iss\":\"http://localhost" + REALM_PATH + "\",\"exp\":" + exp
+                + ",\"preferred_username\":\"other\"}") + "." + parts[2];
+        Assertions.assertFalse(testService.validateToken(tampered).getBody().isActive());
+
+        String expired = this.createToken("{\"iss\":\"http://localhost" + REALM_PATH + "\",\"exp\":" + (exp - 600) + ",\"preferred_username\":\"admin\"}");
+        Assertions.assertFalse(testService.validateToken(expired).getBody().isActive());
+
+        String otherRealm = this.createToken("{\"iss\":\"http://localhost/auth/realms/other\",\"exp\":" + exp + ",\"preferred_username\":\"admin\"}");
+        Assertions.assertFalse(testService.validateToken(otherRealm).getBody().isActive());
+        Assertions.assertEquals(0, this.introspectRequests.get());
+    }
+
+    @Test
+    void shouldCacheIntrospectionResults() throws Exception {
+        OpenIDConnectService testService = this.createStubService(false, 10);
+        long exp = System.currentTimeMillis() / 1000 + 300;
+        this.introspectResponse = "{\"active\":true,\"username\":\"admin\",\"exp\":" + exp + "}";
+
+        Assertions.assertTrue(testService.validateToken("token1").getBody().isActive());
+        Assertions.assertEquals("admin", testService.validateToken("token1").getBody().getUsername());
+        Assertions.assertEquals(1, this.introspectRequests.get());
+
+        this.introspectResponse = "{\"active\":false}";
+        Assertions.assertFalse(testService.validateToken("token2").getBody().isActive());
+        Assertions.assertFalse(testService.validateToken("token2").getBody().isActive());
+        Assertions.assertEquals(3, this.introspectRequests.get());
+        Assertions.assertEquals(0, this.certsRequests.get());
+    }
+
+    @Test
+    void shouldIntrospectTokensNotVerifiableLocally() throws Exception {
+        OpenIDConnectService testService = this.createStubService(true, 0);
+        this.introspectResponse = "{\"active\":true,\"username\":\"admin\"}";
+        Assertions.assertTrue(testService.validateToken("opaque").getBody().isActive());
+        Assertions.assertEquals(1, this.introspectRequests.get());
+    }
+
+    private OpenIDConnectService createStubService(boolean localValidation, int cacheSize) {
+        Mockito.when(keycloakConfiguration.getIntrospectionCacheSize()).thenReturn(cacheSize);
+        Mockito.when(keycloakConfiguration.isLocalTokenValidation()).thenReturn(localValidation);
+        Mockito.when(keycloakConfiguration.getAuthUrl()).thenReturn("http://localhost:" + this.identityProvider.getAddress().getPort() + "/auth");
+        Mockito.when(keycloakConfiguration.getRealm()).thenReturn("ent");
+        Mockito.lenient().when(keycloakConfiguration.getClientId()).thenReturn("clientId");
+        Mockito.lenient().when(keycloakConfiguration.getClientSecret()).thenReturn("secretId");
+        return new OpenIDConnectService(keycloakConfiguration);
+    }
+
+    private String createToken(String claims) throws Exception {
+        String content = this.encode("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"k1\"}") + "." + this.encode(claims);
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(this.keyPair.getPrivate());
+        signature.update(content.getBytes(StandardCharsets.US_ASCII));
+        return content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String encode(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
 }
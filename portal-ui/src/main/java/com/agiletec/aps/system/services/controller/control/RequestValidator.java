@@ -28,7 +28,6 @@ import com.agiletec.aps.system.services.lang.ILangManager;
 import com.agiletec.aps.system.services.lang.Lang;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.page.IPageManager;
-import com.agiletec.aps.system.services.page.PageUtils;
 
 /**
  * Implementazione del un sottoservizio di controllo che verifica la validità
@@ -153,26 +152,15 @@ public class RequestValidator extends AbstractControlService {
      * @return un oggetto Page oppure null
      */
     private IPage getPage(Matcher matcher) {
-        IPage page = null;
         String rootCode = this.getPageManager().getOnlineRoot().getCode();
         String path = matcher.group(2);
         // Se il path è di tipo /it o /it/ o /it/homepage
         if (path.trim().length() == 0 || path.substring(1).equals(rootCode)) {
             return this.getPageManager().getOnlineRoot();
         }
-        String pageCode = matcher.group(3).substring(1);
-        IPage tempPage = this.getPageManager().getOnlinePage(pageCode);
-        if (null != tempPage) {
-            // la pagina esiste ed è di livello 1
-            // if(tempPage.getParentCode().equals(rootCode)) return tempPage;
-            // la pagina è di livello superiore al primo e il path è corretto
-            String fullPath = matcher.group(2).substring(1).trim();
-            String createdlFullPath = PageUtils.getFullPath(this.getPageManager(), tempPage, "/").toString();
-            if (null != tempPage && createdlFullPath.equals(fullPath)) {
-                page = tempPage;
-            }
-        }
-        return page;
+        // la pagina è restituita solo se il path completo è corretto
+        String fullPath = path.substring(1).trim();
+        return this.getPageManager().getOnlinePageByFullPath(fullPath);
     }
 
     /**
@@ -18,20 +18,14 @@ import com.agiletec.aps.system.SystemConstants;
 import com.agiletec.aps.system.services.baseconfig.ConfigInterface;
 import com.agiletec.aps.system.services.controller.ControllerManager;
 import com.agiletec.aps.util.ApsWebApplicationUtils;
-import freemarker.cache.TemplateLoader;
-import freemarker.core.TemplateClassResolver;
 import freemarker.ext.jsp.TaglibFactory;
 import freemarker.ext.servlet.AllHttpScopesHashModel;
 import freemarker.ext.servlet.ServletContextHashModel;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapper;
 import freemarker.template.ObjectWrapper;
-import freemarker.template.TemplateExceptionHandler;
 import freemarker.template.TemplateModel;
 import freemarker.template.TemplateModelException;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
 import java.security.SecureRandom;
 import java.util.List;
 import javax.servlet.ServletContext;
@@ -41,8 +35,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.entando.entando.aps.system.services.controller.executor.ExecutorBeanContainer;
 import org.entando.entando.aps.system.services.controller.executor.ExecutorServiceInterface;
-import org.entando.entando.aps.system.services.guifragment.GuiFragment;
-import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,15 +122,9 @@ public class ControllerServlet extends freemarker.ext.servlet.FreemarkerServlet
 	protected void initFreemarker(HttpServletRequest request,
 			HttpServletResponse response, RequestContext reqCtx)
 			throws TemplateModelException {
-		Configuration config = new Configuration();
-		DefaultObjectWrapper wrapper = new DefaultObjectWrapper();
-		config.setTemplateExceptionHandler(TemplateExceptionHandler.HTML_DEBUG_HANDLER);
-		config.setObjectWrapper(wrapper);
-		config.setTemplateExceptionHandler(TemplateExceptionHandler.DEBUG_HANDLER);
-		IGuiFragmentManager fragmentManager = (IGuiFragmentManager) ApsWebApplicationUtils.getBean(SystemConstants.GUI_FRAGMENT_MANAGER, request);
-		config.setTemplateLoader(new EntTemplateLoader(fragmentManager));
-		config.setNewBuiltinClassResolver(TemplateClassResolver.SAFER_RESOLVER);
-		TemplateModel templateModel = this.createModel(wrapper, this.getServletContext(), request, response);
+		IFreemarkerTemplateManager templateManager = (IFreemarkerTemplateManager) ApsWebApplicationUtils.getBean(SystemConstants.FREEMARKER_TEMPLATE_MANAGER, request);
+		Configuration config = templateManager.getConfiguration();
+		TemplateModel templateModel = this.createModel(config.getObjectWrapper(), this.getServletContext(), request, response);
 		ExecutorBeanContainer ebc = new ExecutorBeanContainer(config, templateModel);
 		reqCtx.setExecutorBeanContainer(ebc);
 	}
@@ -198,42 +185,4 @@ public class ControllerServlet extends freemarker.ext.servlet.FreemarkerServlet
 	private static final String ATTR_APPLICATION_MODEL = ".freemarker.Application";
 	private static final String ATTR_JSP_TAGLIBS_MODEL = ".freemarker.JspTaglibs";
 
-	public static class EntTemplateLoader implements TemplateLoader {
-
-		private IGuiFragmentManager guiFragmentManager;
-
-		public EntTemplateLoader(IGuiFragmentManager guiFragmentManager) {
-			this.guiFragmentManager = guiFragmentManager;
-		}
-
-		@Override
-		public Object findTemplateSource(String code) throws IOException {
-			try {
-				GuiFragment fragment = this.guiFragmentManager.getGuiFragment(code);
-				if (null != fragment) {
-					return fragment.getCurrentGui();
-				}
-				return null;
-			} catch (Exception e) {
-				throw new IOException("Error extracting fragment " + code, e);
-			}
-		}
-
-		@Override
-		public long getLastModified(Object o) {
-			//nothing to do
-			return -1;
-		}
-
-		@Override
-		public Reader getReader(Object templateSource, String encoding) throws IOException {
-			return new StringReader((String) templateSource);
-		}
-
-		@Override
-		public void closeTemplateSource(Object o) throws IOException {
-			//nothing to do
-		}
-
-	}
 }
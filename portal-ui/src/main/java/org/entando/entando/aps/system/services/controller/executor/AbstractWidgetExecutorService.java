@@ -21,19 +21,30 @@ import com.agiletec.aps.system.services.group.Group;
 import com.agiletec.aps.system.services.page.IPage;
 import com.agiletec.aps.system.services.page.Widget;
 import com.agiletec.aps.system.services.user.UserDetails;
+import com.agiletec.aps.tags.util.HeadInfoContainer;
 import com.agiletec.aps.tags.util.IFrameDecoratorContainer;
 import com.agiletec.aps.util.ApsProperties;
 import com.agiletec.aps.util.ApsWebApplicationUtils;
+import freemarker.ext.servlet.AllHttpScopesHashModel;
+import freemarker.ext.servlet.FreemarkerServlet;
+import freemarker.ext.servlet.HttpRequestHashModel;
+import freemarker.ext.servlet.HttpRequestParametersHashModel;
+import freemarker.template.ObjectWrapper;
 import freemarker.template.Template;
-import java.io.ByteArrayOutputStream;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.StringReader;
-import java.io.Writer;
+import java.io.Serializable;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -41,6 +52,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.beanutils.BeanComparator;
 import org.apache.commons.lang.StringUtils;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateManager;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 import org.entando.entando.aps.system.services.widgettype.IWidgetTypeManager;
@@ -56,10 +68,29 @@ public abstract class AbstractWidgetExecutorService {
 
 	private static final Logger _logger = LoggerFactory.getLogger(AbstractWidgetExecutorService.class);
 
+	private static final String[] SHARED_TEMPLATE_MODEL_KEYS = {FreemarkerServlet.KEY_APPLICATION,
+			FreemarkerServlet.KEY_APPLICATION_PRIVATE, FreemarkerServlet.KEY_SESSION};
+
+	/**
+	 * Template directives that need the live request and response: jsp tags and page includes.
+	 */
+	private static final String[] REQUEST_BOUND_DIRECTIVES = {FreemarkerServlet.KEY_JSP_TAGLIBS, FreemarkerServlet.KEY_INCLUDE};
+
+	private static final List<String> FRAME_EXTRA_PARAMS = Arrays.asList(SystemConstants.EXTRAPAR_CURRENT_FRAME,
+			SystemConstants.EXTRAPAR_CURRENT_WIDGET, SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER,
+			SystemConstants.EXTRAPAR_EXECUTOR_BEAN_CONTAINER);
+
+	private transient FrameRenderingExecutor frameRenderingExecutor;
+
 	protected void buildWidgetsOutput(RequestContext reqCtx, IPage page, String[] widgetOutput) throws ApsSystemException {
 		try {
 			List<IFrameDecoratorContainer> decorators = this.extractDecorators(reqCtx);
 			Widget[] widgets = page.getWidgets();
+			FrameRenderingExecutor renderingExecutor = this.getFrameRenderingExecutor();
+			if (null != renderingExecutor && renderingExecutor.isEnabled() && widgets.length > 1) {
+				this.buildWidgetsOutputConcurrently(reqCtx, widgets, decorators, widgetOutput, renderingExecutor);
+				return;
+			}
 			for (int frame = 0; frame < widgets.length; frame++) {
 				reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, frame);
 				Widget widget = widgets[frame];
@@ -73,6 +104,157 @@ public abstract class AbstractWidgetExecutorService {
 		}
 	}
 
+	/**
+	 * Render the frames whose widget is based on plain freemarker fragments in the rendering executor
+	 * and the other ones in the request thread; the outputs, the head infos and the extra
+	 * parameters set by the widgets are then collected in frame order.
+	 * The frames rendered in the executor get a copy of the request and no response.
+	 * Frames that can't be accepted by the executor are rendered in the request thread;
+	 * frames not completed within their timeout or the page timeout get the fallback output.
+	 * When a frame fails the renderings still pending are cancelled.
+	 */
+	protected void buildWidgetsOutputConcurrently(RequestContext reqCtx, Widget[] widgets,
+			List<IFrameDecoratorContainer> decorators, String[] widgetOutput, FrameRenderingExecutor renderingExecutor) throws Throwable {
+		Map<Integer, FrameRendering> renderings = new HashMap<>();
+		long deadline = renderingExecutor.getDeadline();
+		for (int frame = 0; frame < widgets.length; frame++) {
+			Widget widget = widgets[frame];
+			if (!this.isConcurrentlyRenderable(reqCtx, widget, decorators)) {
+				continue;
+			}
+			RequestContext frameCtx = this.createFrameContext(reqCtx, frame);
+			Map<String, Object> initialExtraParams = new HashMap<>(frameCtx.getExtraParams());
+			Future<String> output = renderingExecutor.submit(() -> this.buildWidgetOutput(frameCtx, widget, decorators));
+			if (null != output) {
+				renderings.put(frame, new FrameRendering(frameCtx, initialExtraParams, output));
+			}
+		}
+		HeadInfoContainer headInfo = (HeadInfoContainer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER);
+		boolean completed = false;
+		try {
+			for (int frame = 0; frame < widgets.length; frame++) {
+				FrameRendering rendering = renderings.get(frame);
+				if (null == rendering) {
+					reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, frame);
+					widgetOutput[frame] = this.buildWidgetOutput(reqCtx, widgets[frame], decorators);
+					reqCtx.removeExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME);
+					continue;
+				}
+				try {
+					widgetOutput[frame] = renderingExecutor.getOutput(rendering.getOutput(), deadline, frame);
+				} catch (ExecutionException e) {
+					throw e.getCause();
+				}
+				if (rendering.getOutput().isCancelled()) {
+					continue;
+				}
+				rendering.getChangedExtraParams().forEach((name, value) -> {
+					if (!FRAME_EXTRA_PARAMS.contains(name) && value instanceof Serializable) {
+						reqCtx.addExtraParam(name, (Serializable) value);
+					}
+				});
+				if (null != headInfo) {
+					headInfo.addAll((HeadInfoContainer) rendering.getContext().getExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER));
+				}
+			}
+			completed = true;
+		} finally {
+			if (!completed) {
+				renderings.values().forEach(rendering -> renderingExecutor.cancel(rendering.getOutput()));
+			}
+		}
+		reqCtx.removeExtraParam(SystemConstants.EXTRAPAR_CURRENT_WIDGET);
+	}
+
+	/**
+	 * A frame can be rendered outside the request thread only if its widget and
+	 * decorators are rendered through freemarker fragments that don't use jsp tags
+	 * or page includes: dispatching to jsp must be executed by the request thread.
+	 * A session must already exist, as it can't be created by the frame.
+	 */
+	protected boolean isConcurrentlyRenderable(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators) {
+		if (null == widget || null == reqCtx.getRequest().getSession(false)) {
+			return false;
+		}
+		IWidgetTypeManager widgetTypeManager = (IWidgetTypeManager) ApsWebApplicationUtils.getBean(SystemConstants.WIDGET_TYPE_MANAGER, reqCtx.getRequest());
+		WidgetType type = widgetTypeManager.getWidgetType(widget.getTypeCode());
+		if (null == type || !this.isUserAllowed(reqCtx, type)) {
+			return false;
+		}
+		String widgetTypeCode = (type.isLogic()) ? type.getParentType().getCode() : type.getCode();
+		try {
+			IGuiFragmentManager guiFragmentManager = (IGuiFragmentManager) ApsWebApplicationUtils.getBean(
+					SystemConstants.GUI_FRAGMENT_MANAGER, reqCtx.getRequest());
+			for (IFrameDecoratorContainer decorator : decorators) {
+				if (!this.isConcurrentlyRenderable(guiFragmentManager, decorator.getHeaderFragmentCode(), decorator.getHeaderJspPath())
+						|| !this.isConcurrentlyRenderable(guiFragmentManager, decorator.getFooterFragmentCode(), decorator.getFooterJspPath())) {
+					return false;
+				}
+			}
+			GuiFragment fragment = guiFragmentManager.getUniqueGuiFragmentByWidgetType(widgetTypeCode);
+			return null != fragment && !usesRequestBoundDirectives(fragment.getCurrentGui());
+		} catch (Exception e) {
+			_logger.error("Error extracting fragment of widget '{}'", widgetTypeCode, e);
+			return false;
+		}
+	}
+
+	private boolean isConcurrentlyRenderable(IGuiFragmentManager guiFragmentManager, String fragmentCode, String jspPath) throws Exception {
+		if (StringUtils.isBlank(fragmentCode)) {
+			return StringUtils.isBlank(jspPath);
+		}
+		GuiFragment fragment = guiFragmentManager.getGuiFragment(fragmentCode);
+		return null == fragment || !usesRequestBoundDirectives(fragment.getCurrentGui());
+	}
+
+	protected static boolean usesRequestBoundDirectives(String gui) {
+		return null != gui && StringUtils.indexOfAny(gui, REQUEST_BOUND_DIRECTIVES) >= 0;
+	}
+
+	/**
+	 * Create the context used to render a frame outside the request thread:
+	 * the context has its own copy of the request, extra parameters, head infos and template model,
+	 * and no response.
+	 */
+	protected RequestContext createFrameContext(RequestContext reqCtx, int frame) throws TemplateModelException {
+		RequestContext frameCtx = new RequestContext(reqCtx);
+		HttpServletRequest frameRequest = new FrameRequest(reqCtx.getRequest(), frameCtx);
+		frameCtx.setRequest(frameRequest);
+		frameCtx.setResponse(null);
+		frameCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, frame);
+		frameCtx.addExtraParam(SystemConstants.EXTRAPAR_HEAD_INFO_CONTAINER, new HeadInfoContainer());
+		ExecutorBeanContainer ebc = reqCtx.getExecutorBeanContainer();
+		TemplateModel frameModel = createFrameTemplateModel(ebc.getTemplateModel(),
+				ebc.getConfiguration().getObjectWrapper(), frameRequest);
+		frameCtx.setExecutorBeanContainer(new ExecutorBeanContainer(ebc.getConfiguration(), frameModel));
+		return frameCtx;
+	}
+
+	/**
+	 * Create the template model of a frame: application and session models are shared with
+	 * the request, the request models are built on the copy of the request; jsp tags and page
+	 * includes are not available.
+	 */
+	protected static TemplateModel createFrameTemplateModel(TemplateModel model, ObjectWrapper wrapper,
+			HttpServletRequest request) throws TemplateModelException {
+		if (!(model instanceof AllHttpScopesHashModel)) {
+			return model;
+		}
+		AllHttpScopesHashModel requestModel = (AllHttpScopesHashModel) model;
+		AllHttpScopesHashModel frameModel = new AllHttpScopesHashModel(wrapper, request.getServletContext(), request);
+		for (String key : SHARED_TEMPLATE_MODEL_KEYS) {
+			TemplateModel sharedModel = requestModel.get(key);
+			if (null != sharedModel) {
+				frameModel.putUnlistedModel(key, sharedModel);
+			}
+		}
+		HttpRequestHashModel frameRequestModel = new HttpRequestHashModel(request, wrapper);
+		frameModel.putUnlistedModel(FreemarkerServlet.KEY_REQUEST, frameRequestModel);
+		frameModel.putUnlistedModel(FreemarkerServlet.KEY_REQUEST_PRIVATE, frameRequestModel);
+		frameModel.putUnlistedModel(FreemarkerServlet.KEY_REQUEST_PARAMETERS, new HttpRequestParametersHashModel(request));
+		return frameModel;
+	}
+
 	protected String buildWidgetOutput(RequestContext reqCtx, Widget widget, List<IFrameDecoratorContainer> decorators)
 			throws ApsSystemException {
 		StringBuilder buffer = new StringBuilder();
@@ -195,18 +377,12 @@ public abstract class AbstractWidgetExecutorService {
 				return "";
 			}
 			ExecutorBeanContainer ebc = reqCtx.getExecutorBeanContainer();
-			Integer frame = (Integer) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME);
-			Widget currentWidget = (Widget) reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_WIDGET);
-			StringBuilder templateName = new StringBuilder(String.valueOf(frame)).append("_").append(fragment.getCode());
-			if (null != currentWidget && null != currentWidget.getTypeCode()) {
-				templateName.append("_").append(currentWidget.getTypeCode());
-			}
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			Writer out = new OutputStreamWriter(baos);
-			Template template = new Template(templateName.toString(), new StringReader(currentGui), ebc.getConfiguration());
+			IFreemarkerTemplateManager templateManager = (IFreemarkerTemplateManager) ApsWebApplicationUtils.getBean(
+					SystemConstants.FREEMARKER_TEMPLATE_MANAGER, reqCtx.getRequest());
+			Template template = templateManager.getGuiFragmentTemplate(fragment.getCode());
+			StringWriter out = new StringWriter(currentGui.length());
 			template.process(ebc.getTemplateModel(), out);
-			out.flush();
-			return baos.toString().trim();
+			return out.toString().trim();
 		} catch (Throwable t) {
 			String msg = "Error creating fragment output - code '" + fragment.getCode() + "'";
 			_logger.error(msg, t);
@@ -214,6 +390,13 @@ public abstract class AbstractWidgetExecutorService {
 		}
 	}
 
+	public FrameRenderingExecutor getFrameRenderingExecutor() {
+		return frameRenderingExecutor;
+	}
+	public void setFrameRenderingExecutor(FrameRenderingExecutor frameRenderingExecutor) {
+		this.frameRenderingExecutor = frameRenderingExecutor;
+	}
+
 	protected boolean isUserAllowed(RequestContext reqCtx, WidgetType widgetType) {
 		if (null == widgetType) {
 			return false;
@@ -257,6 +440,41 @@ public abstract class AbstractWidgetExecutorService {
 		return wrapper.getOutput();
 	}
     
+	/**
+	 * The rendering of a frame in progress, with the extra parameters of its context at submission time.
+	 */
+	private static final class FrameRendering {
+
+		private final RequestContext context;
+		private final Map<String, Object> initialExtraParams;
+		private final Future<String> output;
+
+		private FrameRendering(RequestContext context, Map<String, Object> initialExtraParams, Future<String> output) {
+			this.context = context;
+			this.initialExtraParams = initialExtraParams;
+			this.output = output;
+		}
+
+		private RequestContext getContext() {
+			return context;
+		}
+
+		private Future<String> getOutput() {
+			return output;
+		}
+
+		private Map<String, Object> getChangedExtraParams() {
+			Map<String, Object> changed = new HashMap<>();
+			this.context.getExtraParams().forEach((name, value) -> {
+				if (value != this.initialExtraParams.get(name)) {
+					changed.put(name, value);
+				}
+			});
+			return changed;
+		}
+
+	}
+
     public static class CurrentLogicWidget extends Widget {
         
         private ApsProperties config;
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.executor;
+
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Bounded executor used to render the frames of a page concurrently.
+ * The pool has a fixed number of threads and a bounded queue; moreover every
+ * tenant can have only a limited number of frames in rendering at the same time.
+ * When a frame can't be accepted the caller is expected to render it by itself.
+ * Every frame has its own timeout, counted from its submission, and all the frames
+ * of a page share a single deadline, given by the page timeout.
+ */
+public class FrameRenderingExecutor implements InitializingBean, DisposableBean {
+
+	private static final Logger _logger = LoggerFactory.getLogger(FrameRenderingExecutor.class);
+
+	private static final String PRIMARY_TENANT = "";
+
+	private boolean enabled;
+	private int threads = 8;
+	private int queueSize = 64;
+	private int maxFramesPerTenant = 32;
+	private long frameTimeoutMillis = 3000;
+	private long pageTimeoutMillis = 5000;
+	private String fallbackOutput = "";
+
+	private ThreadPoolExecutor executor;
+	private final Map<String, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (!this.isEnabled()) {
+			return;
+		}
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(this.getThreads(), this.getThreads(), 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(this.getQueueSize()), runnable -> {
+					Thread thread = new Thread(runnable, "frame-rendering-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public void destroy() {
+		if (null != this.executor) {
+			this.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Submit the rendering of a frame.
+	 * The task is executed with the tenant of the calling thread.
+	 * @param task the rendering task
+	 * @return the future output of the frame, or null if the task can't be
+	 * accepted and has to be executed by the caller
+	 */
+	public Future<String> submit(Callable<String> task) {
+		if (null == this.executor) {
+			return null;
+		}
+		Optional<String> tenantCode = ApsTenantApplicationUtils.getTenant();
+		Semaphore permits = this.tenantPermits.computeIfAbsent(tenantCode.orElse(PRIMARY_TENANT),
+				code -> new Semaphore(this.getMaxFramesPerTenant()));
+		if (!permits.tryAcquire()) {
+			_logger.debug("Max concurrent frames reached for tenant '{}'", tenantCode.orElse(PRIMARY_TENANT));
+			return null;
+		}
+		FrameRenderingTask frameTask = new FrameRenderingTask(() -> {
+			if (tenantCode.isPresent()) {
+				ApsTenantApplicationUtils.setTenant(tenantCode.get());
+			} else {
+				ApsTenantApplicationUtils.removeTenant();
+			}
+			try {
+				return task.call();
+			} finally {
+				ApsTenantApplicationUtils.removeTenant();
+			}
+		}, permits, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.getFrameTimeoutMillis()));
+		try {
+			this.executor.execute(frameTask);
+			return frameTask;
+		} catch (RejectedExecutionException e) {
+			permits.release();
+			_logger.debug("Frame rendering queue full", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Wait for the output of a frame.
+	 * When the frame timeout or the given page deadline is reached the rendering
+	 * is cancelled and the fallback output is returned.
+	 * @param output the future output of the frame
+	 * @param deadline the page deadline, as {@link System#nanoTime()} value
+	 * @param frame the frame position, used for logging
+	 * @return the output of the frame
+	 * @throws ExecutionException if the rendering fails
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	public String getOutput(Future<String> output, long deadline, int frame) throws ExecutionException, InterruptedException {
+		long frameDeadline = (output instanceof FrameRenderingTask) ? ((FrameRenderingTask) output).getDeadline() : deadline;
+		try {
+			return output.get(Math.max(0, Math.min(deadline, frameDeadline) - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			this.cancel(output);
+			if (frameDeadline < deadline) {
+				_logger.warn("Rendering of frame {} exceeded the frame timeout of {} ms", frame, this.getFrameTimeoutMillis());
+			} else {
+				_logger.warn("Rendering of frame {} exceeded the page timeout of {} ms", frame, this.getPageTimeoutMillis());
+			}
+			return this.getFallbackOutput();
+		}
+	}
+
+	/**
+	 * Cancel the rendering of a frame, removing it from the queue if it is not started yet.
+	 * A frame already in rendering is interrupted; its tenant permit is given back when
+	 * the rendering actually ends.
+	 * @param output the future output of the frame
+	 */
+	public void cancel(Future<String> output) {
+		output.cancel(true);
+		if (output instanceof Runnable && null != this.executor) {
+			this.executor.remove((Runnable) output);
+		}
+	}
+
+	/**
+	 * Return the deadline of the frames of a page rendered from now.
+	 * @return the deadline, as {@link System#nanoTime()} value
+	 */
+	public long getDeadline() {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.getPageTimeoutMillis());
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getMaxFramesPerTenant() {
+		return maxFramesPerTenant;
+	}
+	public void setMaxFramesPerTenant(int maxFramesPerTenant) {
+		this.maxFramesPerTenant = maxFramesPerTenant;
+	}
+
+	public long getFrameTimeoutMillis() {
+		return frameTimeoutMillis;
+	}
+	public void setFrameTimeoutMillis(long frameTimeoutMillis) {
+		this.frameTimeoutMillis = frameTimeoutMillis;
+	}
+
+	public long getPageTimeoutMillis() {
+		return pageTimeoutMillis;
+	}
+	public void setPageTimeoutMillis(long pageTimeoutMillis) {
+		this.pageTimeoutMillis = pageTimeoutMillis;
+	}
+
+	public String getFallbackOutput() {
+		return fallbackOutput;
+	}
+	public void setFallbackOutput(String fallbackOutput) {
+		this.fallbackOutput = fallbackOutput;
+	}
+
+	/**
+	 * Rendering task that gives back the tenant permit when the rendering actually ends,
+	 * or when it is cancelled before starting: a cancelled frame keeps its permit
+	 * as long as its thread is still rendering.
+	 */
+	private static class FrameRenderingTask extends FutureTask<String> {
+
+		private final Semaphore permits;
+		private final long deadline;
+		private final AtomicBoolean claimed;
+
+		FrameRenderingTask(Callable<String> callable, Semaphore permits, long deadline) {
+			this(callable, permits, deadline, new AtomicBoolean());
+		}
+
+		private FrameRenderingTask(Callable<String> callable, Semaphore permits, long deadline, AtomicBoolean claimed) {
+			super(() -> {
+				if (!claimed.compareAndSet(false, true)) {
+					return null;
+				}
+				try {
+					return callable.call();
+				} finally {
+					permits.release();
+				}
+			});
+			this.permits = permits;
+			this.deadline = deadline;
+			this.claimed = claimed;
+		}
+
+		long getDeadline() {
+			return deadline;
+		}
+
+		@Override
+		protected void done() {
+			if (this.claimed.compareAndSet(false, true)) {
+				this.permits.release();
+			}
+		}
+
+	}
+
+}
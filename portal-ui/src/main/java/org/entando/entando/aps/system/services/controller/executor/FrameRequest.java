@@ -0,0 +1,522 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.executor;
+
+import com.agiletec.aps.system.RequestContext;
+import java.io.BufferedReader;
+import java.security.Principal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpUpgradeHandler;
+import javax.servlet.http.Part;
+
+/**
+ * Request used to render a single frame outside the request thread.
+ * It is a copy of the request taken by the request thread before the frame is submitted:
+ * the frame never reaches the live request of the container.
+ * The attributes are local to the frame and the request context attribute points to the context
+ * of the frame; the operations that need the live request (dispatching, reading the body,
+ * asynchronous processing, authentication) are not supported.
+ * Only the session is shared with the request, as it is shared by all the requests of the user.
+ */
+public class FrameRequest implements HttpServletRequest {
+
+	private final Map<String, Object> attributes = new HashMap<>();
+	private final Map<String, String[]> parameters;
+	private final Map<String, List<String>> headers;
+	private final Cookie[] cookies;
+	private final List<Locale> locales;
+	private final HttpSession session;
+	private final ServletContext servletContext;
+
+	private final String method;
+	private final String scheme;
+	private final String serverName;
+	private final int serverPort;
+	private final String protocol;
+	private final boolean secure;
+	private final String contextPath;
+	private final String servletPath;
+	private final String pathInfo;
+	private final String pathTranslated;
+	private final String requestURI;
+	private final String requestURL;
+	private final String queryString;
+	private final String characterEncoding;
+	private final String contentType;
+	private final long contentLength;
+	private final String remoteAddr;
+	private final String remoteHost;
+	private final int remotePort;
+	private final String localName;
+	private final String localAddr;
+	private final int localPort;
+	private final String authType;
+	private final String remoteUser;
+	private final Principal userPrincipal;
+	private final String requestedSessionId;
+	private final boolean requestedSessionIdValid;
+	private final boolean requestedSessionIdFromCookie;
+	private final boolean requestedSessionIdFromURL;
+
+	/**
+	 * Copy the given request; it must be invoked by the request thread.
+	 * @param request the live request
+	 * @param frameContext the context of the frame
+	 */
+	public FrameRequest(HttpServletRequest request, RequestContext frameContext) {
+		for (String name : Collections.list(request.getAttributeNames())) {
+			this.attributes.put(name, request.getAttribute(name));
+		}
+		this.attributes.put(RequestContext.REQCTX, frameContext);
+		Map<String, String[]> params = new LinkedHashMap<>();
+		request.getParameterMap().forEach((name, values) -> params.put(name, values.clone()));
+		this.parameters = Collections.unmodifiableMap(params);
+		Map<String, List<String>> headerValues = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		Enumeration<String> headerNames = request.getHeaderNames();
+		if (null != headerNames) {
+			for (String name : Collections.list(headerNames)) {
+				headerValues.put(name, Collections.unmodifiableList(Collections.list(request.getHeaders(name))));
+			}
+		}
+		this.headers = Collections.unmodifiableMap(headerValues);
+		Cookie[] requestCookies = request.getCookies();
+		this.cookies = (null != requestCookies) ? Arrays.stream(requestCookies).map(Cookie::clone).toArray(Cookie[]::new) : null;
+		this.locales = Collections.unmodifiableList(Collections.list(request.getLocales()));
+		this.session = request.getSession(false);
+		this.servletContext = request.getServletContext();
+		this.method = request.getMethod();
+		this.scheme = request.getScheme();
+		this.serverName = request.getServerName();
+		this.serverPort = request.getServerPort();
+		this.protocol = request.getProtocol();
+		this.secure = request.isSecure();
+		this.contextPath = request.getContextPath();
+		this.servletPath = request.getServletPath();
+		this.pathInfo = request.getPathInfo();
+		this.pathTranslated = request.getPathTranslated();
+		this.requestURI = request.getRequestURI();
+		this.requestURL = request.getRequestURL().toString();
+		this.queryString = request.getQueryString();
+		this.characterEncoding = request.getCharacterEncoding();
+		this.contentType = request.getContentType();
+		this.contentLength = request.getContentLengthLong();
+		this.remoteAddr = request.getRemoteAddr();
+		this.remoteHost = request.getRemoteHost();
+		this.remotePort = request.getRemotePort();
+		this.localName = request.getLocalName();
+		this.localAddr = request.getLocalAddr();
+		this.localPort = request.getLocalPort();
+		this.authType = request.getAuthType();
+		this.remoteUser = request.getRemoteUser();
+		this.userPrincipal = request.getUserPrincipal();
+		this.requestedSessionId = request.getRequestedSessionId();
+		this.requestedSessionIdValid = request.isRequestedSessionIdValid();
+		this.requestedSessionIdFromCookie = request.isRequestedSessionIdFromCookie();
+		this.requestedSessionIdFromURL = request.isRequestedSessionIdFromURL();
+	}
+
+	private static UnsupportedOperationException unsupported(String operation) {
+		return new UnsupportedOperationException("'" + operation + "' is not available while rendering a frame outside the request thread");
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return this.attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<>(this.attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (null == value) {
+			this.removeAttribute(name);
+			return;
+		}
+		this.attributes.put(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		this.attributes.remove(name);
+	}
+
+	@Override
+	public String getParameter(String name) {
+		String[] values = this.parameters.get(name);
+		return (null != values && values.length > 0) ? values[0] : null;
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.enumeration(this.parameters.keySet());
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		String[] values = this.parameters.get(name);
+		return (null != values) ? values.clone() : null;
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return this.parameters;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		List<String> values = this.headers.get(name);
+		return (null != values && !values.isEmpty()) ? values.get(0) : null;
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		return Collections.enumeration(this.headers.getOrDefault(name, Collections.emptyList()));
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(this.headers.keySet());
+	}
+
+	@Override
+	public long getDateHeader(String name) {
+		String value = this.getHeader(name);
+		if (null == value) {
+			return -1L;
+		}
+		try {
+			return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid date header '" + name + "': " + value, e);
+		}
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = this.getHeader(name);
+		return (null != value) ? Integer.parseInt(value) : -1;
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		return (null != this.cookies) ? Arrays.stream(this.cookies).map(Cookie::clone).toArray(Cookie[]::new) : null;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return this.locales.isEmpty() ? Locale.getDefault() : this.locales.get(0);
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(this.locales.isEmpty() ? Collections.singletonList(Locale.getDefault()) : this.locales);
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		if (null == this.session && create) {
+			throw new IllegalStateException("A session can't be created while rendering a frame outside the request thread");
+		}
+		return this.session;
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return this.getSession(true);
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		return this.servletContext;
+	}
+
+	@Override
+	public String getRealPath(String path) {
+		return this.servletContext.getRealPath(path);
+	}
+
+	@Override
+	public String getMethod() {
+		return method;
+	}
+
+	@Override
+	public String getScheme() {
+		return scheme;
+	}
+
+	@Override
+	public String getServerName() {
+		return serverName;
+	}
+
+	@Override
+	public int getServerPort() {
+		return serverPort;
+	}
+
+	@Override
+	public String getProtocol() {
+		return protocol;
+	}
+
+	@Override
+	public boolean isSecure() {
+		return secure;
+	}
+
+	@Override
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	@Override
+	public String getServletPath() {
+		return servletPath;
+	}
+
+	@Override
+	public String getPathInfo() {
+		return pathInfo;
+	}
+
+	@Override
+	public String getPathTranslated() {
+		return pathTranslated;
+	}
+
+	@Override
+	public String getRequestURI() {
+		return requestURI;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		return new StringBuffer(this.requestURL);
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return characterEncoding;
+	}
+
+	@Override
+	public void setCharacterEncoding(String env) {
+		throw unsupported("setCharacterEncoding");
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	public int getContentLength() {
+		return (this.contentLength > Integer.MAX_VALUE) ? -1 : (int) this.contentLength;
+	}
+
+	@Override
+	public long getContentLengthLong() {
+		return contentLength;
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		return remoteAddr;
+	}
+
+	@Override
+	public String getRemoteHost() {
+		return remoteHost;
+	}
+
+	@Override
+	public int getRemotePort() {
+		return remotePort;
+	}
+
+	@Override
+	public String getLocalName() {
+		return localName;
+	}
+
+	@Override
+	public String getLocalAddr() {
+		return localAddr;
+	}
+
+	@Override
+	public int getLocalPort() {
+		return localPort;
+	}
+
+	@Override
+	public String getAuthType() {
+		return authType;
+	}
+
+	@Override
+	public String getRemoteUser() {
+		return remoteUser;
+	}
+
+	@Override
+	public Principal getUserPrincipal() {
+		return userPrincipal;
+	}
+
+	@Override
+	public boolean isUserInRole(String role) {
+		throw unsupported("isUserInRole");
+	}
+
+	@Override
+	public String getRequestedSessionId() {
+		return requestedSessionId;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdValid() {
+		return requestedSessionIdValid;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromCookie() {
+		return requestedSessionIdFromCookie;
+	}
+
+	@Override
+	public boolean isRequestedSessionIdFromURL() {
+		return requestedSessionIdFromURL;
+	}
+
+	@Override
+	@Deprecated
+	public boolean isRequestedSessionIdFromUrl() {
+		return requestedSessionIdFromURL;
+	}
+
+	@Override
+	public String changeSessionId() {
+		throw unsupported("changeSessionId");
+	}
+
+	@Override
+	public boolean authenticate(HttpServletResponse response) {
+		throw unsupported("authenticate");
+	}
+
+	@Override
+	public void login(String username, String password) {
+		throw unsupported("login");
+	}
+
+	@Override
+	public void logout() {
+		throw unsupported("logout");
+	}
+
+	@Override
+	public Collection<Part> getParts() {
+		throw unsupported("getParts");
+	}
+
+	@Override
+	public Part getPart(String name) {
+		throw unsupported("getPart");
+	}
+
+	@Override
+	public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+		throw unsupported("upgrade");
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		throw unsupported("getInputStream");
+	}
+
+	@Override
+	public BufferedReader getReader() {
+		throw unsupported("getReader");
+	}
+
+	@Override
+	public RequestDispatcher getRequestDispatcher(String path) {
+		throw unsupported("getRequestDispatcher");
+	}
+
+	@Override
+	public AsyncContext startAsync() {
+		throw unsupported("startAsync");
+	}
+
+	@Override
+	public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+		throw unsupported("startAsync");
+	}
+
+	@Override
+	public boolean isAsyncStarted() {
+		return false;
+	}
+
+	@Override
+	public boolean isAsyncSupported() {
+		return false;
+	}
+
+	@Override
+	public AsyncContext getAsyncContext() {
+		throw new IllegalStateException("Asynchronous processing is not available while rendering a frame outside the request thread");
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+}
@@ -24,14 +24,13 @@ import com.agiletec.aps.util.ApsWebApplicationUtils;
 import freemarker.template.Template;
 
 import java.io.IOException;
-import java.io.StringReader;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang.StringUtils;
-
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,8 +69,10 @@ public class PageExecutorService implements ExecutorServiceInterface {
                 dispatcher.forward(request, response);
             } else {
                 ExecutorBeanContainer ebc = reqCtx.getExecutorBeanContainer();
-                Template template = new Template(page.getCode(), new StringReader(model.getTemplate()), ebc.getConfiguration());
+                IFreemarkerTemplateManager templateManager = (IFreemarkerTemplateManager) ApsWebApplicationUtils.getBean(
+                        SystemConstants.FREEMARKER_TEMPLATE_MANAGER, request);
                 try {
+                    Template template = templateManager.getPageModelTemplate(model);
                     template.process(ebc.getTemplateModel(), response.getWriter());
                 } catch (Throwable t) {
                     String msg = "Error detected while including a page template " + model.getCode();
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2015-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.aps.system.services.controller.executor;
+
+import com.agiletec.aps.system.RequestContext;
+import com.agiletec.aps.util.ApsTenantApplicationUtils;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+class FrameRenderingExecutorTest {
+
+    private FrameRenderingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        ApsTenantApplicationUtils.removeTenant();
+        if (null != this.executor) {
+            this.executor.destroy();
+        }
+    }
+
+    @Test
+    void shouldNotAcceptTasksWhenDisabled() throws Exception {
+        this.executor = this.createExecutor(false, 1000);
+        Assertions.assertNull(this.executor.submit(() -> "output"));
+    }
+
+    @Test
+    void shouldRenderWithCallerTenant() throws Exception {
+        this.executor = this.createExecutor(true, 1000);
+        ApsTenantApplicationUtils.setTenant("tenant1");
+        Future<String> output = this.executor.submit(() -> ApsTenantApplicationUtils.getTenant().orElse(null));
+        Assertions.assertNotNull(output);
+        Assertions.assertEquals("tenant1", this.executor.getOutput(output, this.executor.getDeadline(), 0));
+    }
+
+    @Test
+    void shouldReturnFallbackOnTimeout() throws Exception {
+        this.executor = this.createExecutor(true, 50);
+        this.executor.setFallbackOutput("fallback");
+        CountDownLatch latch = new CountDownLatch(1);
+        long deadline = this.executor.getDeadline();
+        Future<String> output = this.executor.submit(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "output";
+        });
+        Assertions.assertEquals("fallback", this.executor.getOutput(output, deadline, 0));
+        Assertions.assertTrue(output.isCancelled());
+    }
+
+    @Test
+    void shouldReturnFallbackOnFrameTimeout() throws Exception {
+        this.executor = this.createExecutor(true, 5000);
+        this.executor.setFrameTimeoutMillis(50);
+        this.executor.setFallbackOutput("fallback");
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> output = this.executor.submit(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "output";
+        });
+        long start = System.nanoTime();
+        Assertions.assertEquals("fallback", this.executor.getOutput(output, this.executor.getDeadline(), 0));
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        Assertions.assertTrue(output.isCancelled());
+    }
+
+    @Test
+    void shouldKeepPermitUntilCancelledRenderingEnds() throws Exception {
+        this.executor = this.createExecutor(true, 1000);
+        this.executor.setMaxFramesPerTenant(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch ended = new CountDownLatch(1);
+        Future<String> running = this.executor.submit(() -> {
+            started.countDown();
+            try {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                while (System.nanoTime() < end) {
+                    // a rendering that ignores the interruption
+                }
+                return "running";
+            } finally {
+                ended.countDown();
+            }
+        });
+        Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+        this.executor.cancel(running);
+        Assertions.assertNull(this.executor.submit(() -> "next"));
+        Assertions.assertTrue(ended.await(1, TimeUnit.SECONDS));
+        Future<String> next = null;
+        for (int i = 0; i < 50 && null == next; i++) {
+            next = this.executor.submit(() -> "next");
+            if (null == next) {
+                Thread.sleep(10);
+            }
+        }
+        Assertions.assertNotNull(next);
+        Assertions.assertEquals("next", next.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldLimitFramesPerTenant() throws Exception {
+        this.executor = this.createExecutor(true, 1000);
+        this.executor.setMaxFramesPerTenant(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        ApsTenantApplicationUtils.setTenant("tenant1");
+        Future<String> first = this.executor.submit(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "first";
+        });
+        Assertions.assertNotNull(first);
+        Assertions.assertNull(this.executor.submit(() -> "second"));
+        ApsTenantApplicationUtils.setTenant("tenant2");
+        Future<String> other = this.executor.submit(() -> "other");
+        Assertions.assertNotNull(other);
+        latch.countDown();
+        Assertions.assertEquals("first", first.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("other", other.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldReleasePermitOfCancelledQueuedFrame() throws Exception {
+        this.executor = this.createExecutor(true, 1000);
+        this.executor.setMaxFramesPerTenant(3);
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<String> first = this.executor.submit(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "first";
+        });
+        Future<String> second = this.executor.submit(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "second";
+        });
+        Future<String> queued = this.executor.submit(() -> "queued");
+        Assertions.assertNotNull(queued);
+        Assertions.assertEquals("", this.executor.getOutput(queued, System.nanoTime(), 2));
+        Assertions.assertTrue(queued.isCancelled());
+        Future<String> next = this.executor.submit(() -> "next");
+        Assertions.assertNotNull(next);
+        latch.countDown();
+        Assertions.assertEquals("first", first.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("second", second.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("next", next.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldKeepFrameAttributesLocal() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("shared", "value");
+        RequestContext frameCtx = new RequestContext();
+        FrameRequest frameRequest = new FrameRequest(request, frameCtx);
+        frameRequest.setAttribute("local", "value");
+        frameRequest.removeAttribute("shared");
+        Assertions.assertSame(frameCtx, frameRequest.getAttribute(RequestContext.REQCTX));
+        Assertions.assertNull(frameRequest.getAttribute("shared"));
+        Assertions.assertEquals("value", request.getAttribute("shared"));
+        Assertions.assertNull(request.getAttribute("local"));
+    }
+
+    @Test
+    void shouldDetachFrameRequestFromLiveRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/portal/it/homepage.page");
+        request.addParameter("param", "value");
+        request.addHeader("Accept-Language", "it");
+        request.setSession(new MockHttpSession());
+        FrameRequest frameRequest = new FrameRequest(request, new RequestContext());
+        request.setParameter("param", "changed");
+        request.addHeader("X-Other", "other");
+        Assertions.assertEquals("value", frameRequest.getParameter("param"));
+        Assertions.assertEquals("it", frameRequest.getHeader("accept-language"));
+        Assertions.assertNull(frameRequest.getHeader("X-Other"));
+        Assertions.assertEquals("/portal/it/homepage.page", frameRequest.getRequestURI());
+        Assertions.assertSame(request.getSession(false), frameRequest.getSession());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> frameRequest.getRequestDispatcher("/widget.jsp"));
+    }
+
+    @Test
+    void shouldNotCreateSessionFromFrame() {
+        FrameRequest frameRequest = new FrameRequest(new MockHttpServletRequest(), new RequestContext());
+        Assertions.assertNull(frameRequest.getSession(false));
+        Assertions.assertThrows(IllegalStateException.class, frameRequest::getSession);
+    }
+
+    @Test
+    void shouldRecognizeRequestBoundDirectives() {
+        Assertions.assertTrue(AbstractWidgetExecutorService.usesRequestBoundDirectives("<#assign wp=JspTaglibs[\"/aps-core\"]><@wp.i18n key=\"X\" />"));
+        Assertions.assertTrue(AbstractWidgetExecutorService.usesRequestBoundDirectives("<@include_page path=\"/widget.jsp\" />"));
+        Assertions.assertFalse(AbstractWidgetExecutorService.usesRequestBoundDirectives("<h1>${Request.title!}</h1>"));
+    }
+
+    private FrameRenderingExecutor createExecutor(boolean enabled, long timeout) throws Exception {
+        FrameRenderingExecutor renderingExecutor = new FrameRenderingExecutor();
+        renderingExecutor.setEnabled(enabled);
+        renderingExecutor.setThreads(2);
+        renderingExecutor.setPageTimeoutMillis(timeout);
+        renderingExecutor.afterPropertiesSet();
+        return renderingExecutor;
+    }
+
+}
@@ -11,6 +11,7 @@ import freemarker.template.Template;
 import freemarker.template.TemplateModel;
 import java.util.ArrayList;
 import java.util.List;
+import org.entando.entando.aps.system.services.freemarker.IFreemarkerTemplateManager;
 import org.entando.entando.aps.system.services.guifragment.GuiFragment;
 import org.entando.entando.aps.system.services.guifragment.IGuiFragmentManager;
 import org.entando.entando.aps.system.services.tenants.ITenantManager;
@@ -21,7 +22,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedConstruction;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -39,6 +39,10 @@ class WidgetExecutorServiceTest {
     private IGuiFragmentManager guiFragmentManager;
     @Mock
     private ITenantManager tenantManager;
+    @Mock
+    private IFreemarkerTemplateManager templateManager;
+    @Mock
+    private Template template;
 
     @Mock
     private RequestContext reqCtx;
@@ -57,6 +61,7 @@ class WidgetExecutorServiceTest {
         request.getServletContext().setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, wac);
         Mockito.when(wac.getBean(SystemConstants.WIDGET_TYPE_MANAGER)).thenReturn(widgetTypeManager);
         Mockito.when(wac.getBean(SystemConstants.GUI_FRAGMENT_MANAGER)).thenReturn(guiFragmentManager);
+        Mockito.when(wac.getBean(SystemConstants.FREEMARKER_TEMPLATE_MANAGER)).thenReturn(templateManager);
 
         WidgetType parentType = new WidgetType();
         parentType.setMainGroup(Group.FREE_GROUP_NAME);
@@ -74,6 +79,7 @@ class WidgetExecutorServiceTest {
 
         Mockito.when(widgetTypeManager.getWidgetType(WIDGET_CODE)).thenReturn(widgetType);
         Mockito.when(guiFragmentManager.getUniqueGuiFragmentByWidgetType(PARENT_WIDGET_CODE)).thenReturn(guiFragment);
+        Mockito.when(templateManager.getGuiFragmentTemplate("my_gui_fragment")).thenReturn(template);
 
         widget = new Widget();
         widget.setTypeCode(WIDGET_CODE);
@@ -81,8 +87,6 @@ class WidgetExecutorServiceTest {
         ExecutorBeanContainer ebc = Mockito.mock(ExecutorBeanContainer.class);
         Mockito.when(ebc.getTemplateModel()).thenReturn(Mockito.mock(TemplateModel.class));
         Mockito.when(reqCtx.getExecutorBeanContainer()).thenReturn(ebc);
-        Mockito.when(reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME)).thenReturn(0);
-        Mockito.when(reqCtx.getExtraParam(SystemConstants.EXTRAPAR_CURRENT_WIDGET)).thenReturn(widget);
     }
 
     @Test
@@ -90,10 +94,7 @@ class WidgetExecutorServiceTest {
 
         List<IFrameDecoratorContainer> decorators = new ArrayList<>();
 
-        try (MockedConstruction<Template> construction = Mockito.mockConstruction(Template.class)) {
-            service.buildWidgetOutput(reqCtx, widget, decorators);
-            Template template = construction.constructed().get(0);
-            Mockito.verify(template).process(any(), any());
-        }
+        service.buildWidgetOutput(reqCtx, widget, decorators);
+        Mockito.verify(template).process(any(), any());
     }
 }
@@ -74,7 +74,7 @@ class ContentViewerHelperIntegrationTest extends SeoBaseTestCase {
         RequestContext reqCtx = getRequestContext();
         reqCtx.removeExtraParam(SystemConstants.EXTRAPAR_EXTRA_PAGE_TITLES); //clean
         ((MockHttpServletRequest) reqCtx.getRequest()).removeParameter(SystemConstants.K_CONTENT_ID_PARAM); //clean
-        IPage page = this.pageManager.getOnlineRoot();
+        IPage page = this.pageManager.getOnlineRoot().clone();
         page.getMetadata().setUseExtraTitles(useExtraTitle);
         reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_PAGE, page);
         reqCtx.addExtraParam(SystemConstants.EXTRAPAR_CURRENT_FRAME, frame);
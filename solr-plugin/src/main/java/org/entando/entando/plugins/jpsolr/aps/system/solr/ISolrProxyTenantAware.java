@@ -29,4 +29,9 @@ public interface ISolrProxyTenantAware extends ISolrResourcesAccessor {
     ISolrResourcesAccessor getSolrTenantResources();
 
     List<ISolrResourcesAccessor> getAllSolrTenantsResources();
+
+    /**
+     * Max number of threads loading the contents during a reload of the index of the current tenant.
+     */
+    int getReloadThreads();
 }
@@ -32,6 +32,12 @@ public interface ISolrSearchEngineManager extends ICmsSearchEngineManager {
     
     public Thread startReloadContentsReferencesByType(String typeCode) throws EntException;
     
+    /**
+     * Cancel the running reload of the index of the current tenant.
+     * @return true if a running reload has been cancelled, false otherwise
+     */
+    public boolean cancelReloadContentsReferences();
+    
     public List<ContentTypeSettings> getContentTypesSettings() throws EntException;
     
     public SolrFacetedContentsResult searchFacetedEntities(SearchEngineFilter[][] filters, 
@@ -29,15 +29,20 @@ import com.agiletec.plugins.jacms.aps.system.services.content.model.attribute.Re
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrInputDocument;
+import org.entando.entando.aps.system.services.searchengine.SolrEnvironmentVariables;
 import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.plugins.jpsolr.aps.system.solr.model.SolrFields;
 import org.slf4j.Logger;
@@ -45,6 +50,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Data Access Object dedita alla indicizzazione di documenti.
+ * The added documents are collected and sent to Solr in batches, when the batch is full or when the oldest
+ * pending document has waited for the flush interval; Solr makes them visible within the commitWithin time, without
+ * hard commits. Deletions are sent after the pending documents, to keep the order of the updates.
+ * Documents whose sending fails are kept at the head of the pending ones and sent again one at a time, with a
+ * growing delay, up to a max number of attempts: so only the documents refused by Solr are discarded, not the
+ * whole batch.
  */
 public class IndexerDAO implements ISolrIndexerDAO {
 
@@ -54,12 +65,48 @@ public class IndexerDAO implements ISolrIndexerDAO {
 
     private ITreeNodeManager treeNodeManager;
 
+    public static final String FLUSH_THREAD_NAME_PREFIX = "SOLR_INDEXER_FLUSH_";
+
+    static final int MAX_SEND_ATTEMPTS = 5;
+    private static final int MAX_RETRY_DELAY_FACTOR = 32;
+
     private final SolrClient solrClient;
     private final String solrCore;
 
+    private final int batchSize;
+    private final int flushInterval;
+    private final int commitWithin;
+
+    private final List<SolrInputDocument> pendingDocuments = new ArrayList<>();
+    private final Object updateLock = new Object();
+    private final ScheduledExecutorService flushExecutor;
+
+    private int failedAttempts;
+    private long nextRetryTime;
+    private int singleDocuments;
+
     public IndexerDAO(SolrClient solrClient, String solrCore) {
+        this(solrClient, solrCore, SolrEnvironmentVariables.indexingBatchSize(),
+                SolrEnvironmentVariables.indexingFlushInterval(), SolrEnvironmentVariables.indexingCommitWithin());
+    }
+
+    public IndexerDAO(SolrClient solrClient, String solrCore, int batchSize, int flushInterval, int commitWithin) {
         this.solrClient = solrClient;
         this.solrCore = solrCore;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.commitWithin = commitWithin;
+        if (flushInterval > 0 && this.batchSize > 1) {
+            this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, FLUSH_THREAD_NAME_PREFIX + solrCore);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flushExecutor.scheduleWithFixedDelay(this::scheduledFlush, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flushExecutor = null;
+        }
     }
 
     @Override
@@ -69,43 +116,201 @@ public class IndexerDAO implements ISolrIndexerDAO {
 
     @Override
     public void close() {
-        // nothing to do
+        if (null != this.flushExecutor) {
+            this.flushExecutor.shutdown();
+        }
+        this.flushQuietly();
     }
 
     @Override
-    public synchronized void add(IApsEntity entity) throws EntException {
+    public void add(IApsEntity entity) throws EntException {
+        boolean full;
         try {
             SolrInputDocument document = this.createDocument(entity);
-            UpdateResponse updateResponse = this.solrClient.add(this.solrCore, document);
-            logger.debug("Add document Response {}", updateResponse);
-            this.solrClient.commit(this.solrCore);
-        } catch (IOException | SolrServerException ex) {
-            logger.error("Error saving entity {} calling solr server", entity.getId());
-            throw new EntException("Error saving entity", ex);
+            synchronized (this.pendingDocuments) {
+                this.pendingDocuments.add(document);
+                full = this.pendingDocuments.size() >= this.batchSize;
+            }
         } catch (Exception ex) {
             logger.error("Generic error saving entity {}", entity.getId());
             throw new EntException("Error saving entity", ex);
         }
+        if (!full) {
+            return;
+        }
+        try {
+            this.flush();
+        } catch (EntException ex) {
+            if (null == this.flushExecutor) {
+                throw ex;
+            }
+            // the document is kept and sent again by the flush thread
+            logger.warn("Error sending documents to solr core {}, they will be sent again", this.solrCore);
+        }
     }
 
     @Override
     public void addBulk(Stream<IApsEntity> entityStream) throws EntException {
         try {
+            this.flush();
+            List<SolrInputDocument> batch = new ArrayList<>();
             entityStream.forEach(entity -> {
-                try {
-                    SolrInputDocument document = this.createDocument(entity);
-                    UpdateResponse updateResponse = this.solrClient.add(this.solrCore, document);
-                    logger.debug("Add document Response {}", updateResponse);
-                } catch (IOException | SolrServerException ex) {
-                    logger.error("Error saving entity {} calling solr server", entity.getId(), ex);
+                batch.add(this.createDocument(entity));
+                if (batch.size() >= this.batchSize) {
+                    this.sendBulk(batch);
                 }
             });
+            this.sendBulk(batch);
             this.solrClient.commit(this.solrCore);
         } catch (IOException | SolrServerException ex) {
             throw new EntException("Error saving entities", ex);
         }
     }
 
+    private void sendBulk(List<SolrInputDocument> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            UpdateResponse updateResponse = this.solrClient.add(this.solrCore, batch);
+            logger.debug("Add documents Response {}", updateResponse);
+        } catch (IOException | SolrServerException | RuntimeException ex) {
+            logger.error("Error saving {} entities calling solr server", batch.size(), ex);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Send the pending documents to Solr.
+     * @throws EntException In case of error
+     */
+    public void flush() throws EntException {
+        synchronized (this.updateLock) {
+            this.sendPendingDocuments();
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            synchronized (this.updateLock) {
+                if (System.currentTimeMillis() >= this.nextRetryTime) {
+                    this.sendPendingDocuments();
+                }
+            }
+        } catch (Exception ex) {
+            // any error must be caught, otherwise the scheduled flush is not executed anymore
+            logger.error("Error flushing documents to solr core {}", this.solrCore, ex);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (EntException ex) {
+            logger.error("Error flushing documents to solr core {}", this.solrCore, ex);
+        }
+    }
+
+    private void sendPendingDocuments() throws EntException {
+        boolean sent = false;
+        List<SolrInputDocument> documents;
+        while (null != (documents = this.nextDocumentsToSend())) {
+            this.sendDocuments(documents);
+            sent = true;
+        }
+        if (!sent) {
+            return;
+        }
+        try {
+            this.softCommitIfNeeded();
+        } catch (IOException | SolrServerException | RuntimeException ex) {
+            throw new EntException("Error committing entities", ex);
+        }
+    }
+
+    /**
+     * Take the documents to send from the pending ones: the documents of a failed batch are sent one at a time.
+     * @return the documents to send, or null if there are no pending documents
+     */
+    private List<SolrInputDocument> nextDocumentsToSend() {
+        synchronized (this.pendingDocuments) {
+            if (this.pendingDocuments.isEmpty()) {
+                this.singleDocuments = 0;
+                return null;
+            }
+            List<SolrInputDocument> documents;
+            if (this.singleDocuments > 0) {
+                documents = new ArrayList<>(List.of(this.pendingDocuments.remove(0)));
+            } else {
+                documents = new ArrayList<>(this.pendingDocuments);
+                this.pendingDocuments.clear();
+            }
+            return documents;
+        }
+    }
+
+    private void sendDocuments(List<SolrInputDocument> documents) throws EntException {
+        try {
+            UpdateResponse updateResponse = this.solrClient.add(this.solrCore, documents, this.getCommitWithin());
+            logger.debug("Add documents Response {}", updateResponse);
+        } catch (IOException | SolrServerException | RuntimeException ex) {
+            // RuntimeException covers the errors returned by the server (RemoteSolrException)
+            this.handleFailedSend(documents);
+            throw new EntException("Error saving entities", ex);
+        }
+        this.failedAttempts = 0;
+        this.nextRetryTime = 0;
+        if (this.singleDocuments > 0) {
+            this.singleDocuments--;
+        }
+    }
+
+    private void handleFailedSend(List<SolrInputDocument> documents) {
+        if (documents.size() > 1) {
+            logger.error("Error saving {} entities calling solr server, they will be sent again one at a time",
+                    documents.size());
+            this.requeue(documents);
+            this.singleDocuments = documents.size();
+            this.failedAttempts = 0;
+            this.nextRetryTime = System.currentTimeMillis() + this.flushInterval;
+            return;
+        }
+        this.failedAttempts++;
+        if (this.failedAttempts >= MAX_SEND_ATTEMPTS) {
+            logger.error("Error saving entity {} calling solr server, discarded after {} attempts",
+                    documents.get(0).getFieldValue(SolrFields.SOLR_CONTENT_ID_FIELD_NAME), this.failedAttempts);
+            this.failedAttempts = 0;
+            this.nextRetryTime = 0;
+            if (this.singleDocuments > 0) {
+                this.singleDocuments--;
+            }
+            return;
+        }
+        logger.error("Error saving entity {} calling solr server (attempt {} of {})",
+                documents.get(0).getFieldValue(SolrFields.SOLR_CONTENT_ID_FIELD_NAME), this.failedAttempts,
+                MAX_SEND_ATTEMPTS);
+        this.requeue(documents);
+        this.singleDocuments = Math.max(1, this.singleDocuments);
+        long delayFactor = Math.min(1L << (this.failedAttempts - 1), MAX_RETRY_DELAY_FACTOR);
+        this.nextRetryTime = System.currentTimeMillis() + this.flushInterval * delayFactor;
+    }
+
+    private void requeue(List<SolrInputDocument> documents) {
+        synchronized (this.pendingDocuments) {
+            this.pendingDocuments.addAll(0, documents);
+        }
+    }
+
+    private int getCommitWithin() {
+        return (this.commitWithin > 0) ? this.commitWithin : -1;
+    }
+
+    private void softCommitIfNeeded() throws IOException, SolrServerException {
+        if (this.commitWithin <= 0) {
+            this.solrClient.commit(this.solrCore, true, true, true);
+        }
+    }
+
     protected SolrInputDocument createDocument(IApsEntity entity) {
         SolrInputDocument document = new SolrInputDocument();
         document.addField(SolrFields.SOLR_CONTENT_ID_FIELD_NAME, entity.getId());
@@ -236,13 +441,20 @@ public class IndexerDAO implements ISolrIndexerDAO {
     }
 
     @Override
-    public synchronized void delete(String name, String value) throws EntException {
+    public void delete(String name, String value) throws EntException {
+        synchronized (this.updateLock) {
+            this.sendPendingDocuments();
+            this.sendDelete(name, value);
+        }
+    }
+
+    private void sendDelete(String name, String value) throws EntException {
         try {
             UpdateResponse updateResponse = (name.equals(SolrFields.SOLR_CONTENT_ID_FIELD_NAME)) ?
-                    this.solrClient.deleteById(this.solrCore, value) :
-                    this.solrClient.deleteByQuery(this.solrCore, name + ":" + value);
+                    this.solrClient.deleteById(this.solrCore, value, this.getCommitWithin()) :
+                    this.solrClient.deleteByQuery(this.solrCore, name + ":" + value, this.getCommitWithin());
             logger.debug("Delete document Response {}", updateResponse);
-            this.solrClient.commit(this.solrCore);
+            this.softCommitIfNeeded();
         } catch (IOException | SolrServerException ex) {
             logger.error("Error deleting entity {}:{} calling solr server", name, value);
             throw new EntException("Error deleting entity", ex);
@@ -273,9 +485,10 @@ public class IndexerDAO implements ISolrIndexerDAO {
     @Override
     public boolean deleteAllDocuments() {
         try {
+            this.flush();
             solrClient.deleteByQuery(this.solrCore, "*:*");
             this.solrClient.commit(this.solrCore);
-        } catch (IOException | SolrServerException ex) {
+        } catch (EntException | IOException | SolrServerException ex) {
             logger.error("Error deleting documents", ex);
             return false;
         }
@@ -38,6 +38,14 @@ public class SearchEngineManagerFactory implements BeanFactoryAware {
     private HttpClientBuilder solrHttpClientBuilder;
     @Setter
     private INotifyManager notifyManager;
+    @Setter
+    private int reloadWorkers = 1;
+    @Setter
+    private long indexCommitInterval = 5000;
+    @Setter
+    private long indexRefreshInterval = 1000;
+    @Setter
+    private long indexMaxStaleness = 0;
 
     private BeanFactory beanFactory;
 
@@ -62,8 +70,12 @@ public class SearchEngineManagerFactory implements BeanFactoryAware {
             factory.setConfigManager(configManager);
             factory.setLangManager(langManager);
             factory.setCategoryManager(categoryManager);
+            factory.setCommitInterval(indexCommitInterval);
+            factory.setRefreshInterval(indexRefreshInterval);
+            factory.setMaxStaleness(indexMaxStaleness);
             SearchEngineManager baseSearchEngineManager = new SearchEngineManager();
             baseSearchEngineManager.setFactory(factory);
+            baseSearchEngineManager.setReloadWorkers(reloadWorkers);
             baseSearchEngineManager.setContentManager(contentManager);
             baseSearchEngineManager.setNotifyManager(notifyManager);
             baseSearchEngineManager.setBeanFactory(beanFactory);
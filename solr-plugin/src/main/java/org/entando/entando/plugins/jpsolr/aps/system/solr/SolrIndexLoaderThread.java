@@ -17,24 +17,45 @@ import com.agiletec.aps.system.common.entity.IEntityManager;
 import com.agiletec.aps.system.common.entity.model.EntitySearchFilter;
 import com.agiletec.aps.system.common.entity.model.IApsEntity;
 import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.IIndexerDAO;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.LastReloadInfo;
+import com.agiletec.plugins.jacms.aps.system.services.searchengine.ReloadProgress;
 import java.util.Date;
-import java.util.Objects;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 import org.apache.commons.lang3.StringUtils;
 import org.entando.entando.ent.exception.EntException;
-import org.entando.entando.ent.exception.EntRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
+ * Thread that reloads the index of the current tenant. The contents are loaded by a fixed number of loader workers,
+ * that take the ids from a shared queue, and handed to the indexer through a bounded queue, so that the loaders wait
+ * when the indexer falls behind. The reload
+ * can be cancelled and exposes its progress while running.
  * @author E.Santoboni
  */
 public class SolrIndexLoaderThread extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(SolrIndexLoaderThread.class);
 
+    private static final Object END_OF_CONTENTS = new Object();
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final int PROGRESS_LOG_STEP = 1000;
+
     public String getTypeCode() {
         return typeCode;
     }
@@ -45,9 +66,16 @@ public class SolrIndexLoaderThread extends Thread {
 
     public SolrIndexLoaderThread(String typeCode, SolrSearchEngineManager searchEngineManager,
             IContentManager contentManager, IIndexerDAO indexerDao) {
+        this(typeCode, searchEngineManager, contentManager, indexerDao, 1, 100);
+    }
+
+    public SolrIndexLoaderThread(String typeCode, SolrSearchEngineManager searchEngineManager,
+            IContentManager contentManager, IIndexerDAO indexerDao, int loaderThreads, int queueSize) {
         this.contentManager = contentManager;
         this.searchEngineManager = searchEngineManager;
         this.indexerDao = indexerDao;
+        this.loaderThreads = Math.max(1, loaderThreads);
+        this.queueSize = Math.max(1, queueSize);
         this.setTypeCode(typeCode);
     }
 
@@ -60,7 +88,7 @@ public class SolrIndexLoaderThread extends Thread {
         try {
             this.loadNewIndex();
             reloadInfo.setResult(LastReloadInfo.ID_SUCCESS_RESULT);
-        } catch (EntException t) {
+        } catch (EntException | RuntimeException t) {
             reloadInfo.setResult(LastReloadInfo.ID_FAILURE_RESULT);
             logger.error("error in run", t);
         } finally {
@@ -81,22 +109,144 @@ public class SolrIndexLoaderThread extends Thread {
                     this.getTypeCode(), false);
             filters = new EntitySearchFilter[]{filter};
         }
-        ((IndexerDAO) this.indexerDao).addBulk(
-                this.contentManager.searchId(filters).stream()
-                        .map(contentId -> {
-                            try {
-                                return (IApsEntity) this.contentManager.loadContent(contentId, true);
-                            } catch (EntException ex) {
-                                throw new EntRuntimeException("Unable to load content " + contentId, ex);
+        List<String> contentsId = this.contentManager.searchId(filters);
+        this.total = contentsId.size();
+        logger.info("Indexing {} contents with {} loader threads", this.total, this.loaderThreads);
+        BlockingQueue<Object> loadedContents = new ArrayBlockingQueue<>(this.queueSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService loaders = Executors.newFixedThreadPool(this.loaderThreads,
+                r -> new Thread(r, this.getName() + "_LOADER_" + threadCount.incrementAndGet()));
+        try {
+            Queue<String> pendingIds = new ConcurrentLinkedQueue<>(contentsId);
+            AtomicInteger activeLoaders = new AtomicInteger(this.loaderThreads);
+            for (int i = 0; i < this.loaderThreads; i++) {
+                loaders.execute(() -> this.loadContents(pendingIds, loadedContents, activeLoaders));
+            }
+            ((ISolrIndexerDAO) this.indexerDao).addBulk(StreamSupport.stream(
+                    new Spliterators.AbstractSpliterator<IApsEntity>(contentsId.size(),
+                            Spliterator.ORDERED | Spliterator.NONNULL) {
+                        @Override
+                        public boolean tryAdvance(Consumer<? super IApsEntity> action) {
+                            IApsEntity entity = takeLoadedContent(loadedContents);
+                            if (null == entity) {
+                                return false;
                             }
-                        })
-                        .filter(Objects::nonNull));
-        logger.info("Indexing completed");
+                            action.accept(entity);
+                            return true;
+                        }
+                    }, false));
+        } finally {
+            loaders.shutdownNow();
+        }
+        if (this.cancelled) {
+            throw new EntException("Indexing cancelled - " + this.indexed.get() + " of " + this.total
+                    + " contents indexed");
+        }
+        logger.info("Indexing completed - {} contents indexed, {} failures", this.indexed.get(), this.failed.get());
+    }
+
+    private void loadContents(Queue<String> pendingIds, BlockingQueue<Object> loadedContents,
+            AtomicInteger activeLoaders) {
+        try {
+            String contentId = pendingIds.poll();
+            while (null != contentId && !this.cancelled && !Thread.currentThread().isInterrupted()) {
+                this.loadContent(contentId, loadedContents);
+                contentId = pendingIds.poll();
+            }
+        } finally {
+            if (activeLoaders.decrementAndGet() == 0) {
+                this.putEndOfContents(loadedContents);
+            }
+        }
+    }
+
+    private void loadContent(String contentId, BlockingQueue<Object> loadedContents) {
+        try {
+            Content content = this.contentManager.loadContent(contentId, true);
+            if (null != content) {
+                loadedContents.put(content);
+            }
+            this.loaded.incrementAndGet();
+        } catch (EntException | RuntimeException ex) {
+            this.failed.incrementAndGet();
+            logger.error("Unable to load content {}", contentId, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putEndOfContents(BlockingQueue<Object> loadedContents) {
+        try {
+            loadedContents.put(END_OF_CONTENTS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private IApsEntity takeLoadedContent(BlockingQueue<Object> loadedContents) {
+        try {
+            while (!this.cancelled) {
+                Object item = loadedContents.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (END_OF_CONTENTS == item) {
+                    return null;
+                } else if (null != item) {
+                    int count = this.indexed.incrementAndGet();
+                    if (count % PROGRESS_LOG_STEP == 0) {
+                        logger.info("Indexing in progress - {} of {} contents", count, this.total);
+                    }
+                    return (IApsEntity) item;
+                }
+            }
+        } catch (InterruptedException ex) {
+            this.cancel();
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Stop the reload: the contents not yet loaded are skipped and the index is left with the contents already
+     * indexed.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    public int getIndexed() {
+        return indexed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public ReloadProgress getProgress() {
+        return new ReloadProgress(null, null, this.getIndexed(), this.getTotal());
     }
 
     private String typeCode;
     private SolrSearchEngineManager searchEngineManager;
     private IContentManager contentManager;
     private IIndexerDAO indexerDao;
+    private int loaderThreads;
+    private int queueSize;
+
+    private volatile boolean cancelled;
+    private volatile int total;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger indexed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
 
 }
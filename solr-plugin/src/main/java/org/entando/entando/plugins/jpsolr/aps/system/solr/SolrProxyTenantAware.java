@@ -36,6 +36,7 @@ public class SolrProxyTenantAware implements ISolrProxyTenantAware {
 
     private static final String SOLR_ADDRESS_TENANT_PARAM = "solrAddress";
     private static final String SOLR_CORE_TENANT_PARAM = "solrCore";
+    private static final String SOLR_RELOAD_THREADS_TENANT_PARAM = "solrReloadThreads";
 
     private final ILangManager langManager;
     private final ICategoryManager categoryManager;
@@ -125,6 +126,12 @@ public class SolrProxyTenantAware implements ISolrProxyTenantAware {
         return this.getTenantParameter(SOLR_ADDRESS_TENANT_PARAM, SolrEnvironmentVariables.solrAddress());
     }
 
+    @Override
+    public int getReloadThreads() {
+        return Integer.parseInt(this.getTenantParameter(SOLR_RELOAD_THREADS_TENANT_PARAM,
+                String.valueOf(SolrEnvironmentVariables.reloadThreads())));
+    }
+
     private String getTenantParameter(String paramName, String defaultValue) {
         return ApsTenantApplicationUtils.getTenant()
                 .flatMap(tenantManager::getConfig)
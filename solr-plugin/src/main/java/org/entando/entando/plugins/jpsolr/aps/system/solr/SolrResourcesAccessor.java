@@ -48,6 +48,7 @@ public class SolrResourcesAccessor implements ISolrResourcesAccessor {
     }
 
     public void close() {
+        this.indexerDAO.close();
         try {
             solrClient.close();
         } catch (IOException ex) {
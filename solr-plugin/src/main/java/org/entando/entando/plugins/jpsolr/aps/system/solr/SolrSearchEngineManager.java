@@ -31,6 +31,7 @@ import com.agiletec.plugins.jacms.aps.system.services.searchengine.IIndexerDAO;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.ISearchEngineDAOFactory;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.ISearcherDAO;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.LastReloadInfo;
+import com.agiletec.plugins.jacms.aps.system.services.searchengine.ReloadProgress;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.SearchEngineManager;
 import com.google.common.util.concurrent.Striped;
 import java.io.Serializable;
@@ -40,12 +41,15 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
 import org.entando.entando.aps.system.services.searchengine.SearchEngineFilter;
+import org.entando.entando.aps.system.services.searchengine.SolrEnvironmentVariables;
+import org.entando.entando.aps.system.services.tenants.ITenantManager;
 import org.entando.entando.ent.exception.EntException;
 import org.entando.entando.ent.exception.EntRuntimeException;
 import org.entando.entando.plugins.jpsolr.aps.system.solr.SolrFieldsChecker.CheckFieldsResult;
@@ -74,6 +78,8 @@ public class SolrSearchEngineManager extends SearchEngineManager
 
     private static final Striped<Lock> tenantsLock = Striped.lazyWeakLock(64);
 
+    private final transient Map<String, SolrIndexLoaderThread> runningLoaders = new ConcurrentHashMap<>();
+
     @Override
     public void afterPropertiesSet() throws Exception {
         try {
@@ -326,15 +332,18 @@ public class SolrSearchEngineManager extends SearchEngineManager
         if (this.solrProxy.getIndexStatus().canReloadIndexes()) {
             try {
                 IIndexerDAO newIndexer = this.solrProxy.getIndexerDAO();
-                loaderThread = new SolrIndexLoaderThread(typeCode, this, this.getContentManager(), newIndexer);
+                loaderThread = new SolrIndexLoaderThread(typeCode, this, this.getContentManager(), newIndexer,
+                        this.solrProxy.getReloadThreads(), SolrEnvironmentVariables.reloadQueueSize());
                 String threadName = ICmsSearchEngineManager.RELOAD_THREAD_NAME_PREFIX
                         + DateConverter.getFormattedDate(new Date(), "yyyyMMddHHmmss")
                         + typeCode;
                 loaderThread.setName(threadName);
                 this.solrProxy.getIndexStatus().setReloadInProgress();
+                this.runningLoaders.put(this.getTenantCode(), loaderThread);
                 loaderThread.start();
                 log.info("Reload Contents References job started");
             } catch (Throwable ex) {
+                this.runningLoaders.remove(this.getTenantCode(), loaderThread);
                 this.solrProxy.getIndexStatus().rollbackStatus();
                 throw new EntException("Error reloading Contents References", ex);
             }
@@ -344,6 +353,26 @@ public class SolrSearchEngineManager extends SearchEngineManager
         return loaderThread;
     }
 
+    @Override
+    public boolean cancelReloadContentsReferences() {
+        SolrIndexLoaderThread loaderThread = this.runningLoaders.get(this.getTenantCode());
+        if (null == loaderThread || !loaderThread.isAlive()) {
+            return false;
+        }
+        loaderThread.cancel();
+        log.info("Reload Contents References job '{}' cancelled", loaderThread.getName());
+        return true;
+    }
+
+    @Override
+    public ReloadProgress getReloadProgress() {
+        SolrIndexLoaderThread loaderThread = this.runningLoaders.get(this.getTenantCode());
+        if (null == loaderThread || !loaderThread.isAlive()) {
+            return null;
+        }
+        return loaderThread.getProgress();
+    }
+
     @Override
     public SolrFacetedContentsResult searchFacetedEntities(SearchEngineFilter[][] filters,
             SearchEngineFilter[] categories, Collection<String> allowedGroups) throws EntException {
@@ -352,6 +381,7 @@ public class SolrSearchEngineManager extends SearchEngineManager
 
     @Override
     public void notifyEndingIndexLoading(LastReloadInfo info, IIndexerDAO newIndexerDAO) {
+        this.runningLoaders.remove(this.getTenantCode(), Thread.currentThread());
         this.cacheInfoManager.putInCache(ICacheInfoManager.DEFAULT_CACHE_NAME, this.getLastReloadCacheKey(), info);
         this.solrProxy.getIndexStatus().setReadyIfPossible();
     }
@@ -367,6 +397,10 @@ public class SolrSearchEngineManager extends SearchEngineManager
         return LAST_RELOAD_CACHE_PARAM_NAME + "_" + suffix;
     }
 
+    private String getTenantCode() {
+        return ApsTenantApplicationUtils.getTenant().orElse(ITenantManager.PRIMARY_CODE);
+    }
+
     @Override
     public int getStatus() {
         return this.solrProxy.getIndexStatus().getValue();
@@ -30,6 +30,9 @@ public class SolrTestExtension implements BeforeAllCallback {
             solrContainer.start();
 
             updateEnv("SOLR_ADDRESS", "http://localhost:" + solrContainer.getMappedPort(SOLR_PORT) + "/solr");
+            // integration tests search right after publishing: send and soft commit every document
+            updateEnv("SOLR_INDEXING_BATCH_SIZE", "1");
+            updateEnv("SOLR_INDEXING_COMMIT_WITHIN", "0");
         }
 
         if (extensionContext.getTags().contains(RECREATE_CORE)) {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.plugins.jpsolr.aps.system.solr;
+
+import com.agiletec.aps.system.common.tree.ITreeNodeManager;
+import com.agiletec.aps.system.services.lang.ILangManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.entando.entando.aps.system.services.searchengine.SolrEnvironmentVariables;
+import org.entando.entando.plugins.jpsolr.SolrTestExtension;
+import org.entando.entando.plugins.jpsolr.aps.system.solr.model.SolrFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+
+/**
+ * Checks the batched indexing against a real Solr instance, with the batching and the commitWithin enabled.
+ */
+@ExtendWith(SolrTestExtension.class)
+class IndexerDAOIntegrationTest {
+
+    private static final String ID_PREFIX = "IDXTEST";
+    private static final int BATCH_SIZE = 10;
+    private static final int FLUSH_INTERVAL = 200;
+    private static final int COMMIT_WITHIN = 1000;
+    private static final long VISIBILITY_TIMEOUT = FLUSH_INTERVAL + COMMIT_WITHIN + 5000L;
+
+    private SolrClient solrClient;
+    private IndexerDAO indexerDAO;
+
+    @BeforeEach
+    void setUp() {
+        this.solrClient = new HttpSolrClient.Builder(SolrEnvironmentVariables.solrAddress()).build();
+        this.indexerDAO = new IndexerDAO(this.solrClient, SolrEnvironmentVariables.solrCore(),
+                BATCH_SIZE, FLUSH_INTERVAL, COMMIT_WITHIN);
+        this.indexerDAO.setLangManager(Mockito.mock(ILangManager.class));
+        this.indexerDAO.setTreeNodeManager(Mockito.mock(ITreeNodeManager.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.indexerDAO.close();
+        this.solrClient.deleteByQuery(SolrEnvironmentVariables.solrCore(),
+                SolrFields.SOLR_CONTENT_ID_FIELD_NAME + ":" + ID_PREFIX + "*");
+        this.solrClient.commit(SolrEnvironmentVariables.solrCore());
+        this.solrClient.close();
+    }
+
+    @Test
+    void shouldMakeBatchedDocumentsVisibleWithinCommitWithin() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            this.indexerDAO.add(this.createContent(ID_PREFIX + "_ADD_" + i));
+        }
+        this.waitForCount(ID_PREFIX + "_ADD_*", 3);
+    }
+
+    @Test
+    void shouldApplyDeleteAfterPendingAdd() throws Exception {
+        this.indexerDAO.add(this.createContent(ID_PREFIX + "_DEL_1"));
+        this.indexerDAO.add(this.createContent(ID_PREFIX + "_DEL_2"));
+        this.indexerDAO.delete(SolrFields.SOLR_CONTENT_ID_FIELD_NAME, ID_PREFIX + "_DEL_1");
+        this.waitForCount(ID_PREFIX + "_DEL_2", 1);
+        Assertions.assertEquals(0, this.count(ID_PREFIX + "_DEL_1"));
+    }
+
+    private void waitForCount(String idQuery, long expected) throws Exception {
+        long deadline = System.currentTimeMillis() + VISIBILITY_TIMEOUT;
+        long count = this.count(idQuery);
+        while (count != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            count = this.count(idQuery);
+        }
+        Assertions.assertEquals(expected, count);
+    }
+
+    private long count(String idQuery) throws Exception {
+        SolrQuery query = new SolrQuery(SolrFields.SOLR_CONTENT_ID_FIELD_NAME + ":" + idQuery);
+        return this.solrClient.query(SolrEnvironmentVariables.solrCore(), query).getResults().getNumFound();
+    }
+
+    private Content createContent(String id) {
+        Content content = new Content();
+        content.setId(id);
+        content.setTypeCode("ART");
+        content.setMainGroup("free");
+        return content;
+    }
+
+}
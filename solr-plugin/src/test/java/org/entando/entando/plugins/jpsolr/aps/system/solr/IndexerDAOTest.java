@@ -0,0 +1,204 @@
+/*
+ * Copyright 2021-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.plugins.jpsolr.aps.system.solr;
+
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
+import com.agiletec.aps.system.common.tree.ITreeNodeManager;
+import com.agiletec.aps.system.services.lang.ILangManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.entando.entando.ent.exception.EntException;
+import org.entando.entando.plugins.jpsolr.aps.system.solr.model.SolrFields;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IndexerDAOTest {
+
+    private static final String CORE = "entando";
+
+    @Mock
+    private SolrClient solrClient;
+    @Mock
+    private ILangManager langManager;
+    @Mock
+    private ITreeNodeManager treeNodeManager;
+
+    private IndexerDAO indexerDAO;
+
+    @AfterEach
+    void tearDown() {
+        if (null != this.indexerDAO) {
+            this.indexerDAO.close();
+        }
+    }
+
+    @Test
+    void shouldSendDocumentsInBatchesWithoutHardCommits() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(3, 0, 1000);
+        this.indexerDAO.add(this.createContent("ART1"));
+        this.indexerDAO.add(this.createContent("ART2"));
+        Mockito.verifyNoInteractions(this.solrClient);
+
+        this.indexerDAO.add(this.createContent("ART3"));
+        ArgumentCaptor<Collection<SolrInputDocument>> documents = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(this.solrClient).add(Mockito.eq(CORE), documents.capture(), Mockito.eq(1000));
+        Assertions.assertEquals(List.of("ART1", "ART2", "ART3"), this.extractIds(documents.getValue()));
+        Mockito.verify(this.solrClient, Mockito.never()).commit(Mockito.anyString());
+        Mockito.verify(this.solrClient, Mockito.never()).commit(Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    void shouldSendPendingDocumentsAfterFlushInterval() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(100, 50, 1000);
+        this.indexerDAO.add(this.createContent("ART1"));
+        Mockito.verify(this.solrClient, Mockito.timeout(5000))
+                .add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000));
+    }
+
+    @Test
+    void shouldSendPendingDocumentsBeforeDeletions() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(100, 0, 1000);
+        this.indexerDAO.add(this.createContent("ART1"));
+        this.indexerDAO.delete(SolrFields.SOLR_CONTENT_ID_FIELD_NAME, "ART1");
+        InOrder inOrder = Mockito.inOrder(this.solrClient);
+        inOrder.verify(this.solrClient).add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000));
+        inOrder.verify(this.solrClient).deleteById(CORE, "ART1", 1000);
+    }
+
+    @Test
+    void shouldSendAgainDocumentsAfterFailure() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(2, 0, 1000);
+        Mockito.when(this.solrClient.add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000)))
+                .thenThrow(new IOException("unavailable")).thenReturn(null);
+        this.indexerDAO.add(this.createContent("ART1"));
+        Assertions.assertThrows(EntException.class, () -> this.indexerDAO.add(this.createContent("ART2")));
+        this.indexerDAO.add(this.createContent("ART3"));
+        ArgumentCaptor<Collection<SolrInputDocument>> documents = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(this.solrClient, Mockito.times(4)).add(Mockito.eq(CORE), documents.capture(), Mockito.eq(1000));
+        Assertions.assertEquals(List.of("ART1", "ART2"), this.extractIds(documents.getAllValues().get(0)));
+        Assertions.assertEquals(List.of("ART1"), this.extractIds(documents.getAllValues().get(1)));
+        Assertions.assertEquals(List.of("ART2"), this.extractIds(documents.getAllValues().get(2)));
+        Assertions.assertEquals(List.of("ART3"), this.extractIds(documents.getAllValues().get(3)));
+    }
+
+    @Test
+    void shouldDiscardOnlyDocumentRefusedByServer() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(100, 20, 1000);
+        List<List<String>> sent = new CopyOnWriteArrayList<>();
+        Mockito.when(this.solrClient.add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000)))
+                .thenAnswer(invocation -> {
+                    List<String> ids = this.extractIds(invocation.getArgument(1));
+                    sent.add(ids);
+                    if (ids.contains("BAD")) {
+                        throw new SolrException(SolrException.ErrorCode.BAD_REQUEST, "invalid document");
+                    }
+                    return null;
+                });
+        this.indexerDAO.add(this.createContent("ART1"));
+        this.indexerDAO.add(this.createContent("BAD"));
+        this.indexerDAO.add(this.createContent("ART2"));
+        Mockito.verify(this.solrClient, Mockito.timeout(10000).atLeast(2 + IndexerDAO.MAX_SEND_ATTEMPTS + 1))
+                .add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000));
+        Assertions.assertEquals(List.of("ART1", "BAD", "ART2"), sent.get(0));
+        Assertions.assertEquals(List.of("ART1"), sent.get(1));
+        for (int i = 0; i < IndexerDAO.MAX_SEND_ATTEMPTS; i++) {
+            Assertions.assertEquals(List.of("BAD"), sent.get(2 + i));
+        }
+        Assertions.assertEquals(List.of("ART2"), sent.get(2 + IndexerDAO.MAX_SEND_ATTEMPTS));
+    }
+
+    @Test
+    void shouldKeepDocumentsRejectedByServer() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(100, 0, 1000);
+        Mockito.when(this.solrClient.add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000)))
+                .thenThrow(new SolrException(SolrException.ErrorCode.SERVER_ERROR, "unavailable")).thenReturn(null);
+        this.indexerDAO.add(this.createContent("ART1"));
+        Assertions.assertThrows(EntException.class, () -> this.indexerDAO.flush());
+        this.indexerDAO.flush();
+        ArgumentCaptor<Collection<SolrInputDocument>> documents = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(this.solrClient, Mockito.times(2)).add(Mockito.eq(CORE), documents.capture(), Mockito.eq(1000));
+        Assertions.assertEquals(List.of("ART1"), this.extractIds(documents.getAllValues().get(1)));
+    }
+
+    @Test
+    void shouldDiscardDocumentsAfterMaxAttempts() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(100, 0, 1000);
+        Mockito.when(this.solrClient.add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000)))
+                .thenThrow(new IOException("unavailable"));
+        this.indexerDAO.add(this.createContent("ART1"));
+        for (int i = 0; i < IndexerDAO.MAX_SEND_ATTEMPTS; i++) {
+            Assertions.assertThrows(EntException.class, () -> this.indexerDAO.flush());
+        }
+        this.indexerDAO.flush();
+        Mockito.verify(this.solrClient, Mockito.times(IndexerDAO.MAX_SEND_ATTEMPTS))
+                .add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(1000));
+    }
+
+    @Test
+    void shouldSoftCommitWithoutCommitWithin() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(1, 0, 0);
+        this.indexerDAO.add(this.createContent("ART1"));
+        InOrder inOrder = Mockito.inOrder(this.solrClient);
+        inOrder.verify(this.solrClient).add(Mockito.eq(CORE), Mockito.anyCollection(), Mockito.eq(-1));
+        inOrder.verify(this.solrClient).commit(CORE, true, true, true);
+    }
+
+    @Test
+    void shouldAddBulkInBatches() throws Exception {
+        this.indexerDAO = this.createIndexerDAO(10, 0, 1000);
+        List<IApsEntity> contents = IntStream.range(0, 25)
+                .mapToObj(i -> (IApsEntity) this.createContent("ART" + i)).collect(Collectors.toList());
+        this.indexerDAO.addBulk(contents.stream());
+        Mockito.verify(this.solrClient, Mockito.times(3)).add(Mockito.eq(CORE), Mockito.anyCollection());
+        Mockito.verify(this.solrClient).commit(CORE);
+    }
+
+    private IndexerDAO createIndexerDAO(int batchSize, int flushInterval, int commitWithin) {
+        IndexerDAO dao = new IndexerDAO(this.solrClient, CORE, batchSize, flushInterval, commitWithin);
+        dao.setLangManager(this.langManager);
+        dao.setTreeNodeManager(this.treeNodeManager);
+        return dao;
+    }
+
+    private Content createContent(String id) {
+        Content content = new Content();
+        content.setId(id);
+        content.setTypeCode("ART");
+        content.setMainGroup("free");
+        return content;
+    }
+
+    private List<String> extractIds(Collection<SolrInputDocument> documents) {
+        return documents.stream().map(d -> (String) d.getFieldValue(SolrFields.SOLR_CONTENT_ID_FIELD_NAME))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -5,6 +5,7 @@ import com.agiletec.aps.system.services.category.ICategoryManager;
 import com.agiletec.aps.system.services.lang.ILangManager;
 import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.ICmsSearchEngineManager;
+import com.agiletec.plugins.jacms.aps.system.services.searchengine.SearchEngineDAOFactory;
 import com.agiletec.plugins.jacms.aps.system.services.searchengine.SearchEngineManager;
 import org.entando.entando.aps.system.services.cache.ICacheInfoManager;
 import org.entando.entando.aps.system.services.searchengine.SolrEnvironmentVariables;
@@ -48,6 +49,28 @@ class SearchEngineManagerFactoryTest {
         }
     }
 
+    @Test
+    void shouldConfigureDefaultSearchEngine() throws Exception {
+        factory.setReloadWorkers(3);
+        factory.setIndexCommitInterval(2000);
+        factory.setIndexRefreshInterval(500);
+        factory.setIndexMaxStaleness(100);
+        try (MockedStatic<SolrEnvironmentVariables> solrEnvStaticMock = Mockito.mockStatic(
+                SolrEnvironmentVariables.class);
+                MockedConstruction<SearchEngineDAOFactory> daoFactories = Mockito.mockConstruction(
+                        SearchEngineDAOFactory.class);
+                MockedConstruction<SearchEngineManager> managers = Mockito.mockConstruction(
+                        SearchEngineManager.class)) {
+            solrEnvStaticMock.when(() -> SolrEnvironmentVariables.active()).thenReturn(false);
+            factory.createSearchEngineManager();
+            SearchEngineDAOFactory daoFactory = daoFactories.constructed().get(0);
+            Mockito.verify(daoFactory).setCommitInterval(2000);
+            Mockito.verify(daoFactory).setRefreshInterval(500);
+            Mockito.verify(daoFactory).setMaxStaleness(100);
+            Mockito.verify(managers.constructed().get(0)).setReloadWorkers(3);
+        }
+    }
+
     @Test
     void shouldLoadSolrSearchEngineIfSolrIsActive() throws Exception {
         try (MockedStatic<SolrEnvironmentVariables> solrEnvStaticMock =
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021-Present Entando Inc. (http://www.entando.com) All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+package org.entando.entando.plugins.jpsolr.aps.system.solr;
+
+import com.agiletec.aps.system.common.entity.model.IApsEntity;
+import com.agiletec.plugins.jacms.aps.system.services.content.IContentManager;
+import com.agiletec.plugins.jacms.aps.system.services.content.model.Content;
+import com.agiletec.plugins.jacms.aps.system.services.searchengine.LastReloadInfo;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.entando.entando.ent.exception.EntException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SolrIndexLoaderThreadTest {
+
+    @Mock
+    private SolrSearchEngineManager searchEngineManager;
+    @Mock
+    private IContentManager contentManager;
+    @Mock
+    private ISolrIndexerDAO indexerDao;
+
+    private final Set<String> failingIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> loaderThreadNames = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger loadCalls = new AtomicInteger();
+    private final List<String> indexedIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Mockito.lenient().when(this.contentManager.loadContent(Mockito.anyString(), Mockito.eq(true)))
+                .thenAnswer(invocation -> {
+                    String id = invocation.getArgument(0);
+                    this.loadCalls.incrementAndGet();
+                    this.loaderThreadNames.add(Thread.currentThread().getName());
+                    if (this.failingIds.contains(id)) {
+                        throw new EntException("Error loading " + id);
+                    }
+                    Content content = new Content();
+                    content.setId(id);
+                    return content;
+                });
+    }
+
+    @Test
+    void shouldIndexContentsLoadedByLoaderThreads() throws Exception {
+        List<String> ids = this.givenContentIds(300);
+        this.indexEverything();
+
+        SolrIndexLoaderThread loader = this.runLoader("RELOAD_INDEX_test", 4, 10);
+
+        Assertions.assertEquals(ids.size(), this.indexedIds.size());
+        Assertions.assertTrue(this.indexedIds.containsAll(ids));
+        Assertions.assertEquals(300, loader.getTotal());
+        Assertions.assertEquals(300, loader.getLoaded());
+        Assertions.assertEquals(300, loader.getIndexed());
+        Assertions.assertEquals(0, loader.getFailed());
+        Assertions.assertEquals(100, loader.getProgress().getPercentage());
+        Assertions.assertTrue(this.loaderThreadNames.size() > 1);
+        Assertions.assertTrue(this.loaderThreadNames.size() <= 4);
+        Assertions.assertTrue(this.loaderThreadNames.stream().allMatch(name -> name.startsWith("RELOAD_INDEX_test_LOADER_")));
+        Assertions.assertEquals(LastReloadInfo.ID_SUCCESS_RESULT, this.captureReloadResult());
+    }
+
+    @Test
+    void shouldSkipContentsNotLoaded() throws Exception {
+        List<String> ids = this.givenContentIds(3);
+        this.failingIds.add(ids.get(1));
+        this.indexEverything();
+
+        SolrIndexLoaderThread loader = this.runLoader("RELOAD_INDEX_failure", 2, 10);
+
+        Assertions.assertEquals(2, loader.getIndexed());
+        Assertions.assertEquals(1, loader.getFailed());
+        Assertions.assertFalse(this.indexedIds.contains(ids.get(1)));
+        Assertions.assertEquals(LastReloadInfo.ID_SUCCESS_RESULT, this.captureReloadResult());
+    }
+
+    @Test
+    void shouldCompleteWithoutContents() throws Exception {
+        this.givenContentIds(0);
+        this.indexEverything();
+
+        SolrIndexLoaderThread loader = this.runLoader("RELOAD_INDEX_empty", 3, 10);
+
+        Assertions.assertEquals(0, loader.getIndexed());
+        Assertions.assertEquals(LastReloadInfo.ID_SUCCESS_RESULT, this.captureReloadResult());
+    }
+
+    @Test
+    void shouldNotLoadAheadOfTheIndexer() throws Exception {
+        int loaderThreads = 2;
+        int queueSize = 5;
+        this.givenContentIds(100);
+        CountDownLatch indexerStarted = new CountDownLatch(1);
+        CountDownLatch releaseIndexer = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            indexerStarted.countDown();
+            Assertions.assertTrue(releaseIndexer.await(5, TimeUnit.SECONDS));
+            return ((Stream<IApsEntity>) invocation.getArgument(0)).count();
+        }).when(this.indexerDao).addBulk(Mockito.any());
+
+        SolrIndexLoaderThread loader = new SolrIndexLoaderThread(null, this.searchEngineManager,
+                this.contentManager, this.indexerDao, loaderThreads, queueSize);
+        loader.start();
+        Assertions.assertTrue(indexerStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        Assertions.assertTrue(this.loadCalls.get() <= queueSize + loaderThreads);
+        releaseIndexer.countDown();
+        loader.join(5000);
+
+        Assertions.assertFalse(loader.isAlive());
+        Assertions.assertEquals(100, loader.getIndexed());
+    }
+
+    @Test
+    void shouldStopIndexingWhenCancelled() throws Exception {
+        this.givenContentIds(100);
+        CountDownLatch firstIndexed = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            ((Stream<IApsEntity>) invocation.getArgument(0)).forEach(entity -> {
+                firstIndexed.countDown();
+                this.pause(10);
+            });
+            return null;
+        }).when(this.indexerDao).addBulk(Mockito.any());
+
+        SolrIndexLoaderThread loader = new SolrIndexLoaderThread(null, this.searchEngineManager,
+                this.contentManager, this.indexerDao, 2, 5);
+        loader.start();
+        Assertions.assertTrue(firstIndexed.await(5, TimeUnit.SECONDS));
+        loader.cancel();
+        loader.join(5000);
+
+        Assertions.assertFalse(loader.isAlive());
+        Assertions.assertTrue(loader.isCancelled());
+        Assertions.assertTrue(loader.getIndexed() < 100);
+        Assertions.assertEquals(LastReloadInfo.ID_FAILURE_RESULT, this.captureReloadResult());
+    }
+
+    private List<String> givenContentIds(int count) throws Exception {
+        List<String> ids = IntStream.range(0, count).mapToObj(i -> "NWS" + i).collect(Collectors.toList());
+        Mockito.when(this.contentManager.searchId(null)).thenReturn(ids);
+        return ids;
+    }
+
+    private void indexEverything() {
+        Mockito.doAnswer(invocation -> {
+            ((Stream<IApsEntity>) invocation.getArgument(0)).forEach(entity -> this.indexedIds.add(entity.getId()));
+            return null;
+        }).when(this.indexerDao).addBulk(Mockito.any());
+    }
+
+    private SolrIndexLoaderThread runLoader(String name, int loaderThreads, int queueSize) throws InterruptedException {
+        SolrIndexLoaderThread loader = new SolrIndexLoaderThread(null, this.searchEngineManager,
+                this.contentManager, this.indexerDao, loaderThreads, queueSize);
+        loader.setName(name);
+        loader.start();
+        loader.join(10000);
+        Assertions.assertFalse(loader.isAlive());
+        return loader;
+    }
+
+    private int captureReloadResult() {
+        ArgumentCaptor<LastReloadInfo> captor = ArgumentCaptor.forClass(LastReloadInfo.class);
+        Mockito.verify(this.searchEngineManager).notifyEndingIndexLoading(captor.capture(), Mockito.same(this.indexerDao));
+        Mockito.verify(this.searchEngineManager).sellOfQueueEvents();
+        return captor.getValue().getResult();
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
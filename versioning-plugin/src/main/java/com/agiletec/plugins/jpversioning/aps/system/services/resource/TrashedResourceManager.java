@@ -32,7 +32,6 @@ import java.util.List;
 import java.util.Map;
 
 import java.util.Optional;
-import javax.xml.parsers.SAXParser;
 
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -290,10 +289,9 @@ public class TrashedResourceManager extends AbstractService implements ITrashedR
      */
     protected void fillEmptyResourceFromXml(ResourceInterface resource, String xml) throws EntException {
     	try {
-			SAXParser parser = EntSafeXmlUtils.newSafeSAXParser();
     		InputSource is = new InputSource(new StringReader(xml));
     		ResourceHandler handler = new ResourceHandler(resource, this.getCategoryManager());
-    		parser.parse(is, handler);
+    		EntSafeXmlUtils.parseWithPooledSAXParser(is, handler);
     	} catch (Throwable t) {
     		_logger.error("Error on loading resource", t);
     		throw new EntException("Error on loading resource", t);
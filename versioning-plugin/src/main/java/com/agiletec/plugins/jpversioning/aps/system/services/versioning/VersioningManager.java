@@ -26,7 +26,6 @@ import java.io.StringReader;
 import java.util.List;
 
 import java.util.Optional;
-import javax.xml.parsers.SAXParser;
 
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -235,11 +234,10 @@ public class VersioningManager extends AbstractService implements IVersioningMan
     protected Content createContentFromXml(String entityTypeCode, String xml) throws EntException {
         try {
             Content entityPrototype = (Content) this.getContentManager().getEntityPrototype(entityTypeCode);
-            SAXParser parser = EntSafeXmlUtils.newSafeSAXParser();
             InputSource is = new InputSource(new StringReader(xml));
             EntityHandler handler = this.getEntityHandler();
             handler.initHandler(entityPrototype, this.getXmlAttributeRootElementName());
-            parser.parse(is, handler);
+            EntSafeXmlUtils.parseWithPooledSAXParser(is, handler);
             return entityPrototype;
         } catch (ParserConfigurationException | SAXException | IOException e) {
             _logger.error("Error on creation entity. typecode: {} xml: {}", entityTypeCode, xml, e);